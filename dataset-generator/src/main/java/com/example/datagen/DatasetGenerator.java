@@ -0,0 +1,129 @@
+package com.example.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-loads synthetic packages with PostgreSQL {@code COPY ... FROM STDIN}, one
+ * connection per loader thread, straight into the table (no service, no JPA).
+ * <p>
+ * Ids are assigned explicitly ({@link DatasetSpec#firstId()} onwards), so the row
+ * behind every id is reproducible. Small sequential ids sit far below the
+ * service's time-ordered ids and never collide with packages it creates later.
+ * Each chunk is its own COPY transaction: a failed run leaves the chunks loaded so
+ * far in place; reload with {@code truncate} set.
+ * <p>
+ * Loader sessions set {@code app.skip_status_history}, so the status-change trigger
+ * stamps {@code status_changed_at} without writing a history row per loaded package:
+ * seeded packages report dwell times from their first real transition onwards.
+ */
+public final class DatasetGenerator {
+
+    private static final String COPY_SQL =
+            "COPY packages (package_id, description, weight, fragile, status) FROM STDIN WITH (FORMAT csv)";
+    private static final String SKIP_STATUS_HISTORY_SQL = "SET app.skip_status_history = 'on'";
+
+    /** Opens a new connection per loader thread (e.g. {@code dataSource::getConnection}). */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    public record Result(long rows, Duration elapsed) {
+        public double rowsPerSecond() {
+            return rows / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+    }
+
+    private final ConnectionFactory connections;
+
+    public DatasetGenerator(ConnectionFactory connections) {
+        this.connections = connections;
+    }
+
+    public Result generate(DatasetSpec spec) throws SQLException {
+        long start = System.nanoTime();
+        if (spec.truncate()) {
+            execute("TRUNCATE packages");
+        }
+        load(spec);
+        // Keep the identity sequence ahead of the loaded ids for anything still relying on it
+        execute("SELECT setval(pg_get_serial_sequence('packages', 'package_id'), "
+                + "GREATEST((SELECT max(package_id) FROM packages), 1))");
+        execute("ANALYZE packages");
+        return new Result(spec.rows(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void load(DatasetSpec spec) throws SQLException {
+        int chunks = spec.chunks();
+        int workers = Math.min(spec.parallelism(), Math.max(chunks, 1));
+        PackageRowGenerator rows = new PackageRowGenerator(spec.seed());
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> loaders = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                loaders.add(executor.submit(() -> {
+                    loadChunks(spec, rows, nextChunk, chunks);
+                    return null;
+                }));
+            }
+            for (Future<Void> loader : loaders) {
+                loader.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading packages", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException sql ? sql : new SQLException("Loading packages failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void loadChunks(DatasetSpec spec, PackageRowGenerator rows, AtomicInteger nextChunk, int chunks)
+            throws SQLException, IOException {
+        try (Connection connection = connections.open()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(SKIP_STATUS_HISTORY_SQL);
+            }
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            StringBuilder buffer = new StringBuilder(spec.chunkRows() * 96);
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks && !Thread.currentThread().isInterrupted()) {
+                long offset = (long) chunk * spec.chunkRows();
+                int size = (int) Math.min(spec.chunkRows(), spec.rows() - offset);
+                buffer.setLength(0);
+                rows.appendChunk(buffer, chunk, spec.firstId() + offset, size);
+                byte[] csv = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copy.copyIn(COPY_SQL, new ByteArrayInputStream(csv));
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connections.open();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute(sql);
+        }
+    }
+}
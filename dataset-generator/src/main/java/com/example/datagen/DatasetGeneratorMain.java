@@ -0,0 +1,67 @@
+package com.example.datagen;
+
+import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point, e.g. from the repository root:
+ * <pre>
+ * mvn -pl dataset-generator exec:java -Dexec.args="--url jdbc:postgresql://localhost:5432/db --rows 10000000"
+ * </pre>
+ * Options:
+ * <pre>
+ * --url jdbc:postgresql://localhost:5432/logisticCompany_db --user postgres --password ...
+ * --rows 10000000 --seed 42 [--first-id 1] [--chunk-rows 50000] [--parallelism N] [--truncate]
+ * </pre>
+ * Run against a migrated schema (run the package-service migration job, profile {@code migrate}).
+ */
+public final class DatasetGeneratorMain {
+
+    private DatasetGeneratorMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = required(options, "url");
+        String user = options.getOrDefault("user", "postgres");
+        String password = options.getOrDefault("password", "");
+
+        DatasetSpec defaults = DatasetSpec.of(Long.parseLong(required(options, "rows")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        DatasetSpec spec = new DatasetSpec(
+                defaults.rows(),
+                defaults.seed(),
+                Long.parseLong(options.getOrDefault("first-id", String.valueOf(defaults.firstId()))),
+                Integer.parseInt(options.getOrDefault("chunk-rows", String.valueOf(defaults.chunkRows()))),
+                Integer.parseInt(options.getOrDefault("parallelism", String.valueOf(defaults.parallelism()))),
+                options.containsKey("truncate"));
+
+        DatasetGenerator.Result result =
+                new DatasetGenerator(() -> DriverManager.getConnection(url, user, password)).generate(spec);
+        System.out.printf("Loaded %,d packages in %.1f s (%,.0f rows/s, %d loaders, seed %d)%n",
+                result.rows(), result.elapsed().toMillis() / 1000.0, result.rowsPerSecond(),
+                spec.parallelism(), spec.seed());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+}
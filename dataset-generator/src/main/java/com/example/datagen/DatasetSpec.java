@@ -0,0 +1,37 @@
+package com.example.datagen;
+
+/**
+ * What to load.
+ *
+ * @param rows        number of packages to insert
+ * @param seed        dataset seed; the same seed always yields the same rows
+ * @param firstId     package_id of the first row; ids are assigned sequentially from it
+ * @param chunkRows   rows per COPY; also the unit of work handed to a loader thread
+ * @param parallelism concurrent COPY connections
+ * @param truncate    empty the packages table first
+ */
+public record DatasetSpec(long rows, long seed, long firstId, int chunkRows, int parallelism, boolean truncate) {
+
+    public static final int DEFAULT_CHUNK_ROWS = 50_000;
+
+    public DatasetSpec {
+        if (rows < 0) {
+            throw new IllegalArgumentException("rows must not be negative");
+        }
+        if (firstId < 1) {
+            throw new IllegalArgumentException("firstId must be positive");
+        }
+        if (chunkRows < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("chunkRows and parallelism must be positive");
+        }
+    }
+
+    /** Sequential ids from 1, one loader per core, table left as is. */
+    public static DatasetSpec of(long rows, long seed) {
+        return new DatasetSpec(rows, seed, 1, DEFAULT_CHUNK_ROWS, Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    public int chunks() {
+        return (int) ((rows + chunkRows - 1) / chunkRows);
+    }
+}
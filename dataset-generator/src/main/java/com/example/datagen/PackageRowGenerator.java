@@ -0,0 +1,117 @@
+package com.example.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Produces the rows of one chunk as COPY CSV text.
+ * <p>
+ * Every chunk draws from its own random stream derived from the dataset seed and
+ * the chunk index, so a chunk's content depends only on (seed, chunk) and the whole
+ * dataset is identical however many workers load it and in whatever order.
+ * <p>
+ * Distributions:
+ * <ul>
+ *   <li>status leans towards in-flight and delivered packages (see {@link #STATUSES});</li>
+ *   <li>weight is log-normal around ~2.7 kg, clipped to the service's 0.1-50 kg range;</li>
+ *   <li>about 15% of packages are fragile;</li>
+ *   <li>descriptions are 2 to 30 words (mostly short), suffixed with the package id
+ *       so they stay unique like the service enforces.</li>
+ * </ul>
+ */
+public final class PackageRowGenerator {
+
+    static final String[] STATUSES = {
+            "PENDING", "PROCESSING", "IN_TRANSIT", "OUT_FOR_DELIVERY", "DELIVERED", "FAILED_DELIVERY", "RETURNED"
+    };
+    // Cumulative probabilities matching STATUSES
+    private static final double[] STATUS_CDF = {0.25, 0.45, 0.65, 0.75, 0.95, 0.98, 1.0};
+
+    private static final double FRAGILE_RATIO = 0.15;
+    private static final double WEIGHT_LOG_MEAN = 1.0;
+    private static final double WEIGHT_LOG_SIGMA = 0.9;
+    private static final double MIN_WEIGHT = 0.1;
+    private static final double MAX_WEIGHT = 50.0;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private static final String[] WORDS = {
+            "box", "parcel", "documents", "books", "laptop", "phone", "spare", "parts", "clothing", "shoes",
+            "glassware", "ceramics", "medical", "supplies", "toys", "kitchen", "tools", "garden", "furniture",
+            "fittings", "cosmetics", "printer", "cartridges", "cables", "samples", "returns", "gift", "wrapped",
+            "express", "fresh", "coffee", "tea", "paintings", "frames", "lamps", "vinyl", "records", "camera",
+            "lenses", "batteries", "bicycle", "accessories", "stationery", "fabric", "rolls", "jewellery"
+    };
+
+    private final long seed;
+
+    public PackageRowGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Appends rows with ids {@code firstId .. firstId + rows - 1} for the given chunk as
+     * {@code package_id,description,weight,fragile,status} CSV lines.
+     */
+    public void appendChunk(StringBuilder out, int chunk, long firstId, int rows) {
+        SplittableRandom random = new SplittableRandom(chunkSeed(seed, chunk));
+        for (int i = 0; i < rows; i++) {
+            long id = firstId + i;
+            out.append(id).append(',');
+            appendDescription(out, random, id);
+            out.append(',');
+            appendWeight(out, random);
+            out.append(',').append(random.nextDouble() < FRAGILE_RATIO ? 't' : 'f');
+            out.append(',').append(status(random.nextDouble())).append('\n');
+        }
+    }
+
+    static String status(double r) {
+        for (int i = 0; i < STATUS_CDF.length; i++) {
+            if (r < STATUS_CDF[i]) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[STATUSES.length - 1];
+    }
+
+    private static void appendDescription(StringBuilder out, SplittableRandom random, long id) {
+        // Geometric-ish word count: most descriptions are short, a long tail is not
+        int words = 2;
+        while (words < 30 && random.nextDouble() < 0.7) {
+            words++;
+        }
+        String suffix = " #" + id;
+        int start = out.length();
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (out.length() - start + word.length() + 1 + suffix.length() > MAX_DESCRIPTION_LENGTH) {
+                break;
+            }
+            if (w > 0) {
+                out.append(' ');
+            }
+            out.append(word);
+        }
+        // Words contain no commas or quotes, so no CSV quoting is needed
+        out.append(suffix);
+    }
+
+    private static void appendWeight(StringBuilder out, SplittableRandom random) {
+        double weight = Math.exp(WEIGHT_LOG_MEAN + WEIGHT_LOG_SIGMA * random.nextGaussian());
+        weight = Math.min(MAX_WEIGHT, Math.max(MIN_WEIGHT, weight));
+        long hundredths = Math.round(weight * 100);
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    static long chunkSeed(long seed, int chunk) {
+        // SplitMix64 finalizer, so neighbouring chunks get unrelated streams
+        long z = seed + (chunk + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
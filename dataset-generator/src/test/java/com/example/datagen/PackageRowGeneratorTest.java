@@ -0,0 +1,65 @@
+package com.example.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackageRowGeneratorTest {
+
+    @Test
+    void appendChunk_isDeterministicPerSeedAndChunk() {
+        assertThat(chunk(42, 3, 1_000)).isEqualTo(chunk(42, 3, 1_000));
+        assertThat(chunk(42, 3, 1_000)).isNotEqualTo(chunk(42, 4, 1_000));
+        assertThat(chunk(42, 3, 1_000)).isNotEqualTo(chunk(43, 3, 1_000));
+    }
+
+    @Test
+    void appendChunk_producesValidRowsWithRealisticDistributions() {
+        // Given
+        int rows = 100_000;
+        String[] lines = chunk(7, 0, rows).split("\n");
+
+        // When
+        Set<String> descriptions = new HashSet<>();
+        Map<String, Integer> statuses = new HashMap<>();
+        int fragile = 0;
+        for (int i = 0; i < lines.length; i++) {
+            String[] columns = lines[i].split(",", -1);
+            assertThat(columns).hasSize(5);
+            assertThat(Long.parseLong(columns[0])).isEqualTo(1 + i);
+            assertThat(columns[1]).hasSizeBetween(4, 255);
+            descriptions.add(columns[1]);
+            assertThat(Double.parseDouble(columns[2])).isBetween(0.1, 50.0);
+            fragile += columns[3].equals("t") ? 1 : 0;
+            statuses.merge(columns[4], 1, Integer::sum);
+        }
+
+        // Then
+        assertThat(lines).hasSize(rows);
+        assertThat(descriptions).hasSize(rows);
+        assertThat(fragile / (double) rows).isBetween(0.14, 0.16);
+        assertThat(statuses.keySet()).containsExactlyInAnyOrder(PackageRowGenerator.STATUSES);
+        assertThat(statuses.get("PENDING") / (double) rows).isBetween(0.24, 0.26);
+        assertThat(statuses.get("RETURNED") / (double) rows).isBetween(0.015, 0.025);
+    }
+
+    @Test
+    void status_followsCumulativeDistribution() {
+        assertThat(PackageRowGenerator.status(0.0)).isEqualTo("PENDING");
+        assertThat(PackageRowGenerator.status(0.5)).isEqualTo("IN_TRANSIT");
+        assertThat(PackageRowGenerator.status(0.999)).isEqualTo("RETURNED");
+        assertThat(Arrays.asList(PackageRowGenerator.STATUSES)).hasSize(7);
+    }
+
+    private static String chunk(long seed, int chunk, int rows) {
+        StringBuilder out = new StringBuilder();
+        new PackageRowGenerator(seed).appendChunk(out, chunk, 1, rows);
+        return out.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.loadtest;
+
+import com.example.datagen.DatasetGenerator;
+import com.example.datagen.DatasetSpec;
+import com.example.demo.model.PackageStatus;
+import com.example.loadtest.PackagePool.PackageState;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Seeds the packages table with the deterministic synthetic dataset (parallel COPY,
+ * see {@link DatasetGenerator}) and loads the client-side pool from it.
+ */
+public final class DatasetSeeder {
+
+    private final DataSource dataSource;
+
+    public DatasetSeeder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public PackagePool seed(int rows, long seed) throws SQLException {
+        new DatasetGenerator(dataSource::getConnection).generate(DatasetSpec.of(rows, seed));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            return loadPool(connection, rows);
+        }
+    }
+
+    private PackagePool loadPool(Connection connection, int expectedRows) throws SQLException {
+        PackagePool pool = new PackagePool(expectedRows);
+        try (Statement select = connection.createStatement()) {
+            select.setFetchSize(10_000);
+            try (ResultSet rs = select.executeQuery(
+                    "SELECT package_id, description, weight, fragile, status FROM packages ORDER BY package_id")) {
+                while (rs.next()) {
+                    pool.add(new PackageState(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getDouble(3),
+                            rs.getBoolean(4),
+                            PackageStatus.valueOf(rs.getString(5))
+                    ));
+                }
+            }
+        }
+        connection.commit();
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.loadtest;
+
+/**
+ * Operations driven against package-service during a load run.
+ */
+public enum Endpoint {
+    CREATE("create"),
+    LIST("list"),
+    GET("get"),
+    TRANSITION("transition");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key.trim())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in traffic mix: " + key);
+    }
+}
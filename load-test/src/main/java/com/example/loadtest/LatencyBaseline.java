@@ -0,0 +1,68 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Properties;
+
+/**
+ * p99 latency per endpoint recorded from an earlier run on the same kind of machine,
+ * stored as {@code <endpoint>.p99-ms} properties; later runs are gated on regressing
+ * from it rather than on absolute numbers.
+ */
+public record LatencyBaseline(Map<Endpoint, Double> p99Millis) {
+
+    private static final String SUFFIX = ".p99-ms";
+
+    public static Optional<LatencyBaseline> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<Endpoint, Double> p99 = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            String value = properties.getProperty(endpoint.key() + SUFFIX);
+            if (value != null) {
+                p99.put(endpoint, Double.parseDouble(value));
+            }
+        }
+        return Optional.of(new LatencyBaseline(p99));
+    }
+
+    public static LatencyBaseline of(LoadReport report) {
+        Map<Endpoint, Double> p99 = new EnumMap<>(Endpoint.class);
+        for (LoadReport.EndpointResult result : report.results().values()) {
+            if (result.histogram().getTotalCount() > 0) {
+                p99.put(result.endpoint(), result.p99Millis());
+            }
+        }
+        return new LatencyBaseline(p99);
+    }
+
+    public OptionalDouble p99Millis(Endpoint endpoint) {
+        Double value = p99Millis.get(endpoint);
+        return value == null ? OptionalDouble.empty() : OptionalDouble.of(value);
+    }
+
+    public void write(Path file, String comment) throws IOException {
+        Properties properties = new Properties();
+        p99Millis.forEach((endpoint, p99) -> properties.setProperty(endpoint.key() + SUFFIX, String.format(Locale.ROOT, "%.3f", p99)));
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+}
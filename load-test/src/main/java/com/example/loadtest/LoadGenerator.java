@@ -0,0 +1,271 @@
+package com.example.loadtest;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.loadtest.PackagePool.PackageState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic generator.
+ * <p>
+ * Arrivals follow a Poisson process at the configured rate and are scheduled
+ * independently of responses: the dispatcher never waits for a request to finish
+ * before sending the next one. Latency is measured from the <em>intended</em> send
+ * time, so a stalled server or a late dispatcher shows up in the histogram instead
+ * of silently lowering the offered load (coordinated omission).
+ */
+public final class LoadGenerator {
+
+    private static final int MAX_IN_FLIGHT = 20_000;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final int LIST_PAGE_SIZE = 20;
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final PackagePool pool;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong createSequence = new AtomicLong();
+
+    public LoadGenerator(LoadTestConfig config, URI baseUri, PackagePool pool) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.pool = pool;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        int totalWeight = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Traffic mix must contain at least one positive weight");
+        }
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+
+        double next = start;
+        while (true) {
+            next += -Math.log(1.0 - random.nextDouble()) * meanIntervalNanos;
+            long intended = (long) next;
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            dispatch(pick(random, totalWeight), intended, intended >= measureFrom, random);
+        }
+
+        drain();
+        return new LoadReport(config.duration(), snapshot());
+    }
+
+    private void dispatch(Endpoint endpoint, long intended, boolean measured, SplittableRandom random) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.get() >= MAX_IN_FLIGHT) {
+            // The server is so far behind that we stop queueing; count it rather than hide it
+            endpointStats.dropped(measured);
+            return;
+        }
+
+        PackageState transitionTarget = null;
+        HttpRequest request;
+        switch (endpoint) {
+            case CREATE -> request = createRequest();
+            case LIST -> request = listRequest(random);
+            case GET -> request = getRequest(random);
+            case TRANSITION -> {
+                transitionTarget = pool.takeForTransition().orElse(null);
+                if (transitionTarget == null) {
+                    endpointStats.skipped(measured);
+                    return;
+                }
+                request = transitionRequest(transitionTarget);
+            }
+            default -> throw new IllegalStateException("Unhandled endpoint: " + endpoint);
+        }
+
+        PackageState target = transitionTarget;
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    try {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        boolean success = error == null && onResponse(endpoint, response, target);
+                        if (measured) {
+                            endpointStats.record(latencyMicros, success);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private boolean onResponse(Endpoint endpoint, HttpResponse<String> response, PackageState target) {
+        int status = response.statusCode();
+        return switch (endpoint) {
+            case CREATE -> {
+                if (status != 201) {
+                    yield false;
+                }
+                PackageResponseDTO created = read(response.body());
+                pool.add(new PackageState(created.packageId(), created.description(), created.weight(),
+                        created.fragile(), created.status()));
+                yield true;
+            }
+            case TRANSITION -> {
+                if (status != 200) {
+                    yield false;
+                }
+                pool.offerForTransition(target.withStatus(PackagePool.nextStatus(target.status())));
+                yield true;
+            }
+            case LIST, GET -> status == 200;
+        };
+    }
+
+    private HttpRequest createRequest() {
+        long n = createSequence.incrementAndGet();
+        PackageRequestDTO body = new PackageRequestDTO(
+                "Load test package " + n + "-" + System.nanoTime(),
+                1.0 + (n % 49),
+                n % 7 == 0,
+                PackageStatus.PENDING
+        );
+        return json(HttpRequest.newBuilder(URI.create(baseUri + "/create")), body, "POST");
+    }
+
+    private HttpRequest listRequest(SplittableRandom random) {
+        int pages = Math.max(1, pool.size() / LIST_PAGE_SIZE);
+        // Most clients look at the first pages
+        int page = random.nextInt(100) < 80 ? random.nextInt(Math.min(pages, 10)) : random.nextInt(pages);
+        URI uri = URI.create(baseUri + "/all?pageNumber=" + page + "&pageSize=" + LIST_PAGE_SIZE);
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest getRequest(SplittableRandom random) {
+        long id = pool.idAt(random.nextInt(pool.size()));
+        return HttpRequest.newBuilder(URI.create(baseUri + "/" + id)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest transitionRequest(PackageState target) {
+        PackageRequestDTO body = new PackageRequestDTO(
+                target.description(),
+                target.weight(),
+                target.fragile(),
+                PackagePool.nextStatus(target.status())
+        );
+        return json(HttpRequest.newBuilder(URI.create(baseUri + "/" + target.packageId())), body, "PUT");
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, Object body, String method) {
+        try {
+            return builder
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private PackageResponseDTO read(String body) {
+        try {
+            return mapper.readValue(body, PackageResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response body: " + body, e);
+        }
+    }
+
+    private Endpoint pick(SplittableRandom random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : config.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Traffic mix weights are inconsistent");
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Map<Endpoint, LoadReport.EndpointResult> snapshot() {
+        Map<Endpoint, LoadReport.EndpointResult> results = new EnumMap<>(Endpoint.class);
+        stats.forEach((endpoint, s) -> results.put(endpoint, new LoadReport.EndpointResult(
+                endpoint,
+                s.recorder.getIntervalHistogram(),
+                s.errors.sum(),
+                s.dropped.sum(),
+                s.skipped.sum()
+        )));
+        return results;
+    }
+
+    private static final class EndpointStats {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        void record(long latencyMicros, boolean success) {
+            recorder.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        void dropped(boolean measured) {
+            if (measured) {
+                dropped.increment();
+            }
+        }
+
+        void skipped(boolean measured) {
+            if (measured) {
+                skipped.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Result of a load run: throughput and an HDR latency histogram (microseconds) per endpoint.
+ */
+public record LoadReport(Duration measuredDuration, Map<Endpoint, EndpointResult> results) {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    public EndpointResult result(Endpoint endpoint) {
+        return results.get(endpoint);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-11s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "completed", "req/s", "errors", "dropped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointResult r : results.values()) {
+            Histogram h = r.histogram();
+            out.printf("%-11s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint().key(),
+                    h.getTotalCount(),
+                    h.getTotalCount() / (measuredDuration.toMillis() / 1000.0),
+                    r.errors(),
+                    r.dropped(),
+                    h.getValueAtPercentile(50.0) / MICROS_PER_MILLI,
+                    h.getValueAtPercentile(90.0) / MICROS_PER_MILLI,
+                    h.getValueAtPercentile(99.0) / MICROS_PER_MILLI,
+                    h.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    h.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    /** Writes one {@code <endpoint>.hgrm} percentile distribution per endpoint, in milliseconds. */
+    public void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (EndpointResult r : results.values()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(r.endpoint().key() + ".hgrm")))) {
+                r.histogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    public record EndpointResult(Endpoint endpoint, Histogram histogram, long errors, long dropped, long skipped) {
+
+        public double p99Millis() {
+            return histogram.getValueAtPercentile(99.0) / MICROS_PER_MILLI;
+        }
+
+        /** Failed or dropped requests over everything the generator tried to send. */
+        public double errorRatio() {
+            long attempted = histogram.getTotalCount() + dropped;
+            return attempted == 0 ? 0.0 : (double) (errors + dropped) / attempted;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.loadtest;
+
+/**
+ * Wires a full load run: embedded database, package-service, seeded dataset, traffic.
+ */
+public final class LoadTest {
+
+    private final LoadTestConfig config;
+
+    public LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public LoadReport run() throws Exception {
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            // Seeded before the service starts, so whatever it loads at startup sees the whole dataset
+            database.migrate();
+            PackagePool pool = new DatasetSeeder(database.dataSource()).seed(config.seedRows(), config.seed());
+            try (PackageServiceInstance service = PackageServiceInstance.start(database)) {
+                return new LoadGenerator(config, service.baseUri(), pool).run();
+            }
+        }
+    }
+}
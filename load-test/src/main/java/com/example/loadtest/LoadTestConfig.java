@@ -0,0 +1,84 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parameters of a load run, read from {@code loadtest.*} system properties.
+ *
+ * @param ratePerSecond  target arrival rate across all endpoints
+ * @param duration       measured phase length
+ * @param warmup         phase before measurement whose samples are discarded
+ * @param seedRows       packages inserted before the run starts
+ * @param seed           seed for the dataset and the arrival/mix randomness
+ * @param mix            relative weight of each endpoint in the traffic
+ * @param baselineFile   recorded p99 per endpoint that a run is compared with
+ * @param maxRegression  tolerated p99 increase over the baseline, as a ratio (0.2 = 20%)
+ * @param regressionSlackMillis  absolute p99 increase always tolerated, for sub-millisecond noise
+ * @param updateBaseline record this run's p99 as the new baseline instead of comparing
+ * @param maxErrorRatio  tolerated share of failed requests per endpoint
+ * @param reportDir      where the HDR histogram files are written
+ */
+public record LoadTestConfig(
+        double ratePerSecond,
+        Duration duration,
+        Duration warmup,
+        int seedRows,
+        long seed,
+        Map<Endpoint, Integer> mix,
+        Path baselineFile,
+        double maxRegression,
+        double regressionSlackMillis,
+        boolean updateBaseline,
+        double maxErrorRatio,
+        Path reportDir
+) {
+
+    private static final String PREFIX = "loadtest.";
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(property("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                Integer.parseInt(property("seed-rows", "100000")),
+                Long.parseLong(property("seed", "42")),
+                parseMix(property("mix", "create=10,list=20,get=60,transition=10")),
+                Path.of(property("baseline-file", "baseline/p99.properties")),
+                Double.parseDouble(property("max-regression", "0.2")),
+                Double.parseDouble(property("regression-slack-ms", "2")),
+                Boolean.parseBoolean(property("update-baseline", "false")),
+                Double.parseDouble(property("max-error-ratio", "0.01")),
+                Path.of(property("report-dir", "target/load-test"))
+        );
+    }
+
+    /** Highest p99 that does not count as a regression from the baseline's. */
+    public double p99LimitMillis(double baselineP99Millis) {
+        return baselineP99Millis * (1 + maxRegression) + regressionSlackMillis;
+    }
+
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Traffic mix weight must not be negative: " + entry);
+            }
+            weights.put(Endpoint.fromKey(parts[0]), weight);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
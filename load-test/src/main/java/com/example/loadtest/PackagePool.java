@@ -0,0 +1,73 @@
+package com.example.loadtest;
+
+import com.example.demo.model.PackageStatus;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Client-side view of the packages known to exist, used to pick targets for
+ * {@code GET /{id}} and status transitions.
+ * <p>
+ * A package waiting for its next transition sits in the queue exactly once, so two
+ * in-flight requests never race on the same package.
+ */
+public final class PackagePool {
+
+    private static final Map<PackageStatus, PackageStatus> NEXT_STATUS = Map.of(
+            PackageStatus.PENDING, PackageStatus.PROCESSING,
+            PackageStatus.PROCESSING, PackageStatus.IN_TRANSIT,
+            PackageStatus.IN_TRANSIT, PackageStatus.OUT_FOR_DELIVERY,
+            PackageStatus.OUT_FOR_DELIVERY, PackageStatus.DELIVERED
+    );
+
+    private final ConcurrentLinkedQueue<PackageState> transitionCandidates = new ConcurrentLinkedQueue<>();
+    private volatile long[] ids;
+    private volatile int size;
+
+    public PackagePool(int expectedSize) {
+        this.ids = new long[Math.max(16, expectedSize)];
+    }
+
+    public synchronized void add(PackageState pkg) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[size] = pkg.packageId();
+        size = size + 1;
+        offerForTransition(pkg);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public Optional<PackageState> takeForTransition() {
+        return Optional.ofNullable(transitionCandidates.poll());
+    }
+
+    /** Returns the package to the transition queue if it can still move forward. */
+    public void offerForTransition(PackageState pkg) {
+        if (NEXT_STATUS.containsKey(pkg.status())) {
+            transitionCandidates.offer(pkg);
+        }
+    }
+
+    public static PackageStatus nextStatus(PackageStatus status) {
+        return NEXT_STATUS.get(status);
+    }
+
+    public record PackageState(long packageId, String description, double weight, boolean fragile,
+                               PackageStatus status) {
+
+        public PackageState withStatus(PackageStatus next) {
+            return new PackageState(packageId, description, weight, fragile, next);
+        }
+    }
+}
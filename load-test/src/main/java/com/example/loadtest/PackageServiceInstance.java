@@ -0,0 +1,61 @@
+package com.example.loadtest;
+
+import com.example.demo.PackageServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * package-service running in-process against the embedded database on a random port,
+ * with the background features that would skew the measurements switched off.
+ */
+public final class PackageServiceInstance implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final URI baseUri;
+
+    private PackageServiceInstance(ConfigurableApplicationContext context, URI baseUri) {
+        this.context = context;
+        this.baseUri = baseUri;
+    }
+
+    public static PackageServiceInstance start(EmbeddedDatabase database) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", database.jdbcUrl());
+        properties.put("spring.datasource.username", EmbeddedDatabase.USER);
+        properties.put("spring.datasource.password", EmbeddedDatabase.PASSWORD);
+        // Migrated and seeded before startup (see LoadTest)
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("app.id.worker-id", "1");
+        // Request-level DEBUG logging would dominate the measurements
+        properties.put("logging.level.org.springframework.web", "INFO");
+        properties.put("logging.level.org.springdoc", "INFO");
+        // Background work that would be measured along with the traffic: warm-up requests, full-table
+        // projection rebuilds and the journal (which would also write to ./data/journal)
+        properties.put("app.warmup.enabled", "false");
+        properties.put("app.read-model.enabled", "false");
+        properties.put("app.snapshot.enabled", "false");
+        properties.put("app.journal.enabled", "false");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PackageServiceApplication.class)
+                .properties(properties)
+                .run();
+
+        Integer port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+        String prefix = context.getEnvironment().getProperty("api.prefix", "/api/v1");
+        return new PackageServiceInstance(context, URI.create("http://localhost:" + port + prefix + "/packages"));
+    }
+
+    public URI baseUri() {
+        return baseUri;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the load scenario and fails the build when an endpoint's p99 regresses past
+ * the recorded baseline ({@code loadtest.baseline-file}) or its error ratio goes past
+ * the threshold. Run with {@code mvn -Pload-test verify}; without a baseline, or with
+ * {@code -Dloadtest.update-baseline=true}, the run records one instead of comparing.
+ */
+class PackageServiceLoadIT {
+
+    @Test
+    void p99DoesNotRegressFromBaseline() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        LoadReport report = new LoadTest(config).run();
+        report.print(System.out);
+        report.writeHistograms(config.reportDir());
+
+        Optional<LatencyBaseline> baseline = config.updateBaseline()
+                ? Optional.empty()
+                : LatencyBaseline.read(config.baselineFile());
+        if (baseline.isEmpty()) {
+            LatencyBaseline.of(report).write(config.baselineFile(),
+                    "p99 per endpoint at rate " + config.ratePerSecond() + "/s, mix " + config.mix());
+            System.out.println("Recorded the p99 baseline in " + config.baselineFile().toAbsolutePath());
+        }
+
+        for (LoadReport.EndpointResult result : report.results().values()) {
+            if (config.mix().getOrDefault(result.endpoint(), 0) == 0) {
+                continue;
+            }
+            assertThat(result.histogram().getTotalCount())
+                    .as("%s completed requests", result.endpoint().key())
+                    .isPositive();
+            assertThat(result.errorRatio())
+                    .as("%s error ratio", result.endpoint().key())
+                    .isLessThanOrEqualTo(config.maxErrorRatio());
+            OptionalDouble baselineP99 = baseline.map(recorded -> recorded.p99Millis(result.endpoint()))
+                    .orElse(OptionalDouble.empty());
+            if (baselineP99.isPresent()) {
+                assertThat(result.p99Millis())
+                        .as("%s p99 latency (ms) against the baseline's %.2f ms",
+                                result.endpoint().key(), baselineP99.getAsDouble())
+                        .isLessThanOrEqualTo(config.p99LimitMillis(baselineP99.getAsDouble()));
+            }
+        }
+    }
+}
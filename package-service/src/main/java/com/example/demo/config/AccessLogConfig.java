@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import com.example.demo.diagnostics.AccessLogFilter;
+import com.example.demo.diagnostics.AccessLogSampler;
+import com.example.demo.diagnostics.AccessLogWriter;
+import com.example.demo.warmup.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+/**
+ * Structured access log ({@code app.access-log.enabled}), written to the
+ * {@code access} logger from a background thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    public static final String ACCESS_LOGGER = "access";
+
+    @Bean
+    public AccessLogWriter accessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize,
+                                           MeterRegistry registry) {
+        return new AccessLogWriter(bufferSize, LoggerFactory.getLogger(ACCESS_LOGGER), registry);
+    }
+
+    @Bean
+    public AccessLogSampler accessLogSampler(@Value("${app.access-log.sampling.default-rate:1.0}") double defaultRate,
+                                             @Value("${app.access-log.sampling.status-classes:}") String statusClasses,
+                                             @Value("${app.access-log.sampling.routes:}") String routes) {
+        return AccessLogSampler.parse(defaultRate, statusClasses, routes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogSampler sampler, AccessLogWriter writer) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(sampler, writer, Set.of(WarmupRunner.USER_AGENT)));
+        // Outside the SQL diagnostics filter so the latency includes it
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
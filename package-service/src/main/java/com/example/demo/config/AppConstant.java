@@ -10,4 +10,8 @@ public class AppConstant {
     public static final String PAGE_SIZE = "10";
     public static final String SORT_PACKAGE_BY = "packageId";
     public static final String SORT_DIR = "asc";
+
+    // Batch get: ids per request, and ids per IN query (Hibernate pads the list to a power of two)
+    public static final int MAX_BATCH_IDS = 500;
+    public static final int BATCH_CHUNK_SIZE = 100;
 }
\ No newline at end of file
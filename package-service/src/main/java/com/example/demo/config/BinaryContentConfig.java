@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary encodings of the JSON payloads, for high-volume internal consumers:
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}),
+ * chosen with {@code Accept} and {@code Content-Type} as usual.
+ * <p>
+ * Both converters use the application's Jackson settings ({@code spring.jackson.*},
+ * modules), so a binary payload has the same fields as its JSON form. They sit right
+ * after the JSON converter, so JSON stays the answer to a wildcard {@code Accept} or
+ * to none at all. With {@code app.binary-content.enabled=false} neither is offered.
+ */
+@Configuration
+public class BinaryContentConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.binary-content.enabled", havingValue = "true", matchIfMissing = true)
+    static class Enabled implements WebMvcConfigurer {
+
+        private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+        Enabled(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            this.objectMapperBuilder = objectMapperBuilder;
+        }
+
+        @Override
+        public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+            // Spring registers default ones when the dataformats are on the classpath; replace them
+            removeBinaryConverters(converters);
+
+            ObjectMapper cbor = objectMapperBuilder.build().copyWith(new CBORFactory());
+            ObjectMapper smile = objectMapperBuilder.build().copyWith(new SmileFactory());
+            int json = indexOfJson(converters);
+            converters.add(json + 1, new MappingJackson2CborHttpMessageConverter(cbor));
+            converters.add(json + 2, new MappingJackson2SmileHttpMessageConverter(smile));
+        }
+
+        private static int indexOfJson(List<HttpMessageConverter<?>> converters) {
+            for (int i = 0; i < converters.size(); i++) {
+                if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                    return i;
+                }
+            }
+            return converters.size() - 1;
+        }
+    }
+
+    /** Switched off: drops the default converters too, so binary requests get 406 / 415. */
+    @Configuration
+    @ConditionalOnProperty(name = "app.binary-content.enabled", havingValue = "false")
+    static class Disabled implements WebMvcConfigurer {
+
+        @Override
+        public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+            removeBinaryConverters(converters);
+        }
+    }
+
+    private static void removeBinaryConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+    }
+}
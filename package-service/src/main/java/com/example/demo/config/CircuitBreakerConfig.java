@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.resilience.CircuitBreaker;
+import com.example.demo.resilience.RepositoryCircuitBreakerInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker around {@link PackageRepository} ({@code app.circuit-breaker.enabled}):
+ * once the database keeps failing or stalling, repository calls fail fast with a 503
+ * instead of tying up request threads and connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.circuit-breaker.enabled", havingValue = "true", matchIfMissing = true)
+public class CircuitBreakerConfig {
+
+    @Bean
+    public CircuitBreaker databaseCircuitBreaker(
+            @Value("${app.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${app.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${app.circuit-breaker.open-duration:5s}") Duration openDuration,
+            @Value("${app.circuit-breaker.trial-calls:3}") int trialCalls,
+            MeterRegistry registry) {
+        CircuitBreaker breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                openDuration, trialCalls);
+        Gauge.builder("package.db.circuit.state", breaker, b -> b.state().ordinal())
+                .description("Database circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+        return breaker;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryCircuitBreakerPostProcessor(
+            ObjectProvider<CircuitBreaker> breaker,
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${app.circuit-breaker.slow-call-threshold:2s}") Duration slowCallThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PackageRepository) {
+                    ProxyFactory factory = new ProxyFactory(bean);
+                    factory.addAdvice(new RepositoryCircuitBreakerInterceptor(
+                            breaker.getObject(), slowCallThreshold, registry.getObject()));
+                    return factory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import com.example.demo.resilience.DeadlineFilter;
+import com.example.demo.resilience.DeadlineQueryTimeoutListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Request deadlines ({@code app.deadline.enabled}): every request gets a time
+ * budget, which JDBC statements inherit as their query timeout.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+            @Value("${app.deadline.read-timeout:3s}") Duration readTimeout,
+            @Value("${app.deadline.write-timeout:5s}") Duration writeTimeout) {
+        FilterRegistrationBean<DeadlineFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineFilter(readTimeout, writeTimeout));
+        // Inside the access log, so timed-out requests are still logged with their latency
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new DeadlineQueryTimeoutListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
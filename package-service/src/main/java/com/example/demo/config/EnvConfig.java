@@ -11,7 +11,7 @@ public class EnvConfig {
     @PostConstruct
     public void init() {
         // Load environment variables from .env file
-        Dotenv dotenv = Dotenv.configure().load();
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
         
         // Set system properties from .env file
         dotenv.entries().forEach(entry -> {
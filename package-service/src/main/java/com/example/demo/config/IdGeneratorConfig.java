@@ -0,0 +1,88 @@
+package com.example.demo.config;
+
+import com.example.demo.id.IdGenerator;
+import com.example.demo.id.IdGenerators;
+import com.example.demo.id.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Package ID allocation. Define another {@link IdGenerator} bean to plug in a different scheme.
+ * <p>
+ * Every instance needs its own {@code app.id.worker-id}; startup fails without one,
+ * except in the single-instance {@code dev} and {@code test} profiles, which derive it
+ * from the host name.
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Profiles SINGLE_INSTANCE_PROFILES = Profiles.of("dev", "test");
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdGenerator idGenerator(@Value("${app.id.worker-id:}") String workerId, Environment environment) {
+        return new SnowflakeIdGenerator(resolveWorkerId(workerId, environment));
+    }
+
+    @Bean
+    public SmartInitializingSingleton idGeneratorInstaller(IdGenerator idGenerator) {
+        // Runs once all singletons exist, before the web server accepts requests
+        return () -> {
+            if (idGenerator instanceof SnowflakeIdGenerator) {
+                awaitPreviousRunWindow();
+            }
+            IdGenerators.install(idGenerator);
+        };
+    }
+
+    private static long resolveWorkerId(String configured, Environment environment) {
+        if (configured != null && !configured.isBlank()) {
+            return Long.parseLong(configured.trim());
+        }
+        if (!environment.acceptsProfiles(SINGLE_INSTANCE_PROFILES)) {
+            // Two instances sharing a worker id hand out the same IDs
+            throw new IllegalStateException("app.id.worker-id is not set: assign a unique PACKAGE_WORKER_ID "
+                    + "(0-" + SnowflakeIdGenerator.MAX_WORKER_ID + ") to every instance");
+        }
+        long derived;
+        try {
+            derived = Math.floorMod(InetAddress.getLocalHost().getHostName().hashCode(),
+                    SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+        } catch (UnknownHostException e) {
+            derived = 0;
+        }
+        log.warn("app.id.worker-id is not set; using worker id {} derived from the host name", derived);
+        return derived;
+    }
+
+    /**
+     * The previous run of this worker id ended before this JVM started, but may have
+     * borrowed up to {@link SnowflakeIdGenerator#MAX_CLOCK_DRIFT_MS} ahead of its clock;
+     * no ID is handed out until the clock is past that. Startup usually takes longer anyway.
+     */
+    private static void awaitPreviousRunWindow() {
+        long safeFrom = ManagementFactory.getRuntimeMXBean().getStartTime() + SnowflakeIdGenerator.MAX_CLOCK_DRIFT_MS;
+        long wait = safeFrom - System.currentTimeMillis() + 1;
+        if (wait <= 0) {
+            return;
+        }
+        log.info("Waiting {} ms before allocating IDs, past any the previous run may have borrowed", wait);
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before IDs could be allocated safely", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The once-per-deploy migration job. With the {@code migrate} profile, Flyway
+ * migrates the schema while the context starts (a failed migration fails startup,
+ * hence the job); the runner then exits instead of serving traffic.
+ */
+@Slf4j
+@Configuration
+@Profile("migrate")
+public class MigrationJobConfig {
+
+    @Bean
+    public ApplicationRunner exitAfterMigration(ConfigurableApplicationContext context, Flyway flyway) {
+        return args -> {
+            MigrationInfo current = flyway.info().current();
+            log.info("Schema is at version {}; migration job done", current != null ? current.getVersion() : "none");
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.PoolBulkhead;
+import com.example.demo.datasource.ReadWriteDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Separate connection pools for read-write and read-only transactions
+ * ({@code app.datasource.routing.enabled}), so long list and export reads cannot
+ * take the connections creates and updates need. With routing disabled, Spring
+ * Boot's single pool ({@code spring.datasource.hikari.*}) is used instead.
+ * <p>
+ * Both pools report {@code hikaricp.connections.*} metrics tagged with their pool
+ * name, plus {@code package.datasource.utilization} (active / maximum).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadWriteDataSourceConfig {
+
+    static final String WRITE_POOL = "package-write";
+    static final String READ_POOL = "package-read";
+
+    @Bean
+    public ReadWriteDataSource dataSource(JdbcConnectionDetails connectionDetails,
+                                          MeterRegistry registry,
+                                          @Value("${spring.datasource.hikari.idle-timeout:600000}") long idleTimeoutMs,
+                                          @Value("${spring.datasource.hikari.max-lifetime:1800000}") long maxLifetimeMs,
+                                          @Value("${app.datasource.write.maximum-pool-size:10}") int writeSize,
+                                          @Value("${app.datasource.write.minimum-idle:5}") int writeMinIdle,
+                                          @Value("${app.datasource.write.connection-timeout:5s}") Duration writeTimeout,
+                                          @Value("${app.datasource.read.maximum-pool-size:8}") int readSize,
+                                          @Value("${app.datasource.read.minimum-idle:2}") int readMinIdle,
+                                          @Value("${app.datasource.read.connection-timeout:250ms}") Duration readTimeout,
+                                          @Value("${app.datasource.read.max-waiting:4}") int readMaxWaiting) {
+        HikariConfig write = poolConfig(WRITE_POOL, connectionDetails, registry, idleTimeoutMs, maxLifetimeMs,
+                writeSize, writeMinIdle, writeTimeout);
+        HikariConfig read = poolConfig(READ_POOL, connectionDetails, registry, idleTimeoutMs, maxLifetimeMs,
+                readSize, readMinIdle, readTimeout);
+        read.setReadOnly(true);
+
+        HikariDataSource writePool = new HikariDataSource(write);
+        HikariDataSource readPool = new HikariDataSource(read);
+        registerUtilization(writePool, registry);
+        registerUtilization(readPool, registry);
+        return new ReadWriteDataSource(writePool, readPool, new PoolBulkhead(readPool, readMaxWaiting, registry));
+    }
+
+    /**
+     * Connection settings for the pools, and for {@code PackageChangeListener}'s own
+     * connection. Spring Boot only provides this bean itself when it creates the DataSource.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public JdbcConnectionDetails jdbcConnectionDetails(DataSourceProperties properties) {
+        return new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return properties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return properties.determinePassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return properties.determineUrl();
+            }
+
+            @Override
+            public String getDriverClassName() {
+                return properties.determineDriverClassName();
+            }
+        };
+    }
+
+    private static HikariConfig poolConfig(String name, JdbcConnectionDetails details, MeterRegistry registry,
+                                           long idleTimeoutMs, long maxLifetimeMs,
+                                           int maximumPoolSize, int minimumIdle, Duration connectionTimeout) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(details.getJdbcUrl());
+        config.setUsername(details.getUsername());
+        config.setPassword(details.getPassword());
+        config.setDriverClassName(details.getDriverClassName());
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionTimeout(connectionTimeout.toMillis());
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return config;
+    }
+
+    private static void registerUtilization(HikariDataSource pool, MeterRegistry registry) {
+        Gauge.builder("package.datasource.utilization", pool, p -> {
+                    HikariPoolMXBean stats = p.getHikariPoolMXBean();
+                    return stats == null ? 0 : (double) stats.getActiveConnections() / p.getMaximumPoolSize();
+                })
+                .description("Share of the pool's connections currently in use")
+                .tag("pool", pool.getPoolName())
+                .register(registry);
+    }
+}
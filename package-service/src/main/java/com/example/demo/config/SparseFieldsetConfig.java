@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import com.example.demo.payload.PackageResponseDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sparse fieldsets ({@code fields=...}) on the application's Jackson mappers: a
+ * {@link PackageResponseDTO} goes through the {@value #FILTER_ID} property filter,
+ * which writes every property unless a response supplies its own (see
+ * {@code SparseFieldsetAdvice}). Full responses are unchanged, nulls included.
+ */
+@Configuration
+public class SparseFieldsetConfig {
+
+    public static final String FILTER_ID = "packageFields";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(PackageResponseDTO.class, FilteredPackage.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FILTER_ID)
+    private interface FilteredPackage {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.diagnostics.SqlDiagnosticsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Diagnostic mode ({@code app.diagnostics.sql.enabled=true}): reports the JDBC
+ * statements counted by {@link SqlStatementCountingConfig} per request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.diagnostics.sql.enabled", havingValue = "true")
+public class SqlDiagnosticsConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlDiagnosticsFilter> sqlDiagnosticsFilter(MeterRegistry registry) {
+        FilterRegistrationBean<SqlDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlDiagnosticsFilter(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
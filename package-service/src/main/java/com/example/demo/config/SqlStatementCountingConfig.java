@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import com.example.demo.diagnostics.SqlStatementCountingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Proxies the DataSource to count JDBC statements and their time per thread, for
+ * the SQL diagnostics headers and the DB time in the access log.
+ */
+@Configuration
+@ConditionalOnExpression("${app.diagnostics.sql.enabled:false} or ${app.access-log.enabled:true}")
+public class SqlStatementCountingConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementCountingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
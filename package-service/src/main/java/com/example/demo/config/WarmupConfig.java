@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import com.example.demo.warmup.WarmupRunner;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * JIT warm-up ({@code app.warmup.enabled}): keeps the {@link WarmupRunner}'s own
+ * requests out of {@code http.server.requests}, so dashboards and SLO alerts only
+ * see client traffic.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfig {
+
+    @Bean
+    public ObservationPredicate warmupRequestsNotObserved() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext server
+                && WarmupRunner.USER_AGENT.equals(server.getCarrier().getHeader(HttpHeaders.USER_AGENT)));
+    }
+}
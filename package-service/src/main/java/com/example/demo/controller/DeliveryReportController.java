@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.payload.DeliveryReportDTO;
+import com.example.demo.report.ReportPeriod;
+import com.example.demo.service.DeliveryReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@Tag(name = "Delivery Reports", description = "Daily and weekly delivery performance, from the package status history")
+@RestController
+@RequestMapping("${api.prefix}/reports")
+@RequiredArgsConstructor
+public class DeliveryReportController {
+    private final DeliveryReportService reportService;
+
+    @GetMapping("/delivery")
+    @Operation(
+            summary = "Delivery performance report",
+            description = "Packages entering each status, time spent per status and weight delivered over a day or an ISO week"
+    )
+    @ApiResponse(responseCode = "200", description = "Report; 'complete' is false while part of the period is still open")
+    @ApiResponse(responseCode = "400", description = "Unknown period or malformed date")
+    public ResponseEntity<DeliveryReportDTO> delivery(
+            @Parameter(description = "DAILY or WEEKLY", example = "WEEKLY")
+            @RequestParam(value = "period", defaultValue = "DAILY") ReportPeriod period,
+
+            @Parameter(description = "Any day of the period (ISO date); today when omitted", example = "2025-06-02")
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(reportService.report(period, date));
+    }
+}
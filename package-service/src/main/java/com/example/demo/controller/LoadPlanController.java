@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import com.example.demo.payload.LoadPlanRequestDTO;
+import com.example.demo.payload.LoadPlanResponseDTO;
+import com.example.demo.service.LoadPlanningService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Load Planning", description = "Assigns packages awaiting dispatch to vehicles")
+@RestController
+@RequestMapping("${api.prefix}/packages")
+@RequiredArgsConstructor
+public class LoadPlanController {
+    private final LoadPlanningService loadPlanningService;
+
+    @PostMapping("/load-plan")
+    @Operation(
+            summary = "Plan vehicle loads",
+            description = "Packs every PROCESSING package into the given fleet by weight, respecting each "
+                    + "vehicle's fragile cap (or keeping fragile packages separate), within a time budget"
+    )
+    @ApiResponse(responseCode = "200", description = "Best plan found; packages that fit nowhere are listed as unassigned")
+    @ApiResponse(responseCode = "400", description = "Invalid fleet description")
+    public ResponseEntity<LoadPlanResponseDTO> planLoads(@Valid @RequestBody LoadPlanRequestDTO request) {
+        return ResponseEntity.ok(loadPlanningService.planProcessingPackages(request));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageAggregateDTO;
+import com.example.demo.service.PackageAggregationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+@Tag(name = "Package Aggregates", description = "Ad-hoc aggregates over active packages, served from an in-memory snapshot")
+@RestController
+@RequestMapping("${api.prefix}/packages")
+@RequiredArgsConstructor
+public class PackageAggregationController {
+    private final PackageAggregationService aggregationService;
+
+    @GetMapping("/aggregate")
+    @Operation(
+            summary = "Aggregate active packages",
+            description = "Count and total weight per status of the packages not yet delivered that match the filter"
+    )
+    @ApiResponse(responseCode = "200", description = "Totals per status; 'source' tells whether the snapshot answered")
+    @ApiResponse(responseCode = "400", description = "DELIVERED requested, or minWeight greater than maxWeight")
+    public ResponseEntity<PackageAggregateDTO> aggregate(
+            @Parameter(description = "Statuses to include (repeatable); every active status when omitted",
+                    example = "OUT_FOR_DELIVERY")
+            @RequestParam(value = "status", required = false) Set<PackageStatus> statuses,
+
+            @Parameter(description = "true for fragile packages only, false for sturdy ones only")
+            @RequestParam(value = "fragile", required = false) Boolean fragile,
+
+            @Parameter(description = "Inclusive minimum weight")
+            @RequestParam(value = "minWeight", required = false) Double minWeight,
+
+            @Parameter(description = "Inclusive maximum weight")
+            @RequestParam(value = "maxWeight", required = false) Double maxWeight
+    ) {
+        return ResponseEntity.ok(aggregationService.aggregate(statuses, fragile, minWeight, maxWeight));
+    }
+}
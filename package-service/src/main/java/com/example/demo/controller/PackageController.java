@@ -1,9 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageBatchRequestDTO;
+import com.example.demo.payload.PackageBatchResponseDTO;
+import com.example.demo.payload.PackageCreateStatusDTO;
+import com.example.demo.payload.PackageField;
 import com.example.demo.payload.PackageRequestDTO;
 import com.example.demo.payload.PackageResponse;
 import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.payload.PackageTrackingDTO;
+import com.example.demo.service.AsyncCreateService;
 import com.example.demo.service.PackageService;
+import com.example.demo.service.TrackingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,35 +22,88 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-@Tag(name = "Package Management", description = "APIs for managing packages in the logistics system")
+import java.net.URI;
+import java.util.UUID;
+
+@Tag(name = "Package Management", description = "APIs for managing packages in the logistics system. "
+        + "Payloads are JSON by default, or CBOR (application/cbor) and Smile (application/x-jackson-smile) "
+        + "through Accept and Content-Type")
 @RestController
 @RequestMapping("${api.prefix}/packages")
 @RequiredArgsConstructor
 public class PackageController {
+    private static final String PREFER = "Prefer";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
     private final PackageService packageService;
+    private final ObjectProvider<AsyncCreateService> asyncCreateService;
+    private final TrackingService trackingService;
 
     @Operation(
             summary = "Create a new package",
-            description = "Creates a new package in the system with the provided details"
+            description = "Creates a new package in the system with the provided details. With "
+                    + "'Prefer: respond-async' the request is validated, queued and answered with 202 and a "
+                    + "handle (Location) to poll; the package is then created in a group-committed batch"
     )
     @ApiResponse(
             responseCode = "201",
             description = "Package successfully created",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = PackageResponseDTO.class))
     )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Request accepted for asynchronous creation",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PackageCreateStatusDTO.class))
+    )
     @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content)
     @ApiResponse(responseCode = "409", description = "Package with the same description already exists", content = @Content)
+    @ApiResponse(responseCode = "429", description = "Async create queue full, retry later", content = @Content)
     @PostMapping("/create")
-    public ResponseEntity<PackageResponseDTO> createPackage(
+    public ResponseEntity<?> createPackage(
+            @Parameter(description = "respond-async to create the package asynchronously")
+            @RequestHeader(value = PREFER, required = false) String prefer,
             @Valid @RequestBody PackageRequestDTO request) {
+        AsyncCreateService async = asyncCreateService.getIfAvailable();
+        if (async != null && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            PackageCreateStatusDTO accepted = async.submit(request);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{handle}")
+                    .buildAndExpand(accepted.handle())
+                    .toUri();
+            return ResponseEntity.accepted()
+                    .location(location)
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(accepted);
+        }
         var response = packageService.createPackage(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(
+            summary = "Get an async create request",
+            description = "State of a create request accepted with 'Prefer: respond-async': ACCEPTED, CREATED "
+                    + "(with the package) or FAILED (with the reason). Kept for a limited time after completion"
+    )
+    @ApiResponse(responseCode = "200", description = "Current state of the request")
+    @ApiResponse(responseCode = "404", description = "Unknown or expired handle", content = @Content)
+    @GetMapping("/create/{handle}")
+    public ResponseEntity<PackageCreateStatusDTO> getCreateRequest(
+            @Parameter(description = "Handle returned by the 202 response")
+            @PathVariable UUID handle) {
+        AsyncCreateService async = asyncCreateService.getIfAvailable();
+        if (async == null) {
+            throw new ResourceNotFoundException("Create request not found or expired: " + handle);
+        }
+        return ResponseEntity.ok(async.status(handle));
+    }
+
     @Operation(
             summary = "Get paginated packages",
             description = "Retrieve a paginated list of packages, with sorting options"
@@ -56,15 +118,24 @@ public class PackageController {
             @Parameter(description = "Page size", example = "10")
             @RequestParam(value = "pageSize", required = false) Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "packageId")
+            @Parameter(description = "Field to sort by", example = "packageId",
+                    schema = @Schema(allowableValues = {"packageId", "description", "status"}))
             @RequestParam(value = "sortBy", required = false) String sortBy,
 
             @Parameter(description = "Sort direction: asc or desc", example = "asc",
                     schema = @Schema(allowableValues = {"asc", "desc"}))
-            @RequestParam(value = "sortOrder", required = false) String sortOrder
+            @RequestParam(value = "sortOrder", required = false) String sortOrder,
+
+            @Parameter(description = "How totalElements/totalPages are computed: EXACT (COUNT(*)), "
+                    + "CACHED (count cached with a TTL) or ESTIMATED (planner statistics)", example = "EXACT")
+            @RequestParam(value = "countStrategy", defaultValue = "${app.pagination.count-strategy:EXACT}")
+            CountStrategy countStrategy,
+
+            @Parameter(description = "Comma-separated fields to return (default: all)", example = "packageId,status")
+            @RequestParam(value = "fields", required = false) String fields
     ) {
         PackageResponse response = packageService.getAllPackages(
-                pageNumber, pageSize, sortBy, sortOrder
+                pageNumber, pageSize, sortBy, sortOrder, countStrategy, PackageField.parse(fields)
         );
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -75,12 +146,44 @@ public class PackageController {
     @ApiResponse(responseCode = "404", description = "Package not found")
     public ResponseEntity<PackageResponseDTO> getPackageById(
             @Parameter(description = "ID of the package to retrieve", required = true, example = "1")
-            @PathVariable Long id
+            @PathVariable Long id,
+
+            @Parameter(description = "Comma-separated fields to return (default: all)", example = "packageId,status")
+            @RequestParam(value = "fields", required = false) String fields
     ) {
-        PackageResponseDTO dto = packageService.getPackageById(id);
+        PackageResponseDTO dto = packageService.getPackageById(id, PackageField.parse(fields));
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/track/{code}")
+    @Operation(
+            summary = "Track a package by its tracking code",
+            description = "Current status of the package printed with the code, e.g. 4F7Q-2KXM-9B01. "
+                    + "Case, hyphens and spaces are ignored"
+    )
+    @ApiResponse(responseCode = "200", description = "Package found; 'source' tells whether the read model answered")
+    @ApiResponse(responseCode = "400", description = "Malformed code or wrong check character", content = @Content)
+    @ApiResponse(responseCode = "404", description = "No package with this code", content = @Content)
+    public ResponseEntity<PackageTrackingDTO> trackPackage(
+            @Parameter(description = "Tracking code", required = true, example = "4F7Q-2KXM-9B01")
+            @PathVariable String code
+    ) {
+        return ResponseEntity.ok(trackingService.trackByCode(code));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get packages by IDs",
+            description = "Retrieve up to 500 packages in one call, in request order; unknown IDs are listed as missing"
+    )
+    @ApiResponse(responseCode = "200", description = "Found packages and missing IDs")
+    @ApiResponse(responseCode = "400", description = "No IDs, or more than 500")
+    public ResponseEntity<PackageBatchResponseDTO> getPackagesByIds(
+            @Valid @RequestBody PackageBatchRequestDTO request
+    ) {
+        return ResponseEntity.ok(packageService.getPackagesByIds(request.ids()));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update package", description = "Update all fields of an existing package by ID (not allowed if already delivered)")
     @ApiResponse(responseCode = "200", description = "Package updated successfully")
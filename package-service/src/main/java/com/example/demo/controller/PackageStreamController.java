@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.events.PackageChangeStreamHub;
+import com.example.demo.exceptions.APIException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+@Tag(name = "Package Change Stream", description = "Server-Sent Events for package status changes")
+@RestController
+@RequestMapping("${api.prefix}/packages")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class PackageStreamController {
+    private final PackageChangeStreamHub streamHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream package changes",
+            description = "Pushes a 'package-change' event for every committed create, update or delete. "
+                    + "Pass ids to follow specific packages; omit it to receive all changes."
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamChanges(
+            @Parameter(description = "IDs of the packages to follow (default: all)", example = "1,2,3")
+            @RequestParam(value = "ids", required = false) List<Long> ids
+    ) {
+        if (ids == null) {
+            return streamHub.subscribe(Set.of());
+        }
+        if (ids.contains(null)) {
+            // e.g. ids=1,,2
+            throw new APIException("Package ids must not be empty");
+        }
+        return streamHub.subscribe(Set.copyOf(ids));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.payload.ScanEventDTO;
+import com.example.demo.service.ScanIngestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "Package Scans", description = "Buffered ingest of high-frequency scanner status updates")
+@RestController
+@RequestMapping("${api.prefix}/packages")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.scan-ingest.enabled", havingValue = "true")
+public class ScanController {
+    private final ScanIngestService scanIngestService;
+
+    @PostMapping("/{id}/scans")
+    @Operation(summary = "Record a scan", description = "Buffers a status scan; responds once it has been committed")
+    @ApiResponse(responseCode = "200", description = "Scan committed; returns the package state after the flush")
+    @ApiResponse(responseCode = "400", description = "Invalid status transition or package already delivered")
+    @ApiResponse(responseCode = "404", description = "Package not found")
+    @ApiResponse(responseCode = "429", description = "Scan buffer full, retry later")
+    public CompletableFuture<ResponseEntity<PackageResponseDTO>> recordScan(
+            @Parameter(description = "ID of the scanned package", example = "1")
+            @PathVariable Long id,
+            @Valid @RequestBody ScanEventDTO scan
+    ) {
+        return scanIngestService.submitScan(id, scan.status()).thenApply(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.SparseFieldsetConfig;
+import com.example.demo.payload.PackageField;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Writes only the selected properties of the packages in a sparse fieldset
+ * response, whatever their value; other responses, and requests without a
+ * narrowing {@code fields=}, are left alone.
+ */
+@ControllerAdvice(assignableTypes = PackageController.class)
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String FIELDS_PARAM = "fields";
+
+    // Resolved once per handler method; supports() runs for every JSON response
+    private final Map<Method, Boolean> sparseCapable = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                && isSparseCapable(returnType.getMethod());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Set<PackageField> fields = PackageField.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+        if (!PackageField.isPartial(fields)) {
+            return body;
+        }
+        Set<String> properties = fields.stream().map(PackageField::attribute).collect(Collectors.toSet());
+        MappingJacksonValue value = body instanceof MappingJacksonValue existing ? existing : new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(SparseFieldsetConfig.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+        return value;
+    }
+
+    private boolean isSparseCapable(Method method) {
+        return method != null && sparseCapable.computeIfAbsent(method, SparseFieldsetAdvice::hasFieldsParam);
+    }
+
+    private static boolean hasFieldsParam(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            RequestParam param = parameter.getAnnotation(RequestParam.class);
+            if (param != null && FIELDS_PARAM.equals(param.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
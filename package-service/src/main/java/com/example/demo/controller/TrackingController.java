@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import com.example.demo.payload.PackageTrackingDTO;
+import com.example.demo.payload.TrackingStatsDTO;
+import com.example.demo.service.TrackingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Package Tracking", description = "Tracking queries served from the in-memory read model")
+@RestController
+@RequestMapping("${api.prefix}/tracking")
+@RequiredArgsConstructor
+public class TrackingController {
+    private final TrackingService trackingService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Track a package", description = "Current status of a package, without touching the write path")
+    @ApiResponse(responseCode = "200", description = "Package found; 'source' tells whether the read model answered")
+    @ApiResponse(responseCode = "404", description = "Package not found")
+    public ResponseEntity<PackageTrackingDTO> trackPackage(
+            @Parameter(description = "ID of the package to track", example = "1")
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(trackingService.trackPackage(id));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Status aggregates", description = "Number of packages per status")
+    @ApiResponse(responseCode = "200", description = "Counts per status with their staleness bound")
+    public ResponseEntity<TrackingStatsDTO> statusStats() {
+        return ResponseEntity.ok(trackingService.statusStats());
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild the read model", description = "Reloads the read model from the packages table in the background")
+    @ApiResponse(responseCode = "202", description = "Rebuild started")
+    @ApiResponse(responseCode = "400", description = "Read model disabled")
+    public ResponseEntity<Void> rebuild() {
+        trackingService.rebuildReadModel();
+        return ResponseEntity.accepted().build();
+    }
+}
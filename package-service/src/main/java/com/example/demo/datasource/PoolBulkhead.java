@@ -0,0 +1,51 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Caps how many callers may queue for a connection of the wrapped pool. Beyond
+ * that, {@link #getConnection()} fails immediately instead of waiting up to the
+ * pool's connection timeout, so an overloaded pool sheds load rather than piling up
+ * request threads.
+ * <p>
+ * The check reads the pool's live counters without locking, so the cap is
+ * approximate by a few callers under contention.
+ */
+public class PoolBulkhead extends DelegatingDataSource {
+
+    private final HikariDataSource pool;
+    private final int maxWaiting;
+    private final Counter rejected;
+
+    public PoolBulkhead(HikariDataSource pool, int maxWaiting, MeterRegistry registry) {
+        super(pool);
+        this.pool = pool;
+        this.maxWaiting = maxWaiting;
+        this.rejected = Counter.builder("package.datasource.rejected")
+                .description("Connection requests refused because the pool and its wait queue were full")
+                .tag("pool", pool.getPoolName())
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        // null until the pool has started
+        if (stats != null && stats.getIdleConnections() == 0
+                && stats.getActiveConnections() >= pool.getMaximumPoolSize()
+                && stats.getThreadsAwaitingConnection() >= maxWaiting) {
+            rejected.increment();
+            throw new SQLTransientConnectionException(pool.getPoolName() + " - all "
+                    + pool.getMaximumPoolSize() + " connections in use and " + maxWaiting + " callers already waiting");
+        }
+        return pool.getConnection();
+    }
+}
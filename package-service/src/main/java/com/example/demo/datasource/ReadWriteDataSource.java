@@ -0,0 +1,46 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+
+/**
+ * Application DataSource over two pools: read-write transactions take connections
+ * from the write pool, {@code @Transactional(readOnly = true)} ones from the read pool.
+ * <p>
+ * Connections are handed out lazily. The transaction manager marks the connection
+ * read-only before the first statement, and only then is a physical connection
+ * fetched from the matching pool. Work outside a transaction uses the write pool.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource writePool;
+    private final HikariDataSource readPool;
+
+    public ReadWriteDataSource(HikariDataSource writePool, HikariDataSource readPool, DataSource readSource) {
+        super(writePool);
+        this.writePool = writePool;
+        this.readPool = readPool;
+        setReadOnlyDataSource(readSource);
+        // PostgreSQL defaults; set up front so no connection is opened just to probe them
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    public HikariDataSource writePool() {
+        return writePool;
+    }
+
+    public HikariDataSource readPool() {
+        return readPool;
+    }
+
+    @Override
+    public void close() {
+        readPool.close();
+        writePool.close();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.diagnostics;
+
+/**
+ * One sampled request, captured on the request thread as raw values; formatting
+ * happens on the access log writer thread.
+ *
+ * @param route the matched handler pattern, or {@code null} when no handler matched
+ */
+public record AccessLogEntry(String method,
+                             String path,
+                             String route,
+                             int status,
+                             long latencyNanos,
+                             int dbStatements,
+                             long dbNanos) {
+}
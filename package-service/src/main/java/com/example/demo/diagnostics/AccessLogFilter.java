@@ -0,0 +1,112 @@
+package com.example.demo.diagnostics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Captures method, path, matched route, status, latency and DB time of each request
+ * and submits the sampled ones to the {@link AccessLogWriter}. Nothing is formatted
+ * or written on the request thread.
+ * <p>
+ * Async requests (scan ingest, change stream) are logged when they complete; their
+ * DB time covers the initial dispatch only. Requests from an ignored user agent
+ * (e.g. the service's own warm-up traffic) are not logged at all.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogSampler sampler;
+    private final AccessLogWriter writer;
+    private final Set<String> ignoredUserAgents;
+
+    public AccessLogFilter(AccessLogSampler sampler, AccessLogWriter writer) {
+        this(sampler, writer, Set.of());
+    }
+
+    public AccessLogFilter(AccessLogSampler sampler, AccessLogWriter writer, Set<String> ignoredUserAgents) {
+        this.sampler = sampler;
+        this.writer = writer;
+        this.ignoredUserAgents = Set.copyOf(ignoredUserAgents);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        return userAgent != null && ignoredUserAgents.contains(userAgent);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try (SqlStatementStats.Scope scope = SqlStatementStats.begin()) {
+            try {
+                chain.doFilter(request, response);
+                failed = false;
+            } finally {
+                SqlStatementStats stats = scope.stats();
+                if (!failed && request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(
+                            new CompletionListener(request, response, start, stats.statements(), stats.elapsedNanos()));
+                } else {
+                    // An exception escaping the chain becomes a 500 in the container
+                    int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+                    submit(request, status, System.nanoTime() - start, stats.statements(), stats.elapsedNanos());
+                }
+            }
+        }
+    }
+
+    private void submit(HttpServletRequest request, int status, long latencyNanos, int dbStatements, long dbNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : null;
+        if (sampler.sample(route, status)) {
+            writer.submit(new AccessLogEntry(request.getMethod(), request.getRequestURI(), route, status,
+                    latencyNanos, dbStatements, dbNanos));
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private final int dbStatements;
+        private final long dbNanos;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, long start,
+                                   int dbStatements, long dbNanos) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+            this.dbStatements = dbStatements;
+            this.dbNanos = dbNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            submit(request, response.getStatus(), System.nanoTime() - start, dbStatements, dbNanos);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.diagnostics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which requests are written to the access log.
+ * <p>
+ * A request is kept with the probability configured for its route (falling back to
+ * the default rate); the rate of its status class acts as a floor, so for example
+ * {@code 5xx:1} keeps every server error even on a heavily sampled route.
+ */
+public final class AccessLogSampler {
+
+    private final double defaultRate;
+    private final double[] statusClassRates = new double[6];
+    private final Map<String, Double> routeRates;
+
+    public AccessLogSampler(double defaultRate, Map<Integer, Double> statusClassRates, Map<String, Double> routeRates) {
+        this.defaultRate = checkRate(defaultRate);
+        statusClassRates.forEach((statusClass, rate) -> {
+            if (statusClass < 1 || statusClass > 5) {
+                throw new IllegalArgumentException("Unknown status class: " + statusClass + "xx");
+            }
+            this.statusClassRates[statusClass] = checkRate(rate);
+        });
+        this.routeRates = Map.copyOf(routeRates);
+        this.routeRates.values().forEach(AccessLogSampler::checkRate);
+    }
+
+    /**
+     * Parses comma-separated {@code key:rate} lists, e.g. {@code "2xx:0.05,5xx:1"} for
+     * status classes and {@code "/api/v1/packages/{id}:0.01"} for routes.
+     */
+    public static AccessLogSampler parse(double defaultRate, String statusClassSpec, String routeSpec) {
+        Map<Integer, Double> statusClasses = new HashMap<>();
+        parseRates(statusClassSpec).forEach((key, rate) -> {
+            String normalized = key.toLowerCase();
+            if (normalized.length() != 3 || !normalized.endsWith("xx") || !Character.isDigit(normalized.charAt(0))) {
+                throw new IllegalArgumentException("Status class must look like 2xx, got: " + key);
+            }
+            statusClasses.put(normalized.charAt(0) - '0', rate);
+        });
+        return new AccessLogSampler(defaultRate, statusClasses, parseRates(routeSpec));
+    }
+
+    public boolean sample(String route, int status) {
+        double rate = route != null ? routeRates.getOrDefault(route, defaultRate) : defaultRate;
+        int statusClass = status / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            rate = Math.max(rate, statusClassRates[statusClass]);
+        }
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static Map<String, Double> parseRates(String spec) {
+        Map<String, Double> rates = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return rates;
+        }
+        for (String entry : spec.split(",")) {
+            // Routes contain no ':', so the last one separates the rate
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key:rate, got: " + entry.trim());
+            }
+            rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+        }
+        return rates;
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sampling rate must be between 0 and 1, got " + rate);
+        }
+        return rate;
+    }
+}
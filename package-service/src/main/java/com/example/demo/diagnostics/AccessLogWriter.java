@@ -0,0 +1,127 @@
+package com.example.demo.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves access log entries off the request threads: {@link #submit} only enqueues
+ * into a {@link AccessLogRingBuffer}; a single writer thread formats the entries and
+ * hands them to the {@code access} logger. Entries that do not fit are dropped and
+ * counted ({@code access.log.dropped}) rather than slowing requests down.
+ */
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AccessLogRingBuffer<AccessLogEntry> buffer;
+    private final Logger logger;
+    private final Counter dropped;
+    private final StringBuilder line = new StringBuilder(160);
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AccessLogWriter(int bufferSize, Logger logger, MeterRegistry registry) {
+        this.buffer = new AccessLogRingBuffer<>(bufferSize);
+        this.logger = logger;
+        this.dropped = Counter.builder("access.log.dropped")
+                .description("Access log entries dropped because the buffer was full")
+                .register(registry);
+        Gauge.builder("access.log.pending", buffer, AccessLogRingBuffer::size)
+                .description("Access log entries waiting for the writer thread")
+                .register(registry);
+    }
+
+    public void submit(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server so in-flight requests are still logged
+        return Integer.MIN_VALUE + 100;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    /** Writes everything queued so far; returns whether anything was written. */
+    boolean drain() {
+        boolean wrote = false;
+        AccessLogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            write(entry);
+            wrote = true;
+        }
+        return wrote;
+    }
+
+    private void write(AccessLogEntry entry) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        String route = entry.route() != null ? entry.route() : "UNMATCHED";
+        double latencyMs = entry.latencyNanos() / 1_000_000.0;
+        double dbMs = entry.dbNanos() / 1_000_000.0;
+
+        line.setLength(0);
+        line.append("method=").append(entry.method())
+                .append(" path=").append(entry.path())
+                .append(" route=").append(route)
+                .append(" status=").append(entry.status())
+                .append(" latency_ms=").append(String.format(Locale.ROOT, "%.3f", latencyMs))
+                .append(" db_statements=").append(entry.dbStatements())
+                .append(" db_ms=").append(String.format(Locale.ROOT, "%.3f", dbMs));
+
+        // Key/values become separate fields under structured (JSON) console logging
+        logger.atInfo()
+                .setMessage(line.toString())
+                .addKeyValue("method", entry.method())
+                .addKeyValue("path", entry.path())
+                .addKeyValue("route", route)
+                .addKeyValue("status", entry.status())
+                .addKeyValue("latency_ms", latencyMs)
+                .addKeyValue("db_statements", entry.dbStatements())
+                .addKeyValue("db_ms", dbMs)
+                .log();
+    }
+}
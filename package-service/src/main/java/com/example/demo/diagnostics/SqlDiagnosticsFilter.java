@@ -0,0 +1,164 @@
+package com.example.demo.diagnostics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diagnostic mode: reports the JDBC statements and DB time of each request as
+ * response headers and as {@code sql.request.*} metrics tagged by endpoint.
+ * <p>
+ * The response body is buffered so the headers can still be added once the
+ * handler has finished writing. Streams are not: a request for
+ * {@code text/event-stream} is never wrapped, and a response that turns out to
+ * stream (an emitter, or the {@code text/event-stream} content type) writes
+ * through the wrapper; they get the metrics, but no headers once committed. The
+ * body of an async request is copied out when its async dispatch ends. Only the
+ * statements of the request thread are counted.
+ */
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String STATEMENT_TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final MeterRegistry registry;
+
+    public SqlDiagnosticsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // Counted on the initial dispatch; the buffered body is released once the async result is written
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                copyBodyUnlessAsync(request, response);
+            }
+            return;
+        }
+        if (isEventStream(request.getHeader(HttpHeaders.ACCEPT))) {
+            try (SqlStatementStats.Scope scope = SqlStatementStats.begin()) {
+                chain.doFilter(request, response);
+                report(request, response, scope.stats());
+            }
+            return;
+        }
+
+        DiagnosticsResponse wrapper = new DiagnosticsResponse(request, response);
+        try (SqlStatementStats.Scope scope = SqlStatementStats.begin()) {
+            chain.doFilter(request, wrapper);
+            report(request, wrapper, scope.stats());
+        } finally {
+            copyBodyUnlessAsync(request, wrapper);
+        }
+    }
+
+    private void copyBodyUnlessAsync(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        DiagnosticsResponse wrapper = WebUtils.getNativeResponse(response, DiagnosticsResponse.class);
+        if (wrapper != null) {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Header changes on a committed response are ignored by the container
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStatementStats stats) {
+        response.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.statements()));
+        response.setHeader(STATEMENT_TIME_HEADER, String.format("%.3f", stats.elapsedMillis()));
+        record(request, stats);
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("sql.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.statements());
+        Timer.builder("sql.request.time")
+                .description("Time spent in JDBC statements per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.elapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isEventStream(String mediaTypes) {
+        return mediaTypes != null && mediaTypes.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * Buffers the body, unless the handler streams it: emitters disable content
+     * caching on the request (as they do for {@link ShallowEtagHeaderFilter}), and
+     * SSE sets its content type before writing. Anything buffered by then is
+     * written out first, and flushes reach the client.
+     */
+    private static final class DiagnosticsResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        DiagnosticsResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return streaming() ? passThrough().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return streaming() ? passThrough().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streaming()) {
+                passThrough().flushBuffer();
+            }
+        }
+
+        private boolean streaming() {
+            return ShallowEtagHeaderFilter.isContentCachingDisabled(request) || isEventStream(getContentType());
+        }
+
+        private ServletResponse passThrough() throws IOException {
+            ServletResponse raw = getResponse();
+            if (!raw.isCommitted() && getContentType() != null) {
+                raw.setContentType(getContentType());
+            }
+            copyBodyToResponse(false);
+            return raw;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.diagnostics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC statements executed by the current thread while a {@link Scope} is open.
+ * <p>
+ * Populated by {@link SqlStatementCountingListener}; read by the diagnostics filter
+ * and by tests that pin the statement count of a service call.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long elapsedNanos;
+    private long pendingStart;
+
+    private SqlStatementStats() {
+    }
+
+    /** Starts counting on this thread; closing the scope restores any enclosing one. */
+    public static Scope begin() {
+        SqlStatementStats previous = CURRENT.get();
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return new Scope(stats, previous);
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void statementStarted() {
+        pendingStart = System.nanoTime();
+    }
+
+    void statementFinished() {
+        statements++;
+        elapsedNanos += System.nanoTime() - pendingStart;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final SqlStatementStats stats;
+        private final SqlStatementStats previous;
+
+        private Scope(SqlStatementStats stats, SqlStatementStats previous) {
+            this.stats = stats;
+            this.previous = previous;
+        }
+
+        public SqlStatementStats stats() {
+            return stats;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                previous.statements += stats.statements;
+                previous.elapsedNanos += stats.elapsedNanos;
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.events;
+
+import com.example.demo.payload.PackageChangeEvent;
+
+/**
+ * In-process receiver of committed package changes, from every service instance.
+ * Called on the listener thread, in commit order; implementations must not block.
+ */
+public interface PackageChangeConsumer {
+
+    void onChange(PackageChangeEvent event);
+
+    /** Notifications may have been missed (listener reconnected); derived state should resync. */
+    default void onGap() {
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.events;
+
+import com.example.demo.payload.PackageChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LISTENs on {@link PackageChangeNotifier#CHANNEL} over a dedicated connection (outside
+ * the Hikari pool) and hands every committed change to the local
+ * {@link PackageChangeConsumer}s, so each instance fans out to its own subscribers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class PackageChangeListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_BACKOFF_MS = 1_000;
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final ObjectMapper objectMapper;
+    private final List<PackageChangeConsumer> consumers;
+
+    private volatile boolean running;
+    // System.nanoTime() of the last completed poll on a live LISTEN connection; 0 when disconnected
+    private volatile long lastPollNanos;
+    private Thread thread;
+
+    public PackageChangeListener(JdbcConnectionDetails connectionDetails, ObjectMapper objectMapper,
+                                 List<PackageChangeConsumer> consumers) {
+        this.connectionDetails = connectionDetails;
+        this.objectMapper = objectMapper;
+        this.consumers = consumers;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("package-change-listener").start(this::listenLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(POLL_TIMEOUT_MS * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Upper bound on how late a committed change can still be undelivered: notifications
+     * arrive as soon as they commit while the poll loop is live. {@code Long.MAX_VALUE}
+     * while disconnected.
+     */
+    public long millisSinceLastPoll() {
+        long last = lastPollNanos;
+        return last == 0 ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - last);
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + PackageChangeNotifier.CHANNEL);
+                }
+                if (reconnect) {
+                    log.info("Package change listener reconnected; notifying consumers of a possible gap");
+                    consumers.forEach(PackageChangeConsumer::onGap);
+                }
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                    lastPollNanos = System.nanoTime();
+                }
+            } catch (SQLException e) {
+                lastPollNanos = 0;
+                if (running) {
+                    log.warn("Package change listener lost its connection, retrying in {} ms", RECONNECT_BACKOFF_MS, e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        PackageChangeEvent event;
+        try {
+            event = objectMapper.readValue(payload, PackageChangeEvent.class);
+        } catch (Exception e) {
+            log.error("Ignoring malformed package change notification: {}", payload, e);
+            return;
+        }
+        for (PackageChangeConsumer consumer : consumers) {
+            try {
+                consumer.onChange(event);
+            } catch (RuntimeException e) {
+                log.error("Package change consumer {} failed for package {}",
+                        consumer.getClass().getSimpleName(), event.packageId(), e);
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.events;
+
+import com.example.demo.payload.PackageChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Turns {@link PackageChangeEvent}s published by the service layer into PostgreSQL
+ * notifications on the writing transaction's connection. PostgreSQL delivers a
+ * NOTIFY only when that transaction commits, and drops it on rollback, so
+ * listeners see exactly the committed changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class PackageChangeNotifier {
+
+    public static final String CHANNEL = "package_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void notifyChange(PackageChangeEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize package change " + event.packageId(), e);
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.events;
+
+import com.example.demo.payload.PackageChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events fan-out of package changes to this instance's subscribers.
+ * <p>
+ * The listener thread only enqueues: every subscriber has a bounded buffer drained
+ * by its own sender task. A subscriber whose buffer overflows is disconnected
+ * rather than slowing everyone else down; clients reconnect and re-read the
+ * packages they track.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class PackageChangeStreamHub implements PackageChangeConsumer {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+
+    // Every open stream once, whatever it follows
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> allPackages = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byPackage = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "package-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter overflows;
+
+    public PackageChangeStreamHub(MeterRegistry registry,
+                                  @Value("${app.change-stream.subscriber-buffer:256}") int bufferSize,
+                                  @Value("${app.change-stream.emitter-timeout:30m}") Duration emitterTimeout,
+                                  @Value("${app.change-stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.overflows = Counter.builder("package.stream.overflows")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(registry);
+        Gauge.builder("package.stream.subscribers", this, PackageChangeStreamHub::subscriberCount)
+                .description("Open package change streams")
+                .register(registry);
+
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Subscribes to changes of the given packages, or of all packages when the set is empty. */
+    public SseEmitter subscribe(Set<Long> packageIds) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, packageIds, bufferSize);
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> {
+            unregister(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> unregister(subscriber));
+
+        subscribers.add(subscriber);
+        if (packageIds.isEmpty()) {
+            allPackages.add(subscriber);
+        } else {
+            packageIds.forEach(id -> byPackage.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onChange(PackageChangeEvent event) {
+        allPackages.forEach(subscriber -> enqueue(subscriber, event));
+        Set<Subscriber> followers = byPackage.get(event.packageId());
+        if (followers != null) {
+            followers.forEach(subscriber -> enqueue(subscriber, event));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Object item) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(item)) {
+            overflows.increment();
+            log.debug("Disconnecting slow package stream subscriber ({} buffered events)", bufferSize);
+            close(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Object item;
+            while ((item = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, item)) {
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An item may have been enqueued after the last poll but before the flag was cleared
+            if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, Object item) {
+        try {
+            if (item == HEARTBEAT) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                PackageChangeEvent event = (PackageChangeEvent) item;
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("package-change")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            close(subscriber);
+            return false;
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            unregister(subscriber);
+            subscriber.queue.clear();
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // already completed
+            }
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribers.remove(subscriber);
+        if (subscriber.packageIds.isEmpty()) {
+            allPackages.remove(subscriber);
+        } else {
+            subscriber.packageIds.forEach(id -> byPackage.computeIfPresent(id, (key, followers) -> {
+                followers.remove(subscriber);
+                return followers.isEmpty() ? null : followers;
+            }));
+        }
+    }
+
+    private int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(this::close);
+        senders.shutdown();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> packageIds;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> packageIds, int bufferSize) {
+            this.emitter = emitter;
+            this.packageIds = Set.copyOf(packageIds);
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
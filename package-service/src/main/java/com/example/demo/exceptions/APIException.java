@@ -1,13 +1,38 @@
 package com.example.demo.exceptions;
 
+/**
+ * A request rejected for a client error (400). Stackless: rejections are expected
+ * and frequent under abuse, their origin is clear from the message and code, and
+ * filling in a stack trace is most of what throwing costs.
+ * <p>
+ * With suppression and the stack trace disabled an instance is immutable, so
+ * fixed-message rejections can be thrown from a shared constant.
+ */
 public class APIException extends RuntimeException {
     // To verify if category name exists
     private static final long serialVersionUID = 1L;
 
+    private final ErrorCode errorCode;
+
     public APIException() {
+        this(ErrorCode.BAD_REQUEST, null);
     }
 
     public APIException(String message) {
-        super(message);
+        this(ErrorCode.BAD_REQUEST, message);
+    }
+
+    /** A rejection with the code's fixed message. */
+    public APIException(ErrorCode errorCode) {
+        this(errorCode, errorCode.message());
+    }
+
+    public APIException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.example.demo.exceptions;
+
+/**
+ * The request ran out of time before its work could finish. Stackless, like
+ * {@link TooManyRequestsException}: it is thrown most often when the service is slow.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.exceptions;
+
+import java.util.Map;
+
+/**
+ * Machine-readable reason of a rejected request, returned as {@code code} in the
+ * error body. Codes with a fixed message carry their response {@code messages}
+ * map prebuilt, so rejecting with them allocates no message or map.
+ */
+public enum ErrorCode {
+    BAD_REQUEST(null),
+    WEIGHT_LIMIT_EXCEEDED("Weight must not exceed 50.0 kg"),
+    INITIAL_STATUS_REQUIRED("Status must be an initial state (e.g. PENDING)"),
+    DELIVERED_PACKAGE_NOT_UPDATABLE("Cannot update a package that has already been delivered"),
+    DELIVERED_PACKAGE_NOT_DELETABLE("Cannot delete a package that has already been delivered"),
+    INVALID_STATUS_TRANSITION(null),
+    DUPLICATE_DESCRIPTION(null),
+    INVALID_TRACKING_CODE(null),
+    NOT_FOUND(null),
+    PACKAGE_NOT_FOUND(null);
+
+    private final String message;
+    private final Map<String, String> messages;
+
+    ErrorCode(String message) {
+        this.message = message;
+        this.messages = message == null ? null : Map.of("error", message);
+    }
+
+    /** The fixed message, or {@code null} when each rejection has its own. */
+    public String message() {
+        return message;
+    }
+
+    /** The error body's {@code messages} for {@code message}, reusing the prebuilt map when it is the fixed one. */
+    public Map<String, String> messages(String message) {
+        // Identity check: exceptions of fixed-message codes carry the very same String
+        return message == this.message && messages != null ? messages : Map.of("error", String.valueOf(message));
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.demo.exceptions;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -8,6 +10,8 @@ public class ErrorResponse {
     private LocalDateTime timestamp;
     private int status;
     private String error;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ErrorCode code;
     private Map<String, String> messages;
 
     public ErrorResponse() {
@@ -20,6 +24,11 @@ public class ErrorResponse {
         this.messages = messages;
     }
 
+    public ErrorResponse(LocalDateTime timestamp, int status, String error, ErrorCode code, Map<String, String> messages) {
+        this(timestamp, status, error, messages);
+        this.code = code;
+    }
+
     // Getters and setters
 
     public LocalDateTime getTimestamp() {
@@ -46,6 +55,14 @@ public class ErrorResponse {
         this.error = error;
     }
 
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    public void setCode(ErrorCode code) {
+        this.code = code;
+    }
+
     public Map<String, String> getMessages() {
         return messages;
     }
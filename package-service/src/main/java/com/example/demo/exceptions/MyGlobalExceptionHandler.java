@@ -4,22 +4,35 @@ import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeException;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @RestControllerAdvice
 @Hidden
 public class MyGlobalExceptionHandler {
 
+    private final MillisecondClock clock = new MillisecondClock();
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -39,6 +52,12 @@ public class MyGlobalExceptionHandler {
         return buildErrorResponse(message, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildErrorResponse("Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'",
+            HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleEntityNotFound(EntityNotFoundException ex) {
         return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
@@ -46,12 +65,43 @@ public class MyGlobalExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFound(ResourceNotFoundException ex, WebRequest request) {
+        if (isJsonRequest(request)) {
+            return new ResponseEntity<>(buildErrorResponse(ex.getErrorCode(), ex.getMessage(), "Resource Not Found",
+                HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+        }
         return buildResponse(ex.getMessage(), "Resource Not Found", request, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(APIException.class)
     public ResponseEntity<ErrorResponse> handleAPIException(APIException ex) {
-        return buildErrorResponse(ex.getMessage(), "API Error", HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(buildErrorResponse(ex.getErrorCode(), ex.getMessage(), "API Error",
+            HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessResourceException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(DataAccessException ex) {
+        // e.g. the read pool refused to queue another caller; the message may carry connection details
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(buildErrorResponse("The database is busy, retry shortly", HttpStatus.SERVICE_UNAVAILABLE).getBody());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE).getBody());
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(RuntimeException ex) {
+        // A statement cancelled by its timeout reports the driver's message; keep it out of the response
+        return buildErrorResponse("The request did not complete within its deadline", HttpStatus.GATEWAY_TIMEOUT);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -66,6 +116,15 @@ public class MyGlobalExceptionHandler {
         return buildErrorResponse("Constraint Violation", errors, HttpStatus.BAD_REQUEST);
     }
 
+    // No body: there is no encoding the client accepts, or may be none it can read
+    @ExceptionHandler({HttpMediaTypeNotAcceptableException.class, HttpMediaTypeNotSupportedException.class})
+    public ResponseEntity<Void> handleMediaTypeMismatch(HttpMediaTypeException ex) {
+        HttpStatus status = ex instanceof HttpMediaTypeNotAcceptableException
+            ? HttpStatus.NOT_ACCEPTABLE
+            : HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+        return ResponseEntity.status(status).build();
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGlobalException(Exception ex, WebRequest request) {
         return buildResponse(
@@ -99,9 +158,11 @@ public class MyGlobalExceptionHandler {
         );
     }
 
+    // JSON or one of its binary encodings (see BinaryContentConfig): answered with an ErrorResponse
     private boolean isJsonRequest(WebRequest request) {
         String acceptHeader = request.getHeader("Accept");
-        return acceptHeader != null && acceptHeader.contains("application/json");
+        return acceptHeader != null && (acceptHeader.contains("application/json")
+            || acceptHeader.contains("application/cbor") || acceptHeader.contains("application/x-jackson-smile"));
     }
 
     private ResponseEntity<ErrorResponse> buildErrorResponse(String message, HttpStatus status) {
@@ -124,7 +185,7 @@ public class MyGlobalExceptionHandler {
     ) {
         return new ResponseEntity<>(
             new ErrorResponse(
-                LocalDateTime.now(),
+                clock.now(),
                 status.value(),
                 errorType,
                 errors
@@ -132,4 +193,32 @@ public class MyGlobalExceptionHandler {
             status
         );
     }
+
+    // Rejections of fixed-message codes reuse the code's prebuilt messages map
+    private ErrorResponse buildErrorResponse(ErrorCode code, String message, String errorType, HttpStatus status) {
+        return new ErrorResponse(clock.now(), status.value(), errorType, code, code.messages(message));
+    }
+
+    /**
+     * LocalDateTime.now() resolves the zone rules and allocates on every call; the
+     * timestamp only has millisecond meaning to clients, so rejections within the
+     * same millisecond share one instance. The zone is the one at startup.
+     */
+    static final class MillisecondClock {
+        private final ZoneId zone = ZoneId.systemDefault();
+        private volatile Tick last = new Tick(Long.MIN_VALUE, null);
+
+        LocalDateTime now() {
+            long millis = System.currentTimeMillis();
+            Tick tick = last;
+            if (tick.millis != millis) {
+                tick = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+                last = tick;
+            }
+            return tick.time;
+        }
+
+        private record Tick(long millis, LocalDateTime time) {
+        }
+    }
 }
\ No newline at end of file
@@ -3,9 +3,29 @@ package com.example.demo.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * The requested resource does not exist (404). Stackless, like {@link APIException}.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final ErrorCode errorCode;
+
     public ResourceNotFoundException(String message) {
-        super(message);
+        this(ErrorCode.NOT_FOUND, message);
+    }
+
+    public ResourceNotFoundException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public static ResourceNotFoundException forPackage(long id) {
+        return new ResourceNotFoundException(ErrorCode.PACKAGE_NOT_FOUND, "Package not found with id: " + id);
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
     }
 }
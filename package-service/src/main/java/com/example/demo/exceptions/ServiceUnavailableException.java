@@ -0,0 +1,21 @@
+package com.example.demo.exceptions;
+
+/**
+ * A dependency is failing and calls to it are refused for a while; the client
+ * should retry after {@link #getRetryAfterSeconds()}. Stackless, like
+ * {@link TooManyRequestsException}: an open breaker throws it on every call it refuses.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.exceptions;
+
+/**
+ * A bounded buffer or queue is full; the client should retry later. Stackless, like
+ * {@link APIException}: it is thrown most often exactly when the service is overloaded.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.id;
+
+/**
+ * Allocates entity identifiers in process, without a database round trip.
+ */
+public interface IdGenerator {
+    long nextId();
+}
@@ -0,0 +1,26 @@
+package com.example.demo.id;
+
+/**
+ * Bridge between the Spring-configured {@link IdGenerator} and the Hibernate generator,
+ * which Hibernate instantiates itself.
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator current;
+
+    private IdGenerators() {
+        // Private constructor to hide the implicit public one
+    }
+
+    public static void install(IdGenerator generator) {
+        current = generator;
+    }
+
+    public static IdGenerator current() {
+        IdGenerator generator = current;
+        if (generator == null) {
+            throw new IllegalStateException("No IdGenerator installed; is IdGeneratorConfig loaded?");
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 64-bit time-ordered IDs:
+ * <pre>
+ *  0 | 41 bits milliseconds since 2024-01-01 | 10 bits worker id | 12 bits sequence
+ * </pre>
+ * IDs are positive, increase monotonically per instance and roughly by time across
+ * instances, so B-tree inserts stay on the right-hand edge of the index. Uniqueness
+ * across instances relies on each instance having its own worker id.
+ * <p>
+ * Allocation is lock-free: the last (timestamp, sequence) pair lives in one
+ * {@link AtomicLong}. When the 4096 sequence values of a millisecond run out, the
+ * generator borrows the next millisecond instead of waiting. A small clock step
+ * backwards is absorbed the same way. If the logical clock gets further than
+ * {@link #MAX_CLOCK_DRIFT_MS} ahead of the wall clock, allocation fails instead of
+ * risking duplicates; the error tells a clock step back from a sustained rate above
+ * 4096 IDs per millisecond.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    public static final long MAX_CLOCK_DRIFT_MS = 2_000;
+
+    private final long workerBits;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last ID handed out
+    private final AtomicLong state = new AtomicLong();
+    // Wall clock reading that last started a new millisecond; only used to explain a refusal
+    private volatile long lastClockMillis;
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long previous = state.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (previousMillis - now > MAX_CLOCK_DRIFT_MS) {
+                    throw driftExceeded(now, previousMillis);
+                }
+                // Same millisecond, clock stepped back or sequence exhausted: keep counting from the logical clock
+                next = previous + 1;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                if (now > previousMillis) {
+                    lastClockMillis = now;
+                }
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (millis << (WORKER_BITS + SEQUENCE_BITS)) | workerBits | sequence;
+            }
+        }
+    }
+
+    private IllegalStateException driftExceeded(long now, long logicalMillis) {
+        long lastClock = lastClockMillis;
+        if (now < lastClock) {
+            return new IllegalStateException("Clock moved back by " + (lastClock - now)
+                    + " ms since the last allocated ID; refusing to allocate");
+        }
+        return new IllegalStateException("Sequence exhausted: more than " + (SEQUENCE_MASK + 1)
+                + " IDs per ms put the logical clock " + (logicalMillis - now)
+                + " ms ahead of the wall clock; refusing to allocate");
+    }
+
+    public static long workerIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+}
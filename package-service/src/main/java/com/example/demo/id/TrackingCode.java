@@ -0,0 +1,115 @@
+package com.example.demo.id;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Printed tracking codes: 55 random bits written as 11 Crockford base32 characters
+ * plus a Luhn mod 32 check character, grouped as {@code XXXX-XXXX-XXXX}.
+ * <p>
+ * The check character catches every single mistyped character and all but one
+ * swap of two adjacent ones (0 and Z), so most typos are rejected without a lookup. Parsing ignores
+ * case, hyphens and spaces, and reads O as 0 and I/L as 1.
+ * <p>
+ * Codes are random rather than derived from the package ID, so they cannot be
+ * enumerated. Uniqueness is enforced by the database: at 50M packages a new code
+ * collides with about 1 in 700M chance, and that create fails.
+ */
+public final class TrackingCode {
+
+    /** Returned by {@link #parse(String)} for malformed codes or a failed check character. */
+    public static final long INVALID = -1;
+
+    private static final int DATA_CHARS = 11;
+    private static final int BITS_PER_CHAR = 5;
+    private static final int RADIX = 32;
+    private static final long MASK = (1L << (DATA_CHARS * BITS_PER_CHAR)) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        for (char zero : "Oo".toCharArray()) {
+            VALUES[zero] = 0;
+        }
+        for (char one : "IiLl".toCharArray()) {
+            VALUES[one] = 1;
+        }
+    }
+
+    private TrackingCode() {
+        // Private constructor to hide the implicit public one
+    }
+
+    /** A new random code value. */
+    public static long random() {
+        return RANDOM.nextLong() & MASK;
+    }
+
+    public static String format(long code) {
+        int[] digits = new int[DATA_CHARS + 1];
+        for (int i = 0; i < DATA_CHARS; i++) {
+            digits[i] = (int) (code >>> (BITS_PER_CHAR * (DATA_CHARS - 1 - i))) & (RADIX - 1);
+        }
+        digits[DATA_CHARS] = checkDigit(digits);
+
+        char[] text = new char[digits.length + 2];
+        int pos = 0;
+        for (int i = 0; i < digits.length; i++) {
+            if (i > 0 && i % 4 == 0) {
+                text[pos++] = '-';
+            }
+            text[pos++] = ALPHABET[digits[i]];
+        }
+        return new String(text);
+    }
+
+    /** The code value, or {@link #INVALID}; never throws, so garbage input stays cheap to reject. */
+    public static long parse(String text) {
+        if (text == null || text.length() > 32) {
+            return INVALID;
+        }
+        int[] digits = new int[DATA_CHARS + 1];
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            if (value < 0 || count == digits.length) {
+                return INVALID;
+            }
+            digits[count++] = value;
+        }
+        if (count != digits.length || luhnSum(digits, digits.length, 1) % RADIX != 0) {
+            return INVALID;
+        }
+        long code = 0;
+        for (int i = 0; i < DATA_CHARS; i++) {
+            code = (code << BITS_PER_CHAR) | digits[i];
+        }
+        return code;
+    }
+
+    private static int checkDigit(int[] digits) {
+        return (RADIX - luhnSum(digits, DATA_CHARS, 2) % RADIX) % RADIX;
+    }
+
+    // Luhn mod N: from the right, every other digit doubled and its base-N digits summed
+    private static int luhnSum(int[] digits, int length, int firstFactor) {
+        int factor = firstFactor;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            sum += addend / RADIX + addend % RADIX;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return sum;
+    }
+}
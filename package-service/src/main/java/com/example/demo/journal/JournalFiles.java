@@ -0,0 +1,206 @@
+package com.example.demo.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Layout of the journal directory: segments {@code journal-<seq>.log} and compacted
+ * snapshots {@code snapshot-<seq>.snap}. A snapshot holds the state of every package
+ * when segment {@code seq} was opened; recovery replays it, then segments
+ * {@code seq} and later.
+ */
+final class JournalFiles {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final int SNAPSHOT_MAGIC = 0x504b534e; // "PKSN"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 8 + 8 + 16 + 8;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private JournalFiles() {
+    }
+
+    /**
+     * @param sequence        first segment to replay on top of the snapshot
+     * @param createdAtMillis when that segment was opened
+     * @param databaseId      identity of the database the state was read from
+     */
+    record SnapshotHeader(long sequence, long createdAtMillis, UUID databaseId, long records) {
+    }
+
+    static Path segment(Path directory, long sequence) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", sequence) + SEGMENT_SUFFIX);
+    }
+
+    static Path snapshot(Path directory, long sequence) {
+        return directory.resolve(SNAPSHOT_PREFIX + String.format("%019d", sequence) + SNAPSHOT_SUFFIX);
+    }
+
+    /** Sequences of the segments in the directory, ascending. */
+    static List<Long> segments(Path directory) throws IOException {
+        return sequences(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    /** Sequences of the snapshots in the directory, ascending. */
+    static List<Long> snapshots(Path directory) throws IOException {
+        return sequences(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    }
+
+    /** Feeds every intact record of the segment to the consumer; stops at the end or a torn record. */
+    static void readSegment(Path file, Consumer<JournalRecord> consumer) throws IOException {
+        MappedByteBuffer buffer = mapReadOnly(file);
+        for (JournalRecord record = JournalRecord.decode(buffer); record != null; record = JournalRecord.decode(buffer)) {
+            consumer.accept(record);
+        }
+    }
+
+    static SnapshotHeader readSnapshotHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            return parseHeader(header.flip(), file);
+        }
+    }
+
+    /** Feeds every record of the snapshot to the consumer; fails if the snapshot is incomplete. */
+    static SnapshotHeader readSnapshot(Path file, Consumer<JournalRecord> consumer) throws IOException {
+        MappedByteBuffer buffer = mapReadOnly(file);
+        SnapshotHeader header = parseHeader(buffer, file);
+        buffer.position(SNAPSHOT_HEADER_BYTES);
+        long read = 0;
+        for (JournalRecord record = JournalRecord.decode(buffer); record != null; record = JournalRecord.decode(buffer)) {
+            consumer.accept(record);
+            read++;
+        }
+        if (read != header.records()) {
+            throw new IOException("Snapshot " + file + " holds " + read + " of " + header.records() + " records");
+        }
+        return header;
+    }
+
+    /** Writes a snapshot next to its final name and moves it in place once complete. */
+    static SnapshotWriter writeSnapshot(Path directory, long sequence, long createdAtMillis, UUID databaseId)
+            throws IOException {
+        return new SnapshotWriter(directory, sequence, createdAtMillis, databaseId);
+    }
+
+    static final class SnapshotWriter implements AutoCloseable {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final long sequence;
+        private final long createdAtMillis;
+        private final UUID databaseId;
+        private long records;
+        private boolean committed;
+
+        private SnapshotWriter(Path directory, long sequence, long createdAtMillis, UUID databaseId) throws IOException {
+            this.target = snapshot(directory, sequence);
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.sequence = sequence;
+            this.createdAtMillis = createdAtMillis;
+            this.databaseId = databaseId;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            channel.position(SNAPSHOT_HEADER_BYTES);
+        }
+
+        void append(JournalRecord record) throws IOException {
+            if (record.encodedSize() > buffer.remaining()) {
+                flush();
+            }
+            record.encode(buffer);
+            records++;
+        }
+
+        void commit() throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES)
+                    .putInt(SNAPSHOT_MAGIC)
+                    .putInt(SNAPSHOT_VERSION)
+                    .putLong(sequence)
+                    .putLong(createdAtMillis)
+                    .putLong(databaseId.getMostSignificantBits())
+                    .putLong(databaseId.getLeastSignificantBits())
+                    .putLong(records)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static SnapshotHeader parseHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.remaining() < SNAPSHOT_HEADER_BYTES || buffer.getInt(0) != SNAPSHOT_MAGIC
+                || buffer.getInt(4) != SNAPSHOT_VERSION) {
+            throw new IOException("Not a version " + SNAPSHOT_VERSION + " package snapshot: " + file);
+        }
+        return new SnapshotHeader(buffer.getLong(8), buffer.getLong(16),
+                new UUID(buffer.getLong(24), buffer.getLong(32)), buffer.getLong(40));
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map (" + channel.size() + " bytes)");
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static List<Long> sequences(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .forEach(name -> {
+                        try {
+                            sequences.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                        } catch (NumberFormatException e) {
+                            // not one of ours
+                        }
+                    });
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+}
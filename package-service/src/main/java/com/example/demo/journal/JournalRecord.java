@@ -0,0 +1,146 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * One journal entry: the full state of a package after a change, its deletion, or a
+ * gap marker (changes may have been missed before {@code changedAtMillis}).
+ * <p>
+ * Encoded as {@code [int length][int crc32c][payload]}; a zero length marks the end
+ * of the written part of a file, a bad checksum a torn write.
+ */
+record JournalRecord(
+        byte type,
+        long packageId,
+        long changedAtMillis,
+        String description,
+        Double weight,
+        Boolean fragile,
+        PackageStatus status
+) {
+    static final byte UPSERT = 1;
+    static final byte DELETE = 2;
+    static final byte GAP = 3;
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    // type, id, changedAt, status, weight, fragile, description length
+    private static final int FIXED_PAYLOAD_BYTES = 1 + 8 + 8 + 1 + 8 + 1 + 2;
+    private static final PackageStatus[] STATUSES = PackageStatus.values();
+
+    static JournalRecord of(PackageChangeEvent event) {
+        long changedAt = event.changedAt() != null ? event.changedAt().toEpochMilli() : System.currentTimeMillis();
+        PackageResponseDTO pkg = event.pkg();
+        if (event.type() == PackageChangeType.DELETED || pkg == null) {
+            return new JournalRecord(DELETE, event.packageId(), changedAt, null, null, null, null);
+        }
+        return new JournalRecord(UPSERT, event.packageId(), changedAt, pkg.description(), pkg.weight(),
+                pkg.fragile(), pkg.status());
+    }
+
+    static JournalRecord gap(long atMillis) {
+        return new JournalRecord(GAP, 0, atMillis, null, null, null, null);
+    }
+
+    PackageChangeEvent toEvent() {
+        Instant changedAt = Instant.ofEpochMilli(changedAtMillis);
+        if (type == DELETE) {
+            return new PackageChangeEvent(PackageChangeType.DELETED, packageId, null, changedAt);
+        }
+        return new PackageChangeEvent(PackageChangeType.UPDATED, packageId,
+                new PackageResponseDTO(packageId, description, weight, fragile, status, null), changedAt);
+    }
+
+    int encodedSize() {
+        return HEADER_BYTES + FIXED_PAYLOAD_BYTES + (description == null ? 0 : utf8Length(description));
+    }
+
+    /** Writes the record at the buffer's position; the caller checks {@link #encodedSize()} fits. */
+    void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_BYTES);
+        buffer.put(type);
+        buffer.putLong(packageId);
+        buffer.putLong(changedAtMillis);
+        buffer.put(status == null ? -1 : (byte) status.ordinal());
+        buffer.putDouble(weight == null ? Double.NaN : weight);
+        buffer.put(fragile == null ? -1 : (byte) (fragile ? 1 : 0));
+        if (description == null) {
+            buffer.putShort((short) -1);
+        } else {
+            byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        int end = buffer.position();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_BYTES, end - start - HEADER_BYTES));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // Length last, so a reader never sees a length ahead of its payload
+        buffer.putInt(start, end - start - HEADER_BYTES);
+    }
+
+    /**
+     * Reads the record at the buffer's position and advances past it; {@code null} at
+     * the end of the written part or at a torn record.
+     */
+    static JournalRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length < FIXED_PAYLOAD_BYTES || length > buffer.remaining() - HEADER_BYTES) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_BYTES, length));
+        if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+            return null;
+        }
+        buffer.position(start + HEADER_BYTES);
+        byte type = buffer.get();
+        long packageId = buffer.getLong();
+        long changedAt = buffer.getLong();
+        byte status = buffer.get();
+        double weight = buffer.getDouble();
+        byte fragile = buffer.get();
+        short descriptionLength = buffer.getShort();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            buffer.get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(start + HEADER_BYTES + length);
+        return new JournalRecord(type, packageId, changedAt, description,
+                Double.isNaN(weight) ? null : weight,
+                fragile < 0 ? null : fragile == 1,
+                status < 0 ? null : STATUSES[status]);
+    }
+
+    private static int utf8Length(String value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only journal file, pre-sized and memory-mapped: appending a record is a
+ * memory copy into the page cache, which survives a process crash. {@link #force()}
+ * flushes to disk for machine crashes. Not thread-safe.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private JournalRecord last;
+
+    private JournalSegment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path file, long sequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Mapping past the end grows the file; the new region reads as zeros
+            return new JournalSegment(sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /** Appends the record; {@code false} if the segment is full. */
+    boolean append(JournalRecord record) {
+        // Keep room for the zero length that terminates the segment
+        if (record.encodedSize() > buffer.remaining() - Integer.BYTES) {
+            return false;
+        }
+        record.encode(buffer);
+        if (record.type() != JournalRecord.GAP) {
+            last = record;
+        }
+        return true;
+    }
+
+    /** The last change appended, if any. */
+    JournalRecord lastChange() {
+        return last;
+    }
+
+    int writtenBytes() {
+        return buffer.position();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        // The mapping itself is released when the buffer is collected
+        channel.close();
+    }
+}
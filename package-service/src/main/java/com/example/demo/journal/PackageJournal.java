@@ -0,0 +1,407 @@
+package com.example.demo.journal;
+
+import com.example.demo.events.PackageChangeConsumer;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.readmodel.PackageReadModel;
+import com.example.demo.readmodel.TrackedPackage;
+import com.example.demo.readmodel.WarmStartSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Local, memory-mapped journal of committed package changes with periodic compacted
+ * snapshots, so the in-memory projections restart from disk instead of scanning the
+ * {@code packages} table.
+ * <p>
+ * Every change notification is appended to the current segment. A snapshot is the
+ * tracking read model's view written out right after a new segment is opened; older
+ * segments and snapshots are then deleted. Recovery replays the latest snapshot and
+ * the segments after it, then catches up on what the journal cannot have seen (the
+ * downtime, listener gaps) from the rows whose {@code updated_at} or tombstone is
+ * newer than the last change recorded before the first gap, minus a clock-skew
+ * margin. Replaying a change twice is harmless: every record carries the full state.
+ * <p>
+ * State recorded against another database, or too old for the catch-up window, is
+ * ignored and the projections load the table as before.
+ */
+@Slf4j
+@Component
+// Snapshots are taken from the tracking read model
+@ConditionalOnExpression("${app.journal.enabled:true} and ${app.read-model.enabled:false}")
+public class PackageJournal implements PackageChangeConsumer, WarmStartSource, SmartLifecycle {
+
+    private static final Duration FIRST_SNAPSHOT_DELAY = Duration.ofSeconds(30);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration snapshotInterval;
+    private final long catchUpMarginMs;
+    private final Duration maxCatchUp;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<PackageReadModel> readModel;
+
+    // Segments below this were written by earlier runs; recovery replays only those
+    private final long startupSequence;
+    private final Object writeLock = new Object();
+    // Guarded by writeLock; null once the journal could not open a segment
+    private JournalSegment current;
+    // Replays read files under the read lock; compaction deletes them under the write lock
+    private final ReadWriteLock files = new ReentrantReadWriteLock();
+    private volatile UUID databaseId;
+    private volatile boolean running;
+
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "package-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter appended;
+    private final Timer snapshotTime;
+    private final Timer recoveryTime;
+
+    public PackageJournal(JdbcTemplate jdbcTemplate,
+                          ObjectProvider<PackageReadModel> readModel,
+                          MeterRegistry registry,
+                          @Value("${app.journal.directory:data/journal}") Path directory,
+                          @Value("${app.journal.segment-size:64MB}") DataSize segmentSize,
+                          @Value("${app.journal.snapshot-interval:10m}") Duration snapshotInterval,
+                          @Value("${app.journal.catch-up-margin:1m}") Duration catchUpMargin,
+                          @Value("${app.journal.max-catch-up:24h}") Duration maxCatchUp) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readModel = readModel;
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.snapshotInterval = snapshotInterval;
+        this.catchUpMarginMs = catchUpMargin.toMillis();
+        this.maxCatchUp = maxCatchUp;
+        long lastSequence = 0;
+        for (long sequence : JournalFiles.segments(this.directory)) {
+            lastSequence = Math.max(lastSequence, sequence);
+        }
+        for (long sequence : JournalFiles.snapshots(this.directory)) {
+            lastSequence = Math.max(lastSequence, sequence);
+        }
+        this.startupSequence = lastSequence + 1;
+
+        this.appended = Counter.builder("journal.records")
+                .description("Package changes appended to the local journal")
+                .register(registry);
+        this.snapshotTime = Timer.builder("journal.snapshot")
+                .description("Compacted snapshots written from the read model")
+                .register(registry);
+        this.recoveryTime = Timer.builder("journal.recovery")
+                .description("Replays of the snapshot, journal and catch-up rows into a projection")
+                .register(registry);
+    }
+
+    // ---- writing ----
+
+    @Override
+    public void onChange(PackageChangeEvent event) {
+        append(JournalRecord.of(event));
+        appended.increment();
+    }
+
+    @Override
+    public void onGap() {
+        append(JournalRecord.gap(System.currentTimeMillis()));
+    }
+
+    private void append(JournalRecord record) {
+        boolean rolled = false;
+        synchronized (writeLock) {
+            if (current == null) {
+                return;
+            }
+            if (!current.append(record)) {
+                roll(current.sequence() + 1);
+                rolled = true;
+                if (current != null) {
+                    current.append(record);
+                }
+            }
+        }
+        if (rolled && running) {
+            // Keep the replay after a restart short
+            compactor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Closes the current segment and opens the next one, starting it with the last
+     * change of the previous segment: that change may still be on its way to the
+     * read model while a snapshot is taken. Called under the write lock.
+     */
+    private void roll(long sequence) {
+        JournalRecord carried = null;
+        try {
+            if (current != null) {
+                carried = current.lastChange();
+                current.close();
+            }
+            current = JournalSegment.create(JournalFiles.segment(directory, sequence), sequence, segmentSize);
+            if (carried != null) {
+                current.append(carried);
+            }
+        } catch (IOException e) {
+            // Recovery catches up from the last change recorded
+            log.error("Could not open journal segment {}; package changes are no longer journaled", sequence, e);
+            current = null;
+        }
+    }
+
+    // ---- compaction ----
+
+    /** Writes a snapshot of the read model and drops the files it supersedes. */
+    void compact() {
+        PackageReadModel model = readModel.getIfAvailable();
+        if (model == null || !model.isServing()) {
+            log.debug("Skipping journal snapshot: the read model is not serving");
+            return;
+        }
+        try {
+            snapshotTime.recordCallable(() -> {
+                writeSnapshot(model);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not write a package journal snapshot", e);
+        }
+    }
+
+    private void writeSnapshot(PackageReadModel model) throws IOException {
+        UUID database = databaseId();
+        long sequence;
+        long createdAt;
+        synchronized (writeLock) {
+            if (current == null) {
+                return;
+            }
+            sequence = current.sequence() + 1;
+            createdAt = System.currentTimeMillis();
+            roll(sequence);
+        }
+        try (JournalFiles.SnapshotWriter writer = JournalFiles.writeSnapshot(directory, sequence, createdAt, database)) {
+            model.forEach(pkg -> {
+                try {
+                    writer.append(record(pkg, createdAt));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        files.writeLock().lock();
+        try {
+            for (long snapshot : JournalFiles.snapshots(directory)) {
+                if (snapshot < sequence) {
+                    Files.deleteIfExists(JournalFiles.snapshot(directory, snapshot));
+                }
+            }
+            for (long segment : JournalFiles.segments(directory)) {
+                if (segment < sequence) {
+                    Files.deleteIfExists(JournalFiles.segment(directory, segment));
+                }
+            }
+        } finally {
+            files.writeLock().unlock();
+        }
+        // Tombstones older than the catch-up window can never be replayed
+        jdbcTemplate.update("DELETE FROM package_tombstones WHERE deleted_at < ?",
+                Timestamp.from(Instant.now().minus(maxCatchUp).minusMillis(catchUpMarginMs)));
+    }
+
+    private static JournalRecord record(TrackedPackage pkg, long snapshotAt) {
+        long changedAt = pkg.lastChangedAt() != null ? pkg.lastChangedAt().toEpochMilli() : snapshotAt;
+        return new JournalRecord(JournalRecord.UPSERT, pkg.packageId(), changedAt, pkg.description(),
+                pkg.weight(), pkg.fragile(), pkg.status());
+    }
+
+    // ---- recovery ----
+
+    @Override
+    public boolean replay(Consumer<PackageChangeEvent> sink) {
+        long started = System.nanoTime();
+        files.readLock().lock();
+        try {
+            List<Long> snapshots = JournalFiles.snapshots(directory);
+            if (snapshots.isEmpty()) {
+                log.info("No package journal snapshot in {}", directory);
+                return false;
+            }
+            Path snapshotFile = JournalFiles.snapshot(directory, snapshots.getLast());
+            JournalFiles.SnapshotHeader header = JournalFiles.readSnapshotHeader(snapshotFile);
+            if (!header.databaseId().equals(databaseId())) {
+                log.info("Package journal snapshot {} was taken from another database; ignoring it", snapshotFile);
+                return false;
+            }
+
+            Replay replay = new Replay(sink, header.createdAtMillis());
+            JournalFiles.readSnapshot(snapshotFile, replay::snapshotRecord);
+            long snapshotRecords = replay.records;
+            for (long sequence = header.sequence(); sequence < startupSequence; sequence++) {
+                Path segment = JournalFiles.segment(directory, sequence);
+                if (!Files.exists(segment)) {
+                    replay.journalRecord(JournalRecord.gap(replay.lastChangeMillis));
+                    continue;
+                }
+                JournalFiles.readSegment(segment, replay::journalRecord);
+            }
+            Instant catchUpFrom = Instant.ofEpochMilli(replay.watermarkMillis() - catchUpMarginMs);
+            if (catchUpFrom.isBefore(Instant.now().minus(maxCatchUp))) {
+                log.info("Package journal ends at {}, beyond the {} catch-up window; ignoring it", catchUpFrom, maxCatchUp);
+                return false;
+            }
+            long journalRecords = replay.records - snapshotRecords;
+            long caughtUp = catchUp(sink, catchUpFrom);
+            log.info("Replayed {} snapshot records, {} journal records and {} changes since {} in {} ms",
+                    snapshotRecords, journalRecords, caughtUp, catchUpFrom,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not read the package journal in {}", directory, e);
+            return false;
+        } finally {
+            files.readLock().unlock();
+            recoveryTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long catchUp(Consumer<PackageChangeEvent> sink, Instant from) {
+        long[] rows = new long[1];
+        Timestamp since = Timestamp.from(from);
+        jdbcTemplate.query(
+                "SELECT package_id, description, weight, fragile, status, updated_at FROM packages WHERE updated_at >= ?",
+                rs -> {
+                    long id = rs.getLong(1);
+                    String status = rs.getString(5);
+                    sink.accept(new PackageChangeEvent(PackageChangeType.UPDATED, id,
+                            new PackageResponseDTO(id, rs.getString(2), rs.getObject(3, Double.class),
+                                    rs.getObject(4, Boolean.class), status == null ? null : PackageStatus.valueOf(status), null),
+                            rs.getTimestamp(6).toInstant()));
+                    rows[0]++;
+                },
+                since);
+        jdbcTemplate.query(
+                "SELECT package_id, deleted_at FROM package_tombstones WHERE deleted_at >= ?",
+                rs -> {
+                    sink.accept(new PackageChangeEvent(PackageChangeType.DELETED, rs.getLong(1), null,
+                            rs.getTimestamp(2).toInstant()));
+                    rows[0]++;
+                },
+                since);
+        return rows[0];
+    }
+
+    private UUID databaseId() {
+        UUID id = databaseId;
+        if (id == null) {
+            id = jdbcTemplate.queryForObject("SELECT id FROM database_identity", UUID.class);
+            databaseId = id;
+        }
+        return id;
+    }
+
+    /** Feeds records to the sink and tracks how far the journal is known to be complete. */
+    private static final class Replay {
+        private final Consumer<PackageChangeEvent> sink;
+        private long lastChangeMillis;
+        private long completeUntilMillis = -1;
+        private long records;
+
+        private Replay(Consumer<PackageChangeEvent> sink, long snapshotMillis) {
+            this.sink = sink;
+            this.lastChangeMillis = snapshotMillis;
+        }
+
+        void snapshotRecord(JournalRecord record) {
+            sink.accept(record.toEvent());
+            records++;
+        }
+
+        void journalRecord(JournalRecord record) {
+            if (record.type() == JournalRecord.GAP) {
+                if (completeUntilMillis < 0) {
+                    completeUntilMillis = lastChangeMillis;
+                }
+                return;
+            }
+            sink.accept(record.toEvent());
+            lastChangeMillis = Math.max(lastChangeMillis, record.changedAtMillis());
+            records++;
+        }
+
+        long watermarkMillis() {
+            return completeUntilMillis >= 0 ? completeUntilMillis : lastChangeMillis;
+        }
+    }
+
+    // ---- lifecycle ----
+
+    @Override
+    public void start() {
+        synchronized (writeLock) {
+            roll(startupSequence);
+            if (current != null) {
+                // Changes made while this instance was down were not recorded
+                current.append(JournalRecord.gap(System.currentTimeMillis()));
+            }
+        }
+        running = true;
+        compactor.scheduleWithFixedDelay(this::compact, FIRST_SNAPSHOT_DELAY.toMillis(),
+                snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        compactor.shutdownNow();
+        synchronized (writeLock) {
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException e) {
+                    log.warn("Could not flush the package journal", e);
+                }
+                current = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
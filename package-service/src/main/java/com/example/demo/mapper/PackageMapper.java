@@ -1,13 +1,23 @@
 package com.example.demo.mapper;
 
+import com.example.demo.id.TrackingCode;
 import com.example.demo.model.PackageEntity;
 import com.example.demo.payload.PackageRequestDTO;
 import com.example.demo.payload.PackageResponseDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PackageMapper {
     PackageEntity toEntity(PackageRequestDTO dto);
+
+    @Mapping(target = "trackingCode", source = "trackingCode", qualifiedByName = "formatTrackingCode")
     PackageResponseDTO toResponseDto(PackageEntity pkg);
+
+    @Named("formatTrackingCode")
+    default String formatTrackingCode(Long code) {
+        return code == null ? null : TrackingCode.format(code);
+    }
 }
\ No newline at end of file
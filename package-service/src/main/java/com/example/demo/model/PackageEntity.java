@@ -1,5 +1,7 @@
 package com.example.demo.model;
 
+import com.example.demo.id.TimeOrderedId;
+import com.example.demo.id.TrackingCode;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,7 +12,7 @@ import lombok.NoArgsConstructor;
 public class PackageEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long packageId;
 
     private String description;
@@ -19,5 +21,16 @@ public class PackageEntity {
 
     @Enumerated(EnumType.STRING)
     private PackageStatus status;
+
+    /** Printed tracking code, see {@link TrackingCode}; never changes once assigned. */
+    @Column(updatable = false)
+    private Long trackingCode;
+
+    @PrePersist
+    void assignTrackingCode() {
+        if (trackingCode == null) {
+            trackingCode = TrackingCode.random();
+        }
+    }
 }
 
@@ -0,0 +1,13 @@
+package com.example.demo.payload;
+
+/**
+ * How {@code totalElements}/{@code totalPages} are computed for a paginated listing.
+ */
+public enum CountStrategy {
+    /** COUNT(*) on every request. */
+    EXACT,
+    /** COUNT(*) cached for a TTL and invalidated when packages are created or deleted. */
+    CACHED,
+    /** Row estimate from the planner statistics; no table scan. */
+    ESTIMATED
+}
@@ -0,0 +1,7 @@
+package com.example.demo.payload;
+
+public enum CreateRequestState {
+    ACCEPTED,
+    CREATED,
+    FAILED
+}
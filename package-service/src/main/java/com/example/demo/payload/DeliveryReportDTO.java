@@ -0,0 +1,37 @@
+package com.example.demo.payload;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.report.ReportPeriod;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * @param from         first day of the period
+ * @param to           day after the last day of the period
+ * @param complete     false while the period, or its last day's grace period, is still open
+ * @param entered      packages that entered each status during the period, with their total weight
+ * @param dwell        time spent in each status by the packages that left it during the period
+ * @param cachedDays   days served from already computed reports
+ * @param computedDays days read from the status history for this request
+ */
+public record DeliveryReportDTO(
+        ReportPeriod period,
+        LocalDate from,
+        LocalDate to,
+        boolean complete,
+        long created,
+        long delivered,
+        double weightDelivered,
+        Map<PackageStatus, StatusFlow> entered,
+        Map<PackageStatus, DwellTime> dwell,
+        int cachedDays,
+        int computedDays,
+        long elapsedMs
+) {
+    public record StatusFlow(long count, double totalWeight) {}
+
+    /** Percentiles are upper bounds, at most twice the exact value. */
+    public record DwellTime(long transitions, double averageSeconds, double p50Seconds, double p95Seconds,
+                            double maxSeconds) {}
+}
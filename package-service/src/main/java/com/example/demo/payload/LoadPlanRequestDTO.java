@@ -0,0 +1,18 @@
+package com.example.demo.payload;
+
+import com.example.demo.planning.FragilePolicy;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.List;
+
+/**
+ * @param fragilePolicy CAP (default) or SEPARATE
+ * @param timeBudgetMs  search time; defaults to app.load-plan.time-budget, capped at app.load-plan.max-time-budget
+ */
+public record LoadPlanRequestDTO(
+        @NotEmpty @Valid List<VehicleTypeDTO> vehicles,
+        FragilePolicy fragilePolicy,
+        @PositiveOrZero Long timeBudgetMs
+) {}
@@ -0,0 +1,19 @@
+package com.example.demo.payload;
+
+import java.util.List;
+
+/**
+ * @param budgetExhausted the time budget ended the search; a longer budget may find a better plan
+ */
+public record LoadPlanResponseDTO(
+        int packages,
+        int assigned,
+        int vehiclesUsed,
+        double totalWeightKg,
+        double usedCapacityKg,
+        int attempts,
+        boolean budgetExhausted,
+        long elapsedMs,
+        List<VehicleLoadDTO> loads,
+        List<Long> unassignedPackageIds
+) {}
@@ -0,0 +1,19 @@
+package com.example.demo.payload;
+
+import com.example.demo.model.PackageStatus;
+
+import java.util.Map;
+
+/**
+ * @param source      SNAPSHOT, or DATABASE when the active package snapshot was not serving
+ * @param stalenessMs upper bound on how far behind the table the figures may be; 0 when read from the table
+ */
+public record PackageAggregateDTO(
+        long count,
+        double totalWeight,
+        Map<PackageStatus, StatusTotals> byStatus,
+        String source,
+        long stalenessMs
+) {
+    public record StatusTotals(long count, double totalWeight) {}
+}
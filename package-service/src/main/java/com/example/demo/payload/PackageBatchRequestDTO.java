@@ -0,0 +1,12 @@
+package com.example.demo.payload;
+
+import com.example.demo.config.AppConstant;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PackageBatchRequestDTO(
+        @NotEmpty @Size(max = AppConstant.MAX_BATCH_IDS) List<@NotNull Long> ids
+) {}
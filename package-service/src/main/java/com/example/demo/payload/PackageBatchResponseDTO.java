@@ -0,0 +1,12 @@
+package com.example.demo.payload;
+
+import java.util.List;
+
+/**
+ * @param packages   found packages, in the order their ids were requested (duplicates collapsed)
+ * @param missingIds requested ids with no package, in request order
+ */
+public record PackageBatchResponseDTO(
+        List<PackageResponseDTO> packages,
+        List<Long> missingIds
+) {}
@@ -0,0 +1,18 @@
+package com.example.demo.payload;
+
+import java.time.Instant;
+
+/**
+ * A committed change to a package, as streamed to subscribers. For DELETED,
+ * {@code pkg} is the last state before deletion.
+ */
+public record PackageChangeEvent(
+        PackageChangeType type,
+        Long packageId,
+        PackageResponseDTO pkg,
+        Instant changedAt
+) {
+    public static PackageChangeEvent of(PackageChangeType type, Long packageId, PackageResponseDTO pkg) {
+        return new PackageChangeEvent(type, packageId, pkg, Instant.now());
+    }
+}
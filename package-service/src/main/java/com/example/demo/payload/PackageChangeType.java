@@ -0,0 +1,7 @@
+package com.example.demo.payload;
+
+public enum PackageChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
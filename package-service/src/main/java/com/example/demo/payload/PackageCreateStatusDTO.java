@@ -0,0 +1,22 @@
+package com.example.demo.payload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous create request.
+ *
+ * @param pkg   the created package, once CREATED
+ * @param error why the package was not created, once FAILED
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PackageCreateStatusDTO(
+        UUID handle,
+        CreateRequestState state,
+        PackageResponseDTO pkg,
+        String error,
+        Instant acceptedAt,
+        Instant completedAt
+) {}
@@ -0,0 +1,62 @@
+package com.example.demo.payload;
+
+import com.example.demo.exceptions.APIException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of {@link PackageResponseDTO} that a client can select with {@code fields=}.
+ * <p>
+ * Declared in the same order as the record components, so a projection can place
+ * each selected value by ordinal.
+ */
+public enum PackageField {
+    PACKAGE_ID("packageId"),
+    DESCRIPTION("description"),
+    WEIGHT("weight"),
+    FRAGILE("fragile"),
+    STATUS("status"),
+    TRACKING_CODE("trackingCode");
+
+    private final String attribute;
+
+    PackageField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /** JSON property and JPA attribute name. */
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma-separated field list such as {@code packageId,status}.
+     * Returns an empty set (meaning all fields) when the parameter is absent or blank.
+     */
+    public static Set<PackageField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Collections.emptySet();
+        }
+        EnumSet<PackageField> selected = EnumSet.noneOf(PackageField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromAttribute(name.trim()));
+        }
+        return selected;
+    }
+
+    /** True when the selection narrows the response, i.e. not empty and not every field. */
+    public static boolean isPartial(Set<PackageField> fields) {
+        return fields != null && !fields.isEmpty() && fields.size() < values().length;
+    }
+
+    private static PackageField fromAttribute(String name) {
+        for (PackageField field : values()) {
+            if (field.attribute.equals(name)) {
+                return field;
+            }
+        }
+        throw new APIException("Unknown field: '" + name + "'. Allowed fields: packageId, description, weight, fragile, status, trackingCode");
+    }
+}
@@ -16,5 +16,8 @@ public class PackageResponse {
     private long totalElements;
     private int totalPages;
     private boolean lastPage;
+    // How the totals were obtained, and whether they are exact for this response
+    private CountStrategy countStrategy;
+    private boolean totalExact;
 
 }
@@ -2,10 +2,12 @@ package com.example.demo.payload;
 
 import com.example.demo.model.PackageStatus;
 
+// A sparse fieldset (fields=...) writes only the selected properties, see SparseFieldsetConfig
 public record PackageResponseDTO(
         Long packageId,
         String description,
         Double weight,
         Boolean fragile,
-        PackageStatus status
+        PackageStatus status,
+        String trackingCode
 ) {}
@@ -0,0 +1,59 @@
+package com.example.demo.payload;
+
+import com.example.demo.exceptions.APIException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fields a package listing can be sorted by. Each one is backed by an index on its
+ * sort columns (checked at startup by {@code SortIndexVerifier}), so a page is read
+ * in index order instead of sorting the table.
+ * <p>
+ * Non-unique fields are followed by {@code packageId} in the same direction, which
+ * makes the order total: rows with equal values never move between pages.
+ */
+public enum PackageSortField {
+    PACKAGE_ID("packageId", "package_id", false),
+    DESCRIPTION("description", "description", true),
+    STATUS("status", "status", true);
+
+    private static final String ALLOWED = Arrays.stream(values())
+            .map(PackageSortField::attribute)
+            .collect(Collectors.joining(", "));
+
+    private final String attribute;
+    private final String column;
+    private final boolean tiebreak;
+
+    PackageSortField(String attribute, String column, boolean tiebreak) {
+        this.attribute = attribute;
+        this.column = column;
+        this.tiebreak = tiebreak;
+    }
+
+    /** JPA attribute name, as accepted in {@code sortBy}. */
+    public String attribute() {
+        return attribute;
+    }
+
+    /** Whether {@code packageId} is appended to the sort. */
+    public boolean hasTiebreak() {
+        return tiebreak;
+    }
+
+    /** Leading columns an index must have for this sort, in order. */
+    public List<String> indexColumns() {
+        return tiebreak ? List.of(column, PACKAGE_ID.column) : List.of(column);
+    }
+
+    public static PackageSortField fromAttribute(String name) {
+        for (PackageSortField field : values()) {
+            if (field.attribute.equals(name)) {
+                return field;
+            }
+        }
+        throw new APIException("Cannot sort by '" + name + "'. Sortable fields: " + ALLOWED);
+    }
+}
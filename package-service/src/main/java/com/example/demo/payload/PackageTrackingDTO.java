@@ -0,0 +1,19 @@
+package com.example.demo.payload;
+
+import com.example.demo.model.PackageStatus;
+
+import java.time.Instant;
+
+/**
+ * @param lastChangedAt when the current state was written, if the read model saw the change
+ * @param source        READ_MODEL, or DATABASE when the read model was not serving
+ */
+public record PackageTrackingDTO(
+        Long packageId,
+        String description,
+        PackageStatus status,
+        Double weight,
+        Boolean fragile,
+        Instant lastChangedAt,
+        String source
+) {}
@@ -0,0 +1,8 @@
+package com.example.demo.payload;
+
+import com.example.demo.model.PackageStatus;
+import jakarta.validation.constraints.NotNull;
+
+public record ScanEventDTO(
+        @NotNull PackageStatus status
+) {}
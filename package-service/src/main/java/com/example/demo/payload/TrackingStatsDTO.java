@@ -0,0 +1,15 @@
+package com.example.demo.payload;
+
+import com.example.demo.model.PackageStatus;
+
+import java.util.Map;
+
+/**
+ * @param stalenessMs upper bound on how far behind the table the counts may be; 0 when read from the table
+ */
+public record TrackingStatsDTO(
+        long total,
+        Map<PackageStatus, Long> byStatus,
+        String source,
+        long stalenessMs
+) {}
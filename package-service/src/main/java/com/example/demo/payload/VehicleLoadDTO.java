@@ -0,0 +1,12 @@
+package com.example.demo.payload;
+
+import java.util.List;
+
+public record VehicleLoadDTO(
+        String vehicleId,
+        double capacityKg,
+        double loadKg,
+        double utilization,
+        int fragileCount,
+        List<Long> packageIds
+) {}
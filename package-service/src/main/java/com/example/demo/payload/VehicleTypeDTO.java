@@ -0,0 +1,20 @@
+package com.example.demo.payload;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * A group of identical vehicles; they are planned as {@code type-1 .. type-quantity}.
+ *
+ * @param maxFragile fragile packages per vehicle; {@code null} for no cap, 0 for none
+ */
+public record VehicleTypeDTO(
+        @NotBlank String type,
+        @NotNull @Positive Double capacityKg,
+        @PositiveOrZero Integer maxFragile,
+        @Min(1) @Max(10_000) Integer quantity
+) {}
@@ -0,0 +1,26 @@
+package com.example.demo.planning;
+
+import java.util.List;
+
+/** Packages to load, as parallel primitive arrays indexed by item. */
+public record Cargo(long[] packageIds, double[] weights, boolean[] fragile) {
+
+    public static Cargo of(List<PlannablePackage> packages) {
+        int n = packages.size();
+        long[] ids = new long[n];
+        double[] weights = new double[n];
+        boolean[] fragile = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            PlannablePackage pkg = packages.get(i);
+            ids[i] = pkg.packageId();
+            // Legacy rows may lack weight/fragile; treat them as weightless and sturdy
+            weights[i] = pkg.weight() != null ? pkg.weight() : 0.0;
+            fragile[i] = Boolean.TRUE.equals(pkg.fragile());
+        }
+        return new Cargo(ids, weights, fragile);
+    }
+
+    public int size() {
+        return packageIds.length;
+    }
+}
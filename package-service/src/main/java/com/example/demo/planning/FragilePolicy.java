@@ -0,0 +1,9 @@
+package com.example.demo.planning;
+
+/** How fragile packages may share a vehicle. */
+public enum FragilePolicy {
+    /** Mixed loads, up to each vehicle's fragile cap. */
+    CAP,
+    /** A vehicle carries either only fragile or only non-fragile packages (caps still apply). */
+    SEPARATE
+}
@@ -0,0 +1,16 @@
+package com.example.demo.planning;
+
+/**
+ * Best assignment found.
+ *
+ * @param vehicleOf        vehicle index (into the fleet passed to the planner) per item, -1 if unassigned
+ * @param attempts         heuristic runs completed
+ * @param budgetExhausted  whether the time budget stopped the search before the attempt limit
+ */
+public record LoadPlan(int[] vehicleOf,
+                       int unassigned,
+                       int vehiclesUsed,
+                       double usedCapacityKg,
+                       int attempts,
+                       boolean budgetExhausted) {
+}
@@ -0,0 +1,263 @@
+package com.example.demo.planning;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Heterogeneous-fleet bin packing with fragile caps, solved by a portfolio of
+ * first-fit-decreasing runs.
+ * <p>
+ * Attempt 0 is plain FFD: packages by weight descending, vehicles by capacity
+ * descending. Later attempts perturb package weights by up to ±10% for ordering
+ * and vary the vehicle order (smallest first, shuffled), which often frees a
+ * vehicle or swaps a large one for a smaller one. Attempts run as fork-join tasks in
+ * rounds until the time budget or the attempt limit is reached; the best plan
+ * wins: fewest unassigned packages, then least capacity used, then fewest vehicles.
+ * <p>
+ * Each attempt is O(n log n + n log v): placement finds the first vehicle that fits
+ * through max-segment-trees of remaining capacity, one for regular and one for
+ * fragile packages (a vehicle drops out of the fragile tree at its cap, and out of
+ * the other tree under {@link FragilePolicy#SEPARATE} once it carries the other kind).
+ */
+public final class LoadPlanner {
+
+    private static final double WEIGHT_EPSILON = 1e-9;
+    private static final double ORDER_NOISE = 0.2;
+
+    // What a vehicle carries so far
+    private static final byte EMPTY = 0;
+    private static final byte REGULAR = 1;
+    private static final byte FRAGILE = 2;
+
+    private final ForkJoinPool pool;
+
+    public LoadPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public LoadPlan plan(Cargo cargo, List<Vehicle> fleet, FragilePolicy policy, Duration budget, int maxAttempts) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        Problem problem = new Problem(cargo, fleet.toArray(Vehicle[]::new), policy);
+
+        // The baseline always runs, so there is a plan even with a zero budget
+        Attempt best = problem.solve(0);
+        int next = 1;
+        boolean exhausted = false;
+        int roundSize = Math.max(2, pool.getParallelism() * 2);
+        while (next < maxAttempts) {
+            if (System.nanoTime() >= deadline) {
+                exhausted = true;
+                break;
+            }
+            int end = Math.min(maxAttempts, next + roundSize);
+            Attempt round = pool.invoke(new AttemptTask(problem, next, end, deadline));
+            best = Attempt.better(best, round);
+            next = end;
+        }
+        return new LoadPlan(best.vehicleOf, best.unassigned, best.vehiclesUsed, best.usedCapacity,
+                problem.completed.get(), exhausted);
+    }
+
+    private static final class AttemptTask extends RecursiveTask<Attempt> {
+        private final Problem problem;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        private AttemptTask(Problem problem, int from, int to, long deadline) {
+            this.problem = problem;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Attempt compute() {
+            if (to - from == 1) {
+                return System.nanoTime() < deadline ? problem.solve(from) : null;
+            }
+            int mid = (from + to) >>> 1;
+            AttemptTask left = new AttemptTask(problem, from, mid, deadline);
+            left.fork();
+            Attempt right = new AttemptTask(problem, mid, to, deadline).compute();
+            return Attempt.better(left.join(), right);
+        }
+    }
+
+    private static final class Problem {
+        private final Cargo cargo;
+        private final Vehicle[] fleet;
+        private final FragilePolicy policy;
+        private final long[] weightOrder;
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private Problem(Cargo cargo, Vehicle[] fleet, FragilePolicy policy) {
+            this.cargo = cargo;
+            this.fleet = fleet;
+            this.policy = policy;
+            this.weightOrder = sortKeys(cargo.weights(), null);
+        }
+
+        Attempt solve(int attempt) {
+            SplittableRandom random = new SplittableRandom(0x5DEECE66DL * (attempt + 1));
+            long[] order = attempt == 0 ? weightOrder : sortKeys(cargo.weights(), random);
+            int[] vehicles = vehicleOrder(attempt, random);
+
+            int v = vehicles.length;
+            double[] remaining = new double[v];
+            int[] fragileCount = new int[v];
+            byte[] kind = new byte[v];
+            FitTree regularFit = new FitTree(v);
+            FitTree fragileFit = new FitTree(v);
+            for (int pos = 0; pos < v; pos++) {
+                Vehicle vehicle = fleet[vehicles[pos]];
+                remaining[pos] = vehicle.capacityKg();
+                regularFit.set(pos, remaining[pos]);
+                fragileFit.set(pos, vehicle.maxFragile() > 0 ? remaining[pos] : -1);
+            }
+
+            int n = cargo.size();
+            int[] vehicleOf = new int[n];
+            int unassigned = 0;
+            // Keys are sorted ascending: walk backwards for heaviest first
+            for (int k = n - 1; k >= 0; k--) {
+                int item = (int) order[k];
+                double weight = cargo.weights()[item];
+                boolean fragile = cargo.fragile()[item];
+                int pos = (fragile ? fragileFit : regularFit).firstAtLeast(weight - WEIGHT_EPSILON);
+                if (pos < 0) {
+                    vehicleOf[item] = -1;
+                    unassigned++;
+                    continue;
+                }
+                vehicleOf[item] = vehicles[pos];
+                remaining[pos] -= weight;
+                if (fragile) {
+                    fragileCount[pos]++;
+                }
+                if (kind[pos] == EMPTY) {
+                    kind[pos] = fragile ? FRAGILE : REGULAR;
+                }
+                boolean separate = policy == FragilePolicy.SEPARATE;
+                regularFit.set(pos, separate && kind[pos] == FRAGILE ? -1 : remaining[pos]);
+                boolean fragileClosed = fragileCount[pos] >= fleet[vehicles[pos]].maxFragile()
+                        || separate && kind[pos] == REGULAR;
+                fragileFit.set(pos, fragileClosed ? -1 : remaining[pos]);
+            }
+
+            int used = 0;
+            double usedCapacity = 0;
+            for (int pos = 0; pos < v; pos++) {
+                if (kind[pos] != EMPTY) {
+                    used++;
+                    usedCapacity += fleet[vehicles[pos]].capacityKg();
+                }
+            }
+            completed.incrementAndGet();
+            return new Attempt(attempt, vehicleOf, unassigned, used, usedCapacity);
+        }
+
+        private int[] vehicleOrder(int attempt, SplittableRandom random) {
+            Integer[] order = new Integer[fleet.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            switch (attempt % 3) {
+                case 0 -> Arrays.sort(order, (a, b) -> Double.compare(fleet[b].capacityKg(), fleet[a].capacityKg()));
+                case 1 -> Arrays.sort(order, (a, b) -> Double.compare(fleet[a].capacityKg(), fleet[b].capacityKg()));
+                default -> {
+                    for (int i = order.length - 1; i > 0; i--) {
+                        int j = random.nextInt(i + 1);
+                        Integer swap = order[i];
+                        order[i] = order[j];
+                        order[j] = swap;
+                    }
+                }
+            }
+            return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Item indexes packed under their (optionally perturbed) weight: non-negative
+         * float bits order like the floats, so one primitive sort orders by weight.
+         */
+        private static long[] sortKeys(double[] weights, SplittableRandom noise) {
+            long[] keys = new long[weights.length];
+            for (int i = 0; i < weights.length; i++) {
+                double key = weights[i];
+                if (noise != null) {
+                    key *= 1.0 + ORDER_NOISE * (noise.nextDouble() - 0.5);
+                }
+                keys[i] = ((long) Float.floatToIntBits((float) Math.max(key, 0.0)) << 32) | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] &= 0xFFFFFFFFL;
+            }
+            return keys;
+        }
+    }
+
+    private record Attempt(int attempt, int[] vehicleOf, int unassigned, int vehiclesUsed, double usedCapacity) {
+
+        static Attempt better(Attempt a, Attempt b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            if (a.unassigned != b.unassigned) {
+                return a.unassigned < b.unassigned ? a : b;
+            }
+            if (Math.abs(a.usedCapacity - b.usedCapacity) > WEIGHT_EPSILON) {
+                return a.usedCapacity < b.usedCapacity ? a : b;
+            }
+            if (a.vehiclesUsed != b.vehiclesUsed) {
+                return a.vehiclesUsed < b.vehiclesUsed ? a : b;
+            }
+            // Lowest attempt number, so the result does not depend on scheduling
+            return a.attempt <= b.attempt ? a : b;
+        }
+    }
+
+    /** Max segment tree over vehicle positions; finds the first position with at least a given value. */
+    private static final class FitTree {
+        private final int size;
+        private final double[] tree;
+
+        FitTree(int leaves) {
+            int size = 1;
+            while (size < leaves) {
+                size <<= 1;
+            }
+            this.size = size;
+            this.tree = new double[2 * size];
+            Arrays.fill(tree, -1);
+        }
+
+        void set(int pos, double value) {
+            int node = pos + size;
+            tree[node] = value;
+            for (node >>>= 1; node > 0; node >>>= 1) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        int firstAtLeast(double value) {
+            if (tree[1] < value) {
+                return -1;
+            }
+            int node = 1;
+            while (node < size) {
+                node = tree[2 * node] >= value ? 2 * node : 2 * node + 1;
+            }
+            return node - size;
+        }
+    }
+}
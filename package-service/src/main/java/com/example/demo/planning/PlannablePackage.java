@@ -0,0 +1,5 @@
+package com.example.demo.planning;
+
+/** The columns the load planner needs, fetched without loading entities. */
+public record PlannablePackage(Long packageId, Double weight, Boolean fragile) {
+}
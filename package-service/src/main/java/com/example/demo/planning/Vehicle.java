@@ -0,0 +1,9 @@
+package com.example.demo.planning;
+
+/**
+ * One vehicle of the fleet.
+ *
+ * @param maxFragile most fragile packages it may carry ({@link Integer#MAX_VALUE} for no cap)
+ */
+public record Vehicle(String vehicleId, double capacityKg, int maxFragile) {
+}
@@ -0,0 +1,111 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.events.PackageChangeListener;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Columnar snapshot of every package that is not yet DELIVERED, for ad-hoc
+ * aggregations (e.g. total weight of fragile packages out for delivery) without
+ * scanning the hot table. A package leaves the snapshot when delivered or deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class ActivePackageSnapshot extends ChangeProjection<PackageColumns> {
+
+    private static final String EXCLUDED_STATUS = PackageStatus.DELIVERED.name();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rebuildBatchSize;
+
+    public ActivePackageSnapshot(JdbcTemplate jdbcTemplate,
+                                 ObjectProvider<PackageChangeListener> listener,
+                                 ObjectProvider<WarmStartSource> warmStartSource,
+                                 MeterRegistry registry,
+                                 @Value("${app.snapshot.max-lag:5s}") Duration maxLag,
+                                 @Value("${app.snapshot.rebuild-batch-size:50000}") int rebuildBatchSize,
+                                 @Value("${app.snapshot.max-queued-during-rebuild:100000}") int maxQueuedDuringRebuild) {
+        super("package_snapshot", listener, warmStartSource, registry, maxLag, maxQueuedDuringRebuild);
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildBatchSize = rebuildBatchSize;
+        Gauge.builder("package_snapshot.packages", this, snapshot -> snapshot.view() == null ? 0 : snapshot.view().size())
+                .description("Active packages held by the columnar snapshot")
+                .register(registry);
+        Gauge.builder("package_snapshot.heap", this, snapshot -> snapshot.view() == null ? 0 : snapshot.view().heapBytes())
+                .description("Approximate heap used by the columnar snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /** Aggregates over the current snapshot; callers check {@link #isServing()} first. */
+    public PackageColumns.Totals aggregate(PackageColumns.Filter filter) {
+        PackageColumns columns = view();
+        if (columns == null) {
+            return PackageColumns.Totals.empty();
+        }
+        // Scans take milliseconds, so the common pool is fine
+        return columns.aggregate(filter, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    protected PackageColumns empty() {
+        // Sized from the planner's estimate of non-delivered rows (table rows times the share of
+        // statuses other than DELIVERED in the column statistics); the columns grow past it if low
+        Long estimate = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(CAST(c.reltuples * (1 - COALESCE(("
+                        + "SELECT s.most_common_freqs[array_position(CAST(CAST(s.most_common_vals AS text) AS text[]), ?)] "
+                        + "FROM pg_stats s WHERE s.schemaname = current_schema() AND s.tablename = 'packages' "
+                        + "AND s.attname = 'status'), 0)) AS bigint), 0) "
+                        + "FROM pg_class c WHERE c.oid = CAST('packages' AS regclass)",
+                Long.class, EXCLUDED_STATUS);
+        return new PackageColumns((int) Math.min(estimate == null ? 0 : estimate, Integer.MAX_VALUE / 4));
+    }
+
+    @Override
+    protected PackageColumns load() {
+        PackageColumns columns = empty();
+        long[] lastId = {Long.MIN_VALUE};
+        int[] loaded = new int[1];
+        do {
+            loaded[0] = 0;
+            jdbcTemplate.query(
+                    "SELECT package_id, status, weight, fragile FROM packages "
+                            + "WHERE package_id > ? AND status <> ? ORDER BY package_id LIMIT ?",
+                    rs -> {
+                        long id = rs.getLong(1);
+                        String status = rs.getString(2);
+                        if (status != null) {
+                            columns.upsert(id, PackageStatus.valueOf(status), rs.getDouble(3), rs.getBoolean(4));
+                        }
+                        lastId[0] = id;
+                        loaded[0]++;
+                    },
+                    lastId[0], EXCLUDED_STATUS, rebuildBatchSize);
+        } while (loaded[0] == rebuildBatchSize && isRunning());
+        return columns;
+    }
+
+    @Override
+    protected void apply(PackageColumns columns, PackageChangeEvent event) {
+        PackageResponseDTO pkg = event.pkg();
+        if (event.type() == PackageChangeType.DELETED
+                || (pkg != null && (pkg.status() == null || pkg.status() == PackageStatus.DELIVERED))) {
+            columns.remove(event.packageId());
+        } else if (pkg != null) {
+            columns.upsert(event.packageId(), pkg.status(), pkg.weight() != null ? pkg.weight() : 0.0,
+                    Boolean.TRUE.equals(pkg.fragile()));
+        }
+    }
+}
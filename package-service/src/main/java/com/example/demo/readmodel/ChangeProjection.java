@@ -0,0 +1,263 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.events.PackageChangeConsumer;
+import com.example.demo.events.PackageChangeListener;
+import com.example.demo.payload.PackageChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An in-memory view of the packages table materialized from committed change
+ * notifications.
+ * <p>
+ * A rebuild loads a fresh view from the table while incoming changes are queued,
+ * then replays the queue on top and swaps the view in. Meanwhile the changes are
+ * still applied to the current view, so a consistent view keeps serving through a
+ * rebuild and is not lost if the rebuild fails. Changes carry the full package
+ * state and arrive in commit order, so replaying one already covered by the load
+ * is harmless. Rebuilds run at startup, on request, after a failed
+ * rebuild and whenever the listener reports a gap. The first rebuild starts from
+ * the {@link WarmStartSource} when there is one, and only loads the table if it
+ * has nothing usable.
+ * <p>
+ * The view is only {@link #isServing() served} while consistent and while the
+ * listener has polled within the lag bound, so readers never see data older than
+ * that; otherwise callers fall back to the table.
+ * <p>
+ * Metrics, prefixed with the projection name: {@code .projection.delay},
+ * {@code .rebuild}, {@code .changes.applied} and {@code .staleness}.
+ *
+ * @param <V> the view; mutated only under the projection's lock, or before it is published
+ */
+@Slf4j
+public abstract class ChangeProjection<V> implements PackageChangeConsumer, SmartLifecycle {
+
+    private static final Duration REBUILD_RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final String name;
+    private final ObjectProvider<PackageChangeListener> listener;
+    private final ObjectProvider<WarmStartSource> warmStartSource;
+    private final long maxLagMs;
+    private final int maxQueuedDuringRebuild;
+
+    private final Object lock = new Object();
+    private volatile V view;
+    private volatile boolean consistent;
+    // Guarded by lock: changes queued while a rebuild loads
+    private List<PackageChangeEvent> queued;
+    private boolean queueOverflowed;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private volatile boolean running;
+    // Rebuilds run one at a time
+    private boolean warmStartAttempted;
+
+    private final Timer projectionDelay;
+    private final Timer rebuildTime;
+    private final Counter applied;
+
+    protected ChangeProjection(String name,
+                               ObjectProvider<PackageChangeListener> listener,
+                               ObjectProvider<WarmStartSource> warmStartSource,
+                               MeterRegistry registry,
+                               Duration maxLag,
+                               int maxQueuedDuringRebuild) {
+        this.name = name;
+        this.listener = listener;
+        this.warmStartSource = warmStartSource;
+        this.maxLagMs = maxLag.toMillis();
+        this.maxQueuedDuringRebuild = maxQueuedDuringRebuild;
+
+        this.projectionDelay = Timer.builder(name + ".projection.delay")
+                .description("Time from a change being made to it being applied to the " + name)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rebuildTime = Timer.builder(name + ".rebuild")
+                .description("Full rebuilds of the " + name + " from the packages table")
+                .register(registry);
+        this.applied = Counter.builder(name + ".changes.applied")
+                .description("Package changes applied to the " + name)
+                .register(registry);
+        Gauge.builder(name + ".staleness", this, projection -> projection.stalenessMillis() / 1000.0)
+                .description("Upper bound on how far the " + name + " may be behind the table, in seconds")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /** A view without any package, to replay recorded changes into. */
+    protected abstract V empty();
+
+    /** Loads a complete view from the table; called on the rebuild thread. */
+    protected abstract V load();
+
+    /** Applies one committed change to the view. */
+    protected abstract void apply(V view, PackageChangeEvent event);
+
+    /** The current view, or {@code null} before the first rebuild completes. */
+    protected V view() {
+        return view;
+    }
+
+    // ---- serving ----
+
+    /** Whether the view is complete and within the lag bound; if not, read from the table instead. */
+    public boolean isServing() {
+        return consistent && stalenessMillis() <= maxLagMs;
+    }
+
+    public long stalenessMillis() {
+        if (!consistent) {
+            return Long.MAX_VALUE;
+        }
+        PackageChangeListener changes = listener.getIfAvailable();
+        return changes == null ? Long.MAX_VALUE : changes.millisSinceLastPoll();
+    }
+
+    // ---- change stream ----
+
+    @Override
+    public void onChange(PackageChangeEvent event) {
+        synchronized (lock) {
+            if (queued != null) {
+                if (queued.size() >= maxQueuedDuringRebuild) {
+                    // Too much churn to replay; the rebuild loads again
+                    queueOverflowed = true;
+                    queued.clear();
+                } else {
+                    queued.add(event);
+                }
+            }
+            if (view != null) {
+                apply(view, event);
+            }
+        }
+        applied.increment();
+        if (event.changedAt() != null) {
+            projectionDelay.record(Duration.between(event.changedAt(), Instant.now()));
+        }
+    }
+
+    @Override
+    public void onGap() {
+        log.info("Package change notifications may have been missed; rebuilding the {}", name);
+        consistent = false;
+        requestRebuild();
+    }
+
+    // ---- rebuild ----
+
+    /** Starts a rebuild in the background, or schedules another pass if one is running. */
+    public void requestRebuild() {
+        rebuildRequested.set(true);
+        if (rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name(name + "-rebuild").start(this::rebuildLoop);
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    private void rebuildLoop() {
+        try {
+            while (running && !Thread.currentThread().isInterrupted() && rebuildRequested.getAndSet(false)) {
+                try {
+                    rebuildTime.record(this::rebuildOnce);
+                } catch (RuntimeException e) {
+                    log.error("Rebuild of the {} failed; retrying", name, e);
+                    synchronized (lock) {
+                        queued = null;
+                    }
+                    rebuildRequested.set(true);
+                    sleepBeforeRetry();
+                }
+            }
+        } finally {
+            rebuilding.set(false);
+            // A request that raced with the end of the loop
+            if (running && rebuildRequested.get()) {
+                requestRebuild();
+            }
+        }
+    }
+
+    private void rebuildOnce() {
+        synchronized (lock) {
+            queued = new ArrayList<>();
+            queueOverflowed = false;
+        }
+        V fresh = warmStartAttempted ? null : warmStart();
+        if (fresh == null) {
+            fresh = load();
+        }
+
+        synchronized (lock) {
+            if (queueOverflowed) {
+                queued = null;
+                rebuildRequested.set(true);
+                return;
+            }
+            queued.forEach(event -> apply(fresh, event));
+            queued = null;
+            view = fresh;
+            consistent = true;
+        }
+        log.info("Rebuilt the {}", name);
+    }
+
+    private V warmStart() {
+        warmStartAttempted = true;
+        WarmStartSource source = warmStartSource.getIfAvailable();
+        if (source == null) {
+            return null;
+        }
+        V fresh = empty();
+        try {
+            if (source.replay(event -> apply(fresh, event))) {
+                log.info("Restored the {} from recorded state", name);
+                return fresh;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not restore the {} from recorded state; loading the packages table", name, e);
+        }
+        return null;
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(REBUILD_RETRY_BACKOFF);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- lifecycle ----
+
+    @Override
+    public void start() {
+        running = true;
+        requestRebuild();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.model.PackageStatus;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Column store of packages: one primitive array per attribute, rows packed densely
+ * at {@code [0, size)}. A row costs 17 bytes plus the fragile bit and ~24 bytes of
+ * id index, against several hundred bytes for a {@code PackageEntity} with its
+ * description string and persistence-context bookkeeping.
+ * <p>
+ * Removal moves the last row into the hole, so scans never skip gaps. Writers are
+ * serialized by the owning projection; a {@link StampedLock} keeps scans from
+ * seeing a row half-moved.
+ */
+public final class PackageColumns {
+
+    public static final int STATUS_COUNT = PackageStatus.values().length;
+
+    // Below this many rows a scan task runs sequentially
+    private static final int SCAN_CHUNK_ROWS = 1 << 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap slotById;
+    private long[] ids;
+    private byte[] statuses;
+    private double[] weights;
+    private long[] fragileBits;
+    private int size;
+
+    public PackageColumns(int expectedRows) {
+        int capacity = Math.max(16, expectedRows);
+        slotById = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        statuses = new byte[capacity];
+        weights = new double[capacity];
+        fragileBits = new long[(capacity + 63) >>> 6];
+    }
+
+    /** Inserts or overwrites the row of a package. */
+    public void upsert(long id, PackageStatus status, double weight, boolean fragile) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotById.get(id);
+            if (slot < 0) {
+                ensureCapacity(size + 1);
+                slot = size++;
+                ids[slot] = id;
+                slotById.put(id, slot);
+            }
+            statuses[slot] = (byte) status.ordinal();
+            weights[slot] = weight;
+            setFragile(slot, fragile);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotById.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                statuses[slot] = statuses[last];
+                weights[slot] = weights[last];
+                setFragile(slot, isFragile(last));
+                slotById.put(ids[slot], slot);
+            }
+            setFragile(last, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Approximate heap held by the columns and the id index. */
+    public long heapBytes() {
+        long stamp = lock.readLock();
+        try {
+            long columns = ids.length * (8L + 1 + 8) + fragileBits.length * 8L;
+            long index = slotById.size() * 2L * (8 + 4);
+            return columns + index;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Count and total weight per status of the rows matching the filter, scanned in
+     * parallel on the given pool.
+     */
+    public Totals aggregate(Filter filter, ForkJoinPool pool) {
+        long stamp = lock.readLock();
+        try {
+            return pool.invoke(new ScanTask(this, filter, 0, size));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean isFragile(int slot) {
+        return (fragileBits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void setFragile(int slot, boolean fragile) {
+        if (fragile) {
+            fragileBits[slot >>> 6] |= 1L << slot;
+        } else {
+            fragileBits[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(rows, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        fragileBits = Arrays.copyOf(fragileBits, (capacity + 63) >>> 6);
+    }
+
+    /**
+     * Row filter.
+     *
+     * @param statusMask bit {@code 1 << ordinal} set for every status to include
+     * @param fragile    only fragile ({@code true}), only sturdy ({@code false}) or both ({@code null})
+     */
+    public record Filter(int statusMask, Boolean fragile, double minWeight, double maxWeight) {
+    }
+
+    /** Per-status count and weight, indexed by {@link PackageStatus#ordinal()}. */
+    public record Totals(long[] counts, double[] weights) {
+
+        static Totals empty() {
+            return new Totals(new long[STATUS_COUNT], new double[STATUS_COUNT]);
+        }
+
+        Totals plus(Totals other) {
+            for (int s = 0; s < STATUS_COUNT; s++) {
+                counts[s] += other.counts[s];
+                weights[s] += other.weights[s];
+            }
+            return this;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Totals> {
+        private final PackageColumns columns;
+        private final Filter filter;
+        private final int from;
+        private final int to;
+
+        private ScanTask(PackageColumns columns, Filter filter, int from, int to) {
+            this.columns = columns;
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > SCAN_CHUNK_ROWS) {
+                int mid = (from + to) >>> 1;
+                ScanTask left = new ScanTask(columns, filter, from, mid);
+                left.fork();
+                Totals right = new ScanTask(columns, filter, mid, to).compute();
+                return left.join().plus(right);
+            }
+            return scan();
+        }
+
+        private Totals scan() {
+            byte[] statuses = columns.statuses;
+            double[] weights = columns.weights;
+            long[] fragileBits = columns.fragileBits;
+            int statusMask = filter.statusMask();
+            boolean anyFragility = filter.fragile() == null;
+            boolean wantFragile = !anyFragility && filter.fragile();
+            double min = filter.minWeight();
+            double max = filter.maxWeight();
+
+            long[] counts = new long[STATUS_COUNT];
+            double[] sums = new double[STATUS_COUNT];
+            for (int row = from; row < to; row++) {
+                int status = statuses[row];
+                if ((statusMask >>> status & 1) == 0) {
+                    continue;
+                }
+                if (!anyFragility && ((fragileBits[row >>> 6] & (1L << row)) != 0) != wantFragile) {
+                    continue;
+                }
+                double weight = weights[row];
+                if (weight < min || weight > max) {
+                    continue;
+                }
+                counts[status]++;
+                sums[status] += weight;
+            }
+            return new Totals(counts, sums);
+        }
+    }
+}
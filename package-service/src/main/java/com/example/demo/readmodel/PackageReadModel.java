@@ -0,0 +1,141 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.events.PackageChangeListener;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * In-memory tracking view of all packages with per-status counters; tracking
+ * lookups and status aggregates never go to the {@code packages} table while it
+ * is serving. Rebuilds keyset-scan the table by primary key.
+ */
+@Component
+@ConditionalOnProperty(name = "app.read-model.enabled", havingValue = "true", matchIfMissing = false)
+public class PackageReadModel extends ChangeProjection<PackageReadModel.View> {
+
+    private static final PackageStatus[] STATUSES = PackageStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rebuildBatchSize;
+
+    public PackageReadModel(JdbcTemplate jdbcTemplate,
+                            ObjectProvider<PackageChangeListener> listener,
+                            ObjectProvider<WarmStartSource> warmStartSource,
+                            MeterRegistry registry,
+                            @Value("${app.read-model.max-lag:5s}") Duration maxLag,
+                            @Value("${app.read-model.rebuild-batch-size:10000}") int rebuildBatchSize,
+                            @Value("${app.read-model.max-queued-during-rebuild:100000}") int maxQueuedDuringRebuild) {
+        super("read_model", listener, warmStartSource, registry, maxLag, maxQueuedDuringRebuild);
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildBatchSize = rebuildBatchSize;
+        Gauge.builder("read_model.packages", this, model -> model.view() == null ? 0 : model.view().packages.size())
+                .description("Packages held by the read model")
+                .register(registry);
+    }
+
+    public Optional<TrackedPackage> find(Long packageId) {
+        View current = view();
+        return current == null ? Optional.empty() : Optional.ofNullable(current.packages.get(packageId));
+    }
+
+    public Map<PackageStatus, Long> statusCounts() {
+        Map<PackageStatus, Long> counts = new EnumMap<>(PackageStatus.class);
+        View current = view();
+        for (PackageStatus status : STATUSES) {
+            counts.put(status, current == null ? 0 : current.statusCounts.get(status.ordinal()));
+        }
+        return counts;
+    }
+
+    /** Visits every package of the current view; changes applied meanwhile may or may not be seen. */
+    public void forEach(Consumer<TrackedPackage> action) {
+        View current = view();
+        if (current != null) {
+            current.packages.values().forEach(action);
+        }
+    }
+
+    @Override
+    protected View empty() {
+        return new View();
+    }
+
+    @Override
+    protected View load() {
+        View fresh = empty();
+        long lastId = Long.MIN_VALUE;
+        int loaded;
+        do {
+            List<TrackedPackage> batch = jdbcTemplate.query(
+                    "SELECT package_id, description, weight, fragile, status FROM packages "
+                            + "WHERE package_id > ? ORDER BY package_id LIMIT ?",
+                    (rs, row) -> new TrackedPackage(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getObject(3, Double.class),
+                            rs.getObject(4, Boolean.class),
+                            rs.getString(5) == null ? null : PackageStatus.valueOf(rs.getString(5)),
+                            null),
+                    lastId, rebuildBatchSize);
+            batch.forEach(fresh::put);
+            loaded = batch.size();
+            if (loaded > 0) {
+                lastId = batch.get(loaded - 1).packageId();
+            }
+        } while (loaded == rebuildBatchSize && isRunning());
+        return fresh;
+    }
+
+    @Override
+    protected void apply(View view, PackageChangeEvent event) {
+        if (event.type() == PackageChangeType.DELETED) {
+            view.remove(event.packageId());
+            return;
+        }
+        PackageResponseDTO pkg = event.pkg();
+        if (pkg != null) {
+            view.put(new TrackedPackage(event.packageId(), pkg.description(), pkg.weight(), pkg.fragile(),
+                    pkg.status(), event.changedAt()));
+        }
+    }
+
+    /** Packages by id plus per-status counters. */
+    static final class View {
+        private final Map<Long, TrackedPackage> packages = new ConcurrentHashMap<>();
+        private final AtomicLongArray statusCounts = new AtomicLongArray(STATUSES.length);
+
+        void put(TrackedPackage pkg) {
+            TrackedPackage previous = packages.put(pkg.packageId(), pkg);
+            count(previous, -1);
+            count(pkg, 1);
+        }
+
+        void remove(Long packageId) {
+            count(packages.remove(packageId), -1);
+        }
+
+        private void count(TrackedPackage pkg, int delta) {
+            if (pkg != null && pkg.status() != null) {
+                statusCounts.addAndGet(pkg.status().ordinal(), delta);
+            }
+        }
+    }
+}
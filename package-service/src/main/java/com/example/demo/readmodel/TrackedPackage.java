@@ -0,0 +1,19 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.model.PackageStatus;
+
+import java.time.Instant;
+
+/**
+ * Read-side copy of a package.
+ *
+ * @param lastChangedAt when the last applied change was made; {@code null} for rows loaded by a rebuild
+ */
+public record TrackedPackage(
+        Long packageId,
+        String description,
+        Double weight,
+        Boolean fragile,
+        PackageStatus status,
+        Instant lastChangedAt
+) {}
@@ -0,0 +1,17 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.payload.PackageChangeEvent;
+
+import java.util.function.Consumer;
+
+/** Locally recorded package state a projection can start from instead of scanning the table. */
+public interface WarmStartSource {
+
+    /**
+     * Replays, in order, the changes that bring an empty view up to the current state
+     * of the table.
+     *
+     * @return {@code false} when no usable state is recorded; the caller then loads the table
+     */
+    boolean replay(Consumer<PackageChangeEvent> sink);
+}
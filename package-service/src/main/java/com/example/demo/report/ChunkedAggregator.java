@@ -0,0 +1,72 @@
+package com.example.demo.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates a time range as fork-join tasks: the range is split in halves, on
+ * chunk boundaries, down to single chunks that are read independently, and the
+ * partials are merged on the way back up.
+ * <p>
+ * Chunk reads block on the database, so the pool's parallelism is the number of
+ * concurrent report queries; size it against the connection pool it reads from.
+ */
+public final class ChunkedAggregator {
+
+    /** Reads the totals of {@code [from, to)}; called concurrently from the pool's workers. */
+    @FunctionalInterface
+    public interface ChunkReader {
+        ReportPartial read(Instant from, Instant to);
+    }
+
+    private final ForkJoinPool pool;
+    private final Duration chunk;
+
+    public ChunkedAggregator(ForkJoinPool pool, Duration chunk) {
+        if (chunk.isNegative() || chunk.isZero()) {
+            throw new IllegalArgumentException("chunk must be positive: " + chunk);
+        }
+        this.pool = pool;
+        this.chunk = chunk;
+    }
+
+    public ReportPartial aggregate(Instant from, Instant to, ChunkReader reader) {
+        if (!from.isBefore(to)) {
+            return new ReportPartial();
+        }
+        return pool.invoke(new ChunkTask(reader, from, to));
+    }
+
+    private final class ChunkTask extends RecursiveTask<ReportPartial> {
+        private final ChunkReader reader;
+        private final Instant from;
+        private final Instant to;
+
+        private ChunkTask(ChunkReader reader, Instant from, Instant to) {
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReportPartial compute() {
+            long chunks = chunksIn(Duration.between(from, to));
+            if (chunks <= 1) {
+                return reader.read(from, to);
+            }
+            Instant split = from.plus(chunk.multipliedBy(chunks / 2));
+            ChunkTask left = new ChunkTask(reader, from, split);
+            left.fork();
+            ReportPartial right = new ChunkTask(reader, split, to).compute();
+            return left.join().merge(right);
+        }
+
+        private long chunksIn(Duration range) {
+            long chunkNanos = chunk.toNanos();
+            long rangeNanos = range.toNanos();
+            return (rangeNanos + chunkNanos - 1) / chunkNanos;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.report;
+
+import com.example.demo.model.PackageStatus;
+
+/**
+ * Status history totals over a time range, mergeable with the totals of any other
+ * range: a report over a period is the merge of the partials of its chunks, and a
+ * weekly report the merge of its days.
+ * <p>
+ * Dwell times, the time a package spent in the status it leaves, go into
+ * power-of-two histograms (bucket {@code b} holds [2^b, 2^(b+1)) milliseconds),
+ * so percentiles stay mergeable; they are reported as the upper bound of their
+ * bucket, i.e. at most twice the exact value.
+ * <p>
+ * Not thread-safe. A partial handed to a cache must no longer be modified: merge
+ * it into a fresh instance instead.
+ */
+public final class ReportPartial {
+
+    public static final int BUCKETS = 48;
+
+    private static final int STATUSES = PackageStatus.values().length;
+
+    private long created;
+    private final long[] entered = new long[STATUSES];
+    private final double[] enteredWeight = new double[STATUSES];
+    private final long[] dwellCount = new long[STATUSES];
+    private final long[] dwellSumMs = new long[STATUSES];
+    private final long[] dwellMaxMs = new long[STATUSES];
+    private final long[][] dwellBuckets = new long[STATUSES][BUCKETS];
+
+    /**
+     * Adds {@code count} transitions from {@code from} ({@code null} on creation) to
+     * {@code to}; {@code bucket} is negative when their dwell time is unknown.
+     */
+    public void add(PackageStatus from, PackageStatus to, int bucket, long count, long dwellSumMs, long dwellMaxMs,
+                    double weight) {
+        if (from == null) {
+            created += count;
+        }
+        if (to != null) {
+            entered[to.ordinal()] += count;
+            enteredWeight[to.ordinal()] += weight;
+        }
+        if (from != null && bucket >= 0) {
+            int s = from.ordinal();
+            dwellCount[s] += count;
+            dwellSumMs[s] += dwellSumMs;
+            dwellMaxMs[s] = Math.max(dwellMaxMs[s], dwellMaxMs);
+            dwellBuckets[s][Math.min(bucket, BUCKETS - 1)] += count;
+        }
+    }
+
+    public ReportPartial merge(ReportPartial other) {
+        created += other.created;
+        for (int s = 0; s < STATUSES; s++) {
+            entered[s] += other.entered[s];
+            enteredWeight[s] += other.enteredWeight[s];
+            dwellCount[s] += other.dwellCount[s];
+            dwellSumMs[s] += other.dwellSumMs[s];
+            dwellMaxMs[s] = Math.max(dwellMaxMs[s], other.dwellMaxMs[s]);
+            for (int b = 0; b < BUCKETS; b++) {
+                dwellBuckets[s][b] += other.dwellBuckets[s][b];
+            }
+        }
+        return this;
+    }
+
+    /** Packages created in the range. */
+    public long created() {
+        return created;
+    }
+
+    /** Packages that entered {@code status} in the range. */
+    public long entered(PackageStatus status) {
+        return entered[status.ordinal()];
+    }
+
+    /** Total weight of the packages that entered {@code status} in the range. */
+    public double enteredWeight(PackageStatus status) {
+        return enteredWeight[status.ordinal()];
+    }
+
+    /** Transitions out of {@code status} in the range whose dwell time is known. */
+    public long dwellCount(PackageStatus status) {
+        return dwellCount[status.ordinal()];
+    }
+
+    public long dwellSumMs(PackageStatus status) {
+        return dwellSumMs[status.ordinal()];
+    }
+
+    public long dwellMaxMs(PackageStatus status) {
+        return dwellMaxMs[status.ordinal()];
+    }
+
+    /** Upper bound of the {@code quantile} dwell time in {@code status}, 0 when there is none. */
+    public long dwellPercentileMs(PackageStatus status, double quantile) {
+        int s = status.ordinal();
+        long count = dwellCount[s];
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += dwellBuckets[s][b];
+            if (seen >= rank) {
+                return Math.min(1L << (b + 1), dwellMaxMs[s]);
+            }
+        }
+        return dwellMaxMs[s];
+    }
+
+    /** The histogram bucket of a dwell time; the SQL computing partials buckets the same way. */
+    public static int bucketOf(long dwellMs) {
+        return Math.min(63 - Long.numberOfLeadingZeros(Math.max(dwellMs, 1)), BUCKETS - 1);
+    }
+}
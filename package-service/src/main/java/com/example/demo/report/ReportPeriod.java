@@ -0,0 +1,30 @@
+package com.example.demo.report;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Report periods, made of whole days so that they can be assembled from cached days.
+ */
+public enum ReportPeriod {
+    DAILY,
+    /** ISO week, Monday to Sunday. */
+    WEEKLY;
+
+    /** First day of the period containing {@code date}. */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    /** Day after the last day of the period starting on {@code start}. */
+    public LocalDate end(LocalDate start) {
+        return switch (this) {
+            case DAILY -> start.plusDays(1);
+            case WEEKLY -> start.plusWeeks(1);
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+/** A description checked for duplicates, with its case-folded form as the database computes it. */
+public interface DescriptionMatch {
+    String getDescription();
+
+    String getFolded();
+
+    boolean getTaken();
+}
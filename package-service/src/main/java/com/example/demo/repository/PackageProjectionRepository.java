@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.payload.PackageField;
+import com.example.demo.payload.PackageResponseDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Queries that select only the requested columns; unselected DTO components are null.
+ */
+public interface PackageProjectionRepository {
+
+    Slice<PackageResponseDTO> findProjected(Set<PackageField> fields, Pageable pageable);
+
+    Optional<PackageResponseDTO> findProjectedById(Long id, Set<PackageField> fields);
+}
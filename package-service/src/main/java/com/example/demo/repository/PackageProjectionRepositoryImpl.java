@@ -0,0 +1,94 @@
+package com.example.demo.repository;
+
+import com.example.demo.id.TrackingCode;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageField;
+import com.example.demo.payload.PackageResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class PackageProjectionRepositoryImpl implements PackageProjectionRepository {
+
+    private static final int FIELD_COUNT = PackageField.values().length;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<PackageResponseDTO> findProjected(Set<PackageField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PackageEntity> root = query.from(PackageEntity.class);
+        PackageField[] selected = fields.toArray(PackageField[]::new);
+
+        query.multiselect(selections(root, selected));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        // One extra row tells whether there is a next page
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<PackageResponseDTO> content = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (int i = 0; i < rows.size() && i < pageable.getPageSize(); i++) {
+            content.add(toDto(rows.get(i), selected));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Optional<PackageResponseDTO> findProjectedById(Long id, Set<PackageField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PackageEntity> root = query.from(PackageEntity.class);
+        PackageField[] selected = fields.toArray(PackageField[]::new);
+
+        query.multiselect(selections(root, selected));
+        query.where(cb.equal(root.get(PackageField.PACKAGE_ID.attribute()), id));
+
+        return entityManager.createQuery(query)
+                .getResultStream()
+                .findFirst()
+                .map(tuple -> toDto(tuple, selected));
+    }
+
+    private static List<Selection<?>> selections(Root<PackageEntity> root, PackageField[] selected) {
+        List<Selection<?>> selections = new ArrayList<>(selected.length);
+        for (PackageField field : selected) {
+            selections.add(root.get(field.attribute()));
+        }
+        return selections;
+    }
+
+    private static PackageResponseDTO toDto(Tuple tuple, PackageField[] selected) {
+        Object[] values = new Object[FIELD_COUNT];
+        for (int i = 0; i < selected.length; i++) {
+            values[selected[i].ordinal()] = tuple.get(i);
+        }
+        return new PackageResponseDTO(
+                (Long) values[PackageField.PACKAGE_ID.ordinal()],
+                (String) values[PackageField.DESCRIPTION.ordinal()],
+                (Double) values[PackageField.WEIGHT.ordinal()],
+                (Boolean) values[PackageField.FRAGILE.ordinal()],
+                (PackageStatus) values[PackageField.STATUS.ordinal()],
+                values[PackageField.TRACKING_CODE.ordinal()] instanceof Long code ? TrackingCode.format(code) : null
+        );
+    }
+}
@@ -2,8 +2,55 @@ package com.example.demo.repository;
 
 
 import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.planning.PlannablePackage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface PackageRepository extends JpaRepository<PackageEntity, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PackageRepository extends JpaRepository<PackageEntity, Long>, PackageProjectionRepository {
     boolean existsByDescriptionIgnoreCase(String description);
+
+    // Page content without the COUNT(*) query
+    Slice<PackageEntity> findAllBy(Pageable pageable);
+
+    // Planner statistics; -1 when the table has never been analyzed
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST('packages' AS regclass)",
+            nativeQuery = true)
+    long estimateCount();
+
+    // Load planning input: three columns per package, no entities in the persistence context
+    @Query("SELECT new com.example.demo.planning.PlannablePackage(p.packageId, p.weight, p.fragile) "
+            + "FROM packages p WHERE p.status = :status")
+    List<PlannablePackage> findPlannableByStatus(@Param("status") PackageStatus status);
+
+    // Tracking code lookups, on the unique tracking_code index; only the id, the rest is read by id
+    @Query("SELECT p.packageId FROM packages p WHERE p.trackingCode = :code")
+    Optional<Long> findPackageIdByTrackingCode(@Param("code") long code);
+
+    @Query("SELECT p.status AS status, COUNT(p) AS count FROM packages p GROUP BY p.status")
+    List<StatusCount> countByStatus();
+
+    // Duplicate check of a group-committed create batch, on the upper(description) index. Case is folded
+    // here only, for both sides, so it matches existsByDescriptionIgnoreCase and batch duplicates compare alike
+    @Query(value = "SELECT d.description AS description, UPPER(d.description) AS folded, "
+            + "EXISTS (SELECT 1 FROM packages p WHERE UPPER(p.description) = UPPER(d.description)) AS taken "
+            + "FROM unnest(CAST(:descriptions AS text[])) AS d(description)",
+            nativeQuery = true)
+    List<DescriptionMatch> matchDescriptions(@Param("descriptions") String[] descriptions);
+
+    // Fallback of the active package snapshot; a null weight counts as 0 there too
+    @Query("SELECT p.status AS status, COUNT(p) AS count, COALESCE(SUM(p.weight), 0) AS weight FROM packages p "
+            + "WHERE p.status IN :statuses AND (:fragile IS NULL OR p.fragile = :fragile) "
+            + "AND COALESCE(p.weight, 0) BETWEEN :minWeight AND :maxWeight GROUP BY p.status")
+    List<StatusAggregate> aggregateByStatus(@Param("statuses") Collection<PackageStatus> statuses,
+                                            @Param("fragile") Boolean fragile,
+                                            @Param("minWeight") double minWeight,
+                                            @Param("maxWeight") double maxWeight);
 }
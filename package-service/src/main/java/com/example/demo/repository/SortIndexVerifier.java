@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.payload.PackageSortField;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fails startup when a {@link PackageSortField} has no index on the
+ * {@code packages} table whose leading columns are its sort columns, e.g. after a
+ * migration dropped or reshaped one.
+ */
+@Slf4j
+@Component
+public class SortIndexVerifier implements ApplicationRunner {
+
+    // Key columns of every index on packages, in index order; expression columns come out as NULL
+    private static final String INDEX_COLUMNS = """
+            SELECT array_to_string(ARRAY(
+                       SELECT a.attname FROM unnest(CAST(x.indkey AS int2[])) WITH ORDINALITY AS k(attnum, n)
+                       LEFT JOIN pg_attribute a ON a.attrelid = x.indrelid AND a.attnum = k.attnum
+                       ORDER BY k.n), ',', '?')
+            FROM pg_index x
+            WHERE x.indrelid = CAST('packages' AS regclass) AND x.indisvalid AND x.indpred IS NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SortIndexVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<PackageSortField> missing = unindexedSortFields();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Sortable package fields without a matching index: " + missing
+                    + ". Restore the index or remove the field from PackageSortField");
+        }
+        log.debug("Every sortable package field is backed by an index");
+    }
+
+    /** Sort fields no valid, non-partial index can serve. */
+    public List<PackageSortField> unindexedSortFields() {
+        List<List<String>> indexes = jdbcTemplate.queryForList(INDEX_COLUMNS, String.class).stream()
+                .map(columns -> Arrays.asList(columns.split(",")))
+                .toList();
+        List<PackageSortField> missing = new ArrayList<>();
+        for (PackageSortField field : PackageSortField.values()) {
+            List<String> wanted = field.indexColumns();
+            boolean served = indexes.stream()
+                    .anyMatch(columns -> columns.size() >= wanted.size() && columns.subList(0, wanted.size()).equals(wanted));
+            if (!served) {
+                missing.add(field);
+            }
+        }
+        return missing;
+    }
+}
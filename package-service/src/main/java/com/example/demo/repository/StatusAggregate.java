@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PackageStatus;
+
+/** Row of a per-status count and weight aggregate. */
+public interface StatusAggregate {
+    PackageStatus getStatus();
+
+    long getCount();
+
+    double getWeight();
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PackageStatus;
+
+/** Row of a per-status aggregate. */
+public interface StatusCount {
+    PackageStatus getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.report.ReportPartial;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Reads the {@code package_status_history} table written by the status change
+ * trigger (see the V6 migration). Not a Spring Data repository: report chunks may
+ * legitimately run for seconds, which must not count as slow calls against the
+ * {@link PackageRepository} circuit breaker.
+ */
+@Repository
+public class StatusHistoryRepository {
+
+    // Aggregated in the database: a chunk returns at most statuses^2 * buckets rows, however many transitions it
+    // holds. Adding 0.5 before the logarithm keeps exact powers of two in their own bucket despite rounding.
+    private static final String AGGREGATE = """
+            SELECT from_status, to_status,
+                   CASE WHEN dwell_ms IS NULL THEN -1
+                        ELSE least(floor(ln(greatest(dwell_ms, 1) + 0.5) / ln(2)), ?)::int END AS bucket,
+                   count(*), coalesce(sum(dwell_ms), 0), coalesce(max(dwell_ms), 0), coalesce(sum(weight), 0)
+            FROM package_status_history
+            WHERE changed_at >= ? AND changed_at < ?
+            GROUP BY 1, 2, 3
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatusHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Totals of the status changes in {@code [from, to)}. */
+    public ReportPartial aggregate(Instant from, Instant to) {
+        ReportPartial partial = new ReportPartial();
+        jdbcTemplate.query(AGGREGATE, rs -> {
+            partial.add(status(rs.getString(1)), status(rs.getString(2)), rs.getInt(3),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getDouble(7));
+        }, ReportPartial.BUCKETS - 1, Timestamp.from(from), Timestamp.from(to));
+        return partial;
+    }
+
+    private static PackageStatus status(String value) {
+        return value != null ? PackageStatus.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While CLOSED it records the outcome of the last
+ * {@code windowSize} calls and opens once at least {@code minimumCalls} were recorded
+ * and the failure rate reaches the threshold. OPEN rejects every call until
+ * {@code openDuration} has passed, then HALF_OPEN lets {@code trialCalls} through:
+ * all succeed and it closes with a fresh window, any fails and it opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int trialCalls;
+    private final LongSupplier nanoClock;
+
+    private volatile State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int trialCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, trialCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int trialCalls, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || trialCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker window: size " + windowSize
+                    + ", minimum calls " + minimumCalls + ", trial calls " + trialCalls);
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.trialCalls = trialCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Whether a call may go ahead; every permitted call must be followed by {@link #record(boolean)}. */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsStarted == trialCalls) {
+                    return false;
+                }
+                trialsStarted++;
+            }
+            return true;
+        }
+    }
+
+    public synchronized void record(boolean failed) {
+        switch (state) {
+            case CLOSED -> {
+                if (recorded == window.length && window[next]) {
+                    failures--;
+                }
+                window[next] = failed;
+                next = (next + 1) % window.length;
+                recorded = Math.min(recorded + 1, window.length);
+                if (failed) {
+                    failures++;
+                }
+                if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                if (failed) {
+                    open();
+                } else if (++trialsSucceeded == trialCalls) {
+                    close();
+                }
+            }
+            case OPEN -> {
+                // A call admitted before the breaker opened; its outcome no longer matters
+            }
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /** Time until an OPEN breaker admits trial calls; zero otherwise. */
+    public synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)));
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        state = State.CLOSED;
+    }
+}
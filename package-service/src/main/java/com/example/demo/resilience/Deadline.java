@@ -0,0 +1,61 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+
+/**
+ * Time left for the work the current thread is doing on behalf of a request.
+ * Opened by {@link DeadlineFilter}; JDBC statements run under it get the remaining
+ * time as their query timeout, and repository calls past it fail without running.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Applies a deadline {@code budget} from now on this thread, or keeps the
+     * enclosing one if it is sooner. Closing the scope restores the enclosing one.
+     */
+    public static Scope begin(Duration budget) {
+        Deadline previous = CURRENT.get();
+        long nanos = System.nanoTime() + budget.toNanos();
+        Deadline deadline = previous != null && previous.deadlineNanos - nanos < 0 ? previous : new Deadline(nanos);
+        CURRENT.set(deadline);
+        return new Scope(previous);
+    }
+
+    /** The current thread's deadline, or {@code null} when it has none. */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, Duration.ofNanos(deadlineNanos - System.nanoTime()).toMillis());
+    }
+
+    public boolean expired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
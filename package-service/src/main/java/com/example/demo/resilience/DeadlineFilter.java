@@ -0,0 +1,60 @@
+package com.example.demo.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Runs each request under a {@link Deadline}: the operation's default (reads and
+ * writes have their own), shortened by the caller's {@value #TIMEOUT_HEADER}
+ * header (milliseconds) when it has less time left. Callers cannot extend it.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+
+    public DeadlineFilter(Duration readTimeout, Duration writeTimeout) {
+        this.readTimeout = readTimeout;
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Deadline.Scope scope = Deadline.begin(budget(request))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        String method = request.getMethod();
+        Duration budget = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? readTimeout : writeTimeout;
+        long requested = parseMillis(request.getHeader(TIMEOUT_HEADER));
+        return requested >= 0 && requested < budget.toMillis() ? Duration.ofMillis(requested) : budget;
+    }
+
+    // -1 when absent or not a plain number of milliseconds; the default then applies
+    private static long parseMillis(String header) {
+        if (header == null || header.isEmpty() || header.length() > 9) {
+            return -1;
+        }
+        long millis = 0;
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            millis = millis * 10 + (c - '0');
+        }
+        return millis;
+    }
+}
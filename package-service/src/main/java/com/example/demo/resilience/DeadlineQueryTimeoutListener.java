@@ -0,0 +1,46 @@
+package com.example.demo.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.postgresql.jdbc.PgStatement;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Gives every statement run under a {@link Deadline} the remaining time as its
+ * query timeout, so a stalled query is cancelled when the caller has given up.
+ * Statements outside a deadline keep the driver default (none).
+ */
+@Slf4j
+public class DeadlineQueryTimeoutListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        // Already expired: the shortest timeout still lets the statement fail on its own
+        long millis = Math.max(1, deadline.remainingMillis());
+        Statement statement = execInfo.getStatement();
+        try {
+            if (statement.isWrapperFor(PgStatement.class)) {
+                // The JDBC API only takes whole seconds
+                statement.unwrap(PgStatement.class).setQueryTimeoutMs(millis);
+            } else {
+                statement.setQueryTimeout((int) Math.ceilDiv(millis, 1000));
+            }
+        } catch (SQLException e) {
+            log.debug("Could not apply the request deadline as a query timeout", e);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to undo: statements are not reused across requests
+    }
+}
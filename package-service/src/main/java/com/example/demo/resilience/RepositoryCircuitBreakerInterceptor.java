@@ -0,0 +1,84 @@
+package com.example.demo.resilience;
+
+import com.example.demo.exceptions.DeadlineExceededException;
+import com.example.demo.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.util.ReflectionUtils;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * Guards repository calls with a {@link CircuitBreaker}. A call counts as failed
+ * when the database could not be reached, or when it took longer than the
+ * slow-call threshold whatever its outcome: a stalled database shows up as slow
+ * calls well before it shows up as errors.
+ * <p>
+ * Not failures: business errors (constraint violations, ...), statement timeouts
+ * of short caller deadlines, and a local pool refusing to queue more callers.
+ */
+public class RepositoryCircuitBreakerInterceptor implements MethodInterceptor {
+
+    private static final String QUERY_CANCELED = "57014";
+
+    private final CircuitBreaker breaker;
+    private final long slowCallNanos;
+    private final Counter rejected;
+
+    public RepositoryCircuitBreakerInterceptor(CircuitBreaker breaker, Duration slowCallThreshold, MeterRegistry registry) {
+        this.breaker = breaker;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.rejected = Counter.builder("package.db.circuit.rejected")
+                .description("Repository calls refused because the database circuit breaker was open")
+                .register(registry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ReflectionUtils.isObjectMethod(invocation.getMethod())) {
+            return invocation.proceed();
+        }
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.expired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before the database call");
+        }
+        if (!breaker.tryAcquire()) {
+            rejected.increment();
+            long retryAfter = Math.max(1, breaker.retryAfter().toSeconds());
+            throw new ServiceUnavailableException("The database is unavailable, retry shortly", retryAfter);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = System.nanoTime() - start > slowCallNanos;
+            return result;
+        } catch (Throwable ex) {
+            failed = System.nanoTime() - start > slowCallNanos || isUnreachable(ex);
+            throw ex;
+        } finally {
+            breaker.record(failed);
+        }
+    }
+
+    private static boolean isUnreachable(Throwable ex) {
+        if (!(ex instanceof DataAccessResourceFailureException) && !(ex instanceof TransientDataAccessResourceException)) {
+            return false;
+        }
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        // A pool timing out or refusing without an underlying connection error is local saturation
+        if (cause instanceof SQLTransientConnectionException) {
+            return false;
+        }
+        // Cancelled by its own (deadline) timeout rather than lost
+        return !(cause instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import com.example.demo.payload.PackageCreateStatusDTO;
+import com.example.demo.payload.PackageRequestDTO;
+
+import java.util.UUID;
+
+public interface AsyncCreateService {
+    /**
+     * Validates the request and queues it for the writer; the package is created
+     * later in a group-committed batch.
+     *
+     * @return the ACCEPTED state, with the handle to query
+     */
+    PackageCreateStatusDTO submit(PackageRequestDTO request);
+
+    /** Current state of a create request; kept for a limited time after it completes. */
+    PackageCreateStatusDTO status(UUID handle);
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import com.example.demo.payload.DeliveryReportDTO;
+import com.example.demo.report.ReportPeriod;
+
+import java.time.LocalDate;
+
+public interface DeliveryReportService {
+    /**
+     * Delivery report of the period containing {@code date} (today when {@code null}).
+     * Days closed for longer than the grace period are computed once and cached; only
+     * the open ones are read from the status history on every call.
+     */
+    DeliveryReportDTO report(ReportPeriod period, LocalDate date);
+}
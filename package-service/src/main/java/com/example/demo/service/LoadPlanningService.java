@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+import com.example.demo.payload.LoadPlanRequestDTO;
+import com.example.demo.payload.LoadPlanResponseDTO;
+
+public interface LoadPlanningService {
+    /** Assigns every package in PROCESSING to the given fleet, within the request's time budget. */
+    LoadPlanResponseDTO planProcessingPackages(LoadPlanRequestDTO request);
+}
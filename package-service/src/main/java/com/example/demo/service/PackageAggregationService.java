@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageAggregateDTO;
+
+import java.util.Set;
+
+public interface PackageAggregationService {
+    /**
+     * Count and total weight per status of the active (not delivered) packages matching
+     * the filter, from the in-memory snapshot when it is serving.
+     *
+     * @param statuses  statuses to include; all active statuses when empty
+     * @param fragile   fragile only, sturdy only, or both when {@code null}
+     * @param minWeight inclusive lower bound, none when {@code null}
+     * @param maxWeight inclusive upper bound, none when {@code null}
+     */
+    PackageAggregateDTO aggregate(Set<PackageStatus> statuses, Boolean fragile, Double minWeight, Double maxWeight);
+}
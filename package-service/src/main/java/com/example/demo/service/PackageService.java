@@ -1,15 +1,36 @@
 package com.example.demo.service;
 
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageBatchResponseDTO;
+import com.example.demo.payload.PackageField;
 import com.example.demo.payload.PackageRequestDTO;
 import com.example.demo.payload.PackageResponse;
 import com.example.demo.payload.PackageResponseDTO;
 
+import java.util.List;
+import java.util.Set;
+
 public interface PackageService {
     PackageResponseDTO createPackage(PackageRequestDTO request);
-    PackageResponse getAllPackages(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    default PackageResponse getAllPackages(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return getAllPackages(pageNumber, pageSize, sortBy, sortOrder, CountStrategy.EXACT);
+    }
+
+    default PackageResponse getAllPackages(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                           CountStrategy countStrategy) {
+        return getAllPackages(pageNumber, pageSize, sortBy, sortOrder, countStrategy, Set.of());
+    }
+
+    PackageResponse getAllPackages(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                   CountStrategy countStrategy, Set<PackageField> fields);
 
     PackageResponseDTO getPackageById(Long id);
 
+    PackageResponseDTO getPackageById(Long id, Set<PackageField> fields);
+
+    /** Fetches up to {@code AppConstant.MAX_BATCH_IDS} packages; unknown ids are reported, not thrown. */
+    PackageBatchResponseDTO getPackagesByIds(List<Long> ids);
+
     PackageResponseDTO updatePackage(Long id, PackageRequestDTO pkgDTO);
 
     PackageResponseDTO deletePackage(Long id);
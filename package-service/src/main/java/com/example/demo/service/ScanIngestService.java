@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageResponseDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ScanIngestService {
+    /**
+     * Buffers a status scan for the package. The returned future completes once the
+     * scan has been committed to the database, or fails if its chain is rejected.
+     */
+    CompletableFuture<PackageResponseDTO> submitScan(Long id, PackageStatus status);
+}
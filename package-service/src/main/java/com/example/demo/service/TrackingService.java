@@ -0,0 +1,21 @@
+package com.example.demo.service;
+
+import com.example.demo.payload.PackageTrackingDTO;
+import com.example.demo.payload.TrackingStatsDTO;
+
+public interface TrackingService {
+    /** Current state of a package, from the read model when it is serving. */
+    PackageTrackingDTO trackPackage(Long id);
+
+    /**
+     * Current state of the package printed with {@code code}. The code to package
+     * mapping never changes, so hot codes skip the database entirely.
+     */
+    PackageTrackingDTO trackByCode(String code);
+
+    /** Package counts per status, from the read model when it is serving. */
+    TrackingStatsDTO statusStats();
+
+    /** Rebuilds the read model from the packages table in the background. */
+    void rebuildReadModel();
+}
@@ -0,0 +1,330 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.exceptions.TooManyRequestsException;
+import com.example.demo.mapper.PackageMapper;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.payload.CreateRequestState;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageCreateStatusDTO;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.repository.DescriptionMatch;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.service.AsyncCreateService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepted-then-processed create path for peak intake.
+ * <p>
+ * Requests are validated on the caller's thread and queued; a single writer thread
+ * drains the queue into batches of up to {@code max-batch-size}, lingering up to
+ * {@code linger} for a batch to fill, and inserts each batch in one transaction, so
+ * one commit (and one WAL flush) covers many packages. Duplicate descriptions are
+ * checked per batch with one query. If a batch fails as a whole, its requests are
+ * retried one transaction each so a single bad request cannot fail the others.
+ * <p>
+ * A full queue rejects with {@link TooManyRequestsException}. Request states live
+ * in memory on the accepting instance for {@code retention} after completion;
+ * accepted requests still queued at a crash are lost and never reported CREATED.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.async-create.enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncCreateServiceImpl implements AsyncCreateService {
+
+    private final PackageRepository pkgRepo;
+    private final PackageMapper pkgMapper;
+    private final PackageTotalCounter totalCounter;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Duration retention;
+
+    private final BlockingQueue<PendingCreate> queue;
+    private final ConcurrentMap<UUID, PendingCreate> requests = new ConcurrentHashMap<>();
+    private volatile boolean accepting = true;
+    private Thread writer;
+
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final Timer latency;
+
+    public AsyncCreateServiceImpl(PackageRepository pkgRepo,
+                                  PackageMapper pkgMapper,
+                                  PackageTotalCounter totalCounter,
+                                  TransactionTemplate txTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry registry,
+                                  @Value("${app.async-create.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.async-create.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${app.async-create.linger:2ms}") Duration linger,
+                                  @Value("${app.async-create.retention:60s}") Duration retention) {
+        this.pkgRepo = pkgRepo;
+        this.pkgMapper = pkgMapper;
+        this.totalCounter = totalCounter;
+        this.txTemplate = txTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.retention = retention;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.rejected = Counter.builder("package.create.async.rejected")
+                .description("Async create requests refused because the queue was full")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("package.create.async.batch.size")
+                .description("Create requests per group-committed transaction")
+                .register(registry);
+        this.latency = Timer.builder("package.create.async.latency")
+                .description("Time from accepting a create request to its outcome being committed")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("package.create.async.queue.depth", queue, BlockingQueue::size)
+                .description("Accepted create requests waiting for the writer")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Thread.ofPlatform().daemon().name("async-create-writer").start(this::writeLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting = false;
+        if (writer == null) {
+            return;
+        }
+        // The writer drains what was accepted, then exits
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Async create writer did not drain within 10s; {} accepted requests are lost", queue.size());
+            writer.interrupt();
+        }
+    }
+
+    @Override
+    public PackageCreateStatusDTO submit(PackageRequestDTO request) {
+        PackageServiceImpl.validatePackageRequest(request);
+        if (!accepting) {
+            throw new TooManyRequestsException("Create queue is closed for shutdown, retry later");
+        }
+        PendingCreate pending = new PendingCreate(UUID.randomUUID(), request);
+        requests.put(pending.handle, pending);
+        if (!queue.offer(pending)) {
+            requests.remove(pending.handle);
+            rejected.increment();
+            throw new TooManyRequestsException("Create queue is full, retry later");
+        }
+        return pending.toDto();
+    }
+
+    @Override
+    public PackageCreateStatusDTO status(UUID handle) {
+        PendingCreate pending = requests.get(handle);
+        if (pending == null) {
+            throw new ResourceNotFoundException("Create request not found or expired: " + handle);
+        }
+        return pending.toDto();
+    }
+
+    /** Writes everything queued so far. Normally called by the writer thread. */
+    public void drain() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        long nextPurge = System.nanoTime();
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    fill(batch);
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - nextPurge >= 0) {
+                    purgeExpired();
+                    nextPurge = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected async create writer failure", e);
+                batch.clear();
+            }
+        }
+    }
+
+    /** Adds queued requests to the batch, waiting up to the linger time for it to fill. */
+    private void fill(List<PendingCreate> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<PendingCreate> batch) {
+        Map<PendingCreate, Outcome> outcomes;
+        try {
+            outcomes = txTemplate.execute(status -> insertBatch(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.warn("Group commit of {} creates failed; retrying them one by one", batch.size(), e);
+                batch.forEach(pending -> writeBatch(List.of(pending)));
+            } else {
+                log.warn("Async create {} failed", batch.getFirst().handle, e);
+                batch.getFirst().fail("Could not create the package");
+                latency.record(batch.getFirst().elapsedNanos(), TimeUnit.NANOSECONDS);
+            }
+            return;
+        }
+
+        batchSizes.record(batch.size());
+        outcomes.forEach((pending, outcome) -> {
+            if (outcome.error() != null) {
+                pending.fail(outcome.error());
+            } else {
+                pending.complete(outcome.value());
+            }
+            latency.record(pending.elapsedNanos(), TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private Map<PendingCreate, Outcome> insertBatch(List<PendingCreate> batch) {
+        String[] descriptions = batch.stream().map(pending -> pending.request.description()).distinct()
+                .toArray(String[]::new);
+        Map<String, DescriptionMatch> matches = new HashMap<>(descriptions.length * 2);
+        pkgRepo.matchDescriptions(descriptions).forEach(match -> matches.put(match.getDescription(), match));
+
+        Map<PendingCreate, Outcome> outcomes = new IdentityHashMap<>(batch.size() * 2);
+        Map<PendingCreate, PackageEntity> toInsert = new IdentityHashMap<>(batch.size() * 2);
+        Set<String> claimed = new HashSet<>(descriptions.length * 2);
+        for (PendingCreate pending : batch) {
+            DescriptionMatch match = matches.get(pending.request.description());
+            // Also rejects a second request for the same description within the batch
+            if (match.getTaken() || !claimed.add(match.getFolded())) {
+                outcomes.put(pending, Outcome.failed(
+                        "Package with description '" + pending.request.description() + "' already exists"));
+            } else {
+                toInsert.put(pending, pkgMapper.toEntity(pending.request));
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return outcomes;
+        }
+
+        // Ids come from the time-ordered generator, so the INSERTs are JDBC-batched at commit
+        pkgRepo.saveAll(toInsert.values());
+        toInsert.forEach((pending, entity) -> {
+            PackageResponseDTO created = pkgMapper.toResponseDto(entity);
+            eventPublisher.publishEvent(PackageChangeEvent.of(PackageChangeType.CREATED, entity.getPackageId(), created));
+            outcomes.put(pending, Outcome.succeeded(created));
+        });
+        totalCounter.invalidateAfterCommit();
+        return outcomes;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        requests.values().removeIf(pending -> pending.completedAt != null && pending.completedAt.isBefore(cutoff));
+    }
+
+    private static final class PendingCreate {
+        private final UUID handle;
+        private final PackageRequestDTO request;
+        private final Instant acceptedAt = Instant.now();
+        private final long acceptedNanos = System.nanoTime();
+        // Written by the writer thread; completedAt last, as the publication point
+        private volatile PackageResponseDTO created;
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private PendingCreate(UUID handle, PackageRequestDTO request) {
+            this.handle = handle;
+            this.request = request;
+        }
+
+        void complete(PackageResponseDTO value) {
+            created = value;
+            completedAt = Instant.now();
+        }
+
+        void fail(String message) {
+            error = message;
+            completedAt = Instant.now();
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - acceptedNanos;
+        }
+
+        PackageCreateStatusDTO toDto() {
+            Instant completed = completedAt;
+            if (completed == null) {
+                return new PackageCreateStatusDTO(handle, CreateRequestState.ACCEPTED, null, null, acceptedAt, null);
+            }
+            return created != null
+                    ? new PackageCreateStatusDTO(handle, CreateRequestState.CREATED, created, null, acceptedAt, completed)
+                    : new PackageCreateStatusDTO(handle, CreateRequestState.FAILED, null, error, acceptedAt, completed);
+        }
+    }
+
+    private record Outcome(PackageResponseDTO value, String error) {
+        static Outcome succeeded(PackageResponseDTO value) {
+            return new Outcome(value, null);
+        }
+
+        static Outcome failed(String error) {
+            return new Outcome(null, error);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.events.PackageChangeConsumer;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageBatchResponseDTO;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageField;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponse;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.service.PackageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@link PackageService} in front of {@link PackageServiceImpl} that coalesces
+ * concurrent identical {@code getPackageById} and {@code getAllPackages} calls
+ * into one database call whose result every caller shares.
+ * <p>
+ * Any committed package change starts a new generation, so a read that began
+ * before a write is never shared with a caller arriving after it commits: local
+ * writes bump it after commit, before the write call returns; writes on other
+ * instances when their change notification arrives. Calls made inside a caller's
+ * transaction are not coalesced, as they may see its uncommitted writes.
+ * <p>
+ * Coalesced callers receive the same response instance; it must not be modified.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescingPackageService implements PackageService, PackageChangeConsumer {
+
+    private final PackageServiceImpl delegate;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<Object> flights;
+
+    public CoalescingPackageService(PackageServiceImpl delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        Counter leaders = roleCounter(registry, SingleFlight.Role.LEADER);
+        Counter followers = roleCounter(registry, SingleFlight.Role.FOLLOWER);
+        this.flights = new SingleFlight<>(role -> (role == SingleFlight.Role.LEADER ? leaders : followers).increment());
+        Gauge.builder("single_flight.in_flight", flights, SingleFlight::inFlight)
+                .description("Package reads currently in flight with callers able to join them")
+                .register(registry);
+    }
+
+    @Override
+    public PackageResponse getAllPackages(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                          CountStrategy countStrategy, Set<PackageField> fields) {
+        return coalesce(new PageKey(pageNumber, pageSize, sortBy, sortOrder, countStrategy, fields),
+                () -> delegate.getAllPackages(pageNumber, pageSize, sortBy, sortOrder, countStrategy, fields));
+    }
+
+    @Override
+    public PackageResponseDTO getPackageById(Long id) {
+        return coalesce(new ByIdKey(id, null), () -> delegate.getPackageById(id));
+    }
+
+    @Override
+    public PackageResponseDTO getPackageById(Long id, Set<PackageField> fields) {
+        return coalesce(new ByIdKey(id, fields), () -> delegate.getPackageById(id, fields));
+    }
+
+    @Override
+    public PackageBatchResponseDTO getPackagesByIds(List<Long> ids) {
+        return delegate.getPackagesByIds(ids);
+    }
+
+    @Override
+    public PackageResponseDTO createPackage(PackageRequestDTO request) {
+        return delegate.createPackage(request);
+    }
+
+    @Override
+    public PackageResponseDTO updatePackage(Long id, PackageRequestDTO pkgDTO) {
+        return delegate.updatePackage(id, pkgDTO);
+    }
+
+    @Override
+    public PackageResponseDTO deletePackage(Long id) {
+        return delegate.deletePackage(id);
+    }
+
+    // Published by every local writer; runs before the writing call returns
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterLocalChange(PackageChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void onChange(PackageChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void onGap() {
+        generation.incrementAndGet();
+    }
+
+    private <V> V coalesce(Object key, Supplier<V> call) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return call.get();
+        }
+        return flights.execute(key, generation.get(), call);
+    }
+
+    private static Counter roleCounter(MeterRegistry registry, SingleFlight.Role role) {
+        return Counter.builder("single_flight.calls")
+                .description("Coalescable package reads, by whether they ran the query or shared one in flight")
+                .tag("role", role.name().toLowerCase())
+                .register(registry);
+    }
+
+    private record PageKey(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                           CountStrategy countStrategy, Set<PackageField> fields) {
+    }
+
+    private record ByIdKey(Long id, Set<PackageField> fields) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.DeliveryReportDTO;
+import com.example.demo.report.ChunkedAggregator;
+import com.example.demo.report.ReportPartial;
+import com.example.demo.report.ReportPeriod;
+import com.example.demo.repository.StatusHistoryRepository;
+import com.example.demo.service.DeliveryReportService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery reports assembled from per-day partials. A day is closed once its end
+ * plus the grace period has passed (a transaction stamps its status changes when it
+ * writes them, not when it commits); a closed day is read once, cached, and merged
+ * into every report that covers it, while open days are read on every call.
+ * <p>
+ * Closed days of the recent past are also computed in the background, so that
+ * daily and weekly reports normally only read the current day.
+ */
+@Slf4j
+@Service
+public class DeliveryReportServiceImpl implements DeliveryReportService {
+
+    private static final Duration FIRST_PRECOMPUTE_DELAY = Duration.ofSeconds(30);
+    private static final double MS_PER_SECOND = 1000.0;
+
+    private final StatusHistoryRepository historyRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final ForkJoinPool pool;
+    private final ChunkedAggregator aggregator;
+    private final ZoneId zone;
+    private final Duration closeDelay;
+    private final int cacheDays;
+    private final int precomputeDays;
+    private final Duration precomputeInterval;
+
+    private final ConcurrentSkipListMap<LocalDate, ReportPartial> closedDays = new ConcurrentSkipListMap<>();
+    private final SingleFlight<LocalDate> dayFlights = new SingleFlight<>(role -> { });
+    private final Timer dayReadTime;
+
+    private final ScheduledExecutorService precomputer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "delivery-report-precompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DeliveryReportServiceImpl(StatusHistoryRepository historyRepo,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry registry,
+                                     @Value("${app.reports.parallelism:4}") int parallelism,
+                                     @Value("${app.reports.chunk:1h}") Duration chunk,
+                                     @Value("${app.reports.zone:UTC}") ZoneId zone,
+                                     @Value("${app.reports.close-delay:10m}") Duration closeDelay,
+                                     @Value("${app.reports.cache-days:400}") int cacheDays,
+                                     @Value("${app.reports.precompute-days:8}") int precomputeDays,
+                                     @Value("${app.reports.precompute-interval:15m}") Duration precomputeInterval) {
+        this.historyRepo = historyRepo;
+        // Read-only, so chunk queries go to the read pool
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        // Dedicated pool, as for the load planner: its workers block on chunk queries
+        this.pool = new ForkJoinPool(parallelism);
+        this.aggregator = new ChunkedAggregator(pool, chunk);
+        this.zone = zone;
+        this.closeDelay = closeDelay;
+        this.cacheDays = cacheDays;
+        this.precomputeDays = precomputeDays;
+        this.precomputeInterval = precomputeInterval;
+        this.dayReadTime = Timer.builder("delivery_report.day.read")
+                .description("Time to read one day of status history into a report partial")
+                .register(registry);
+        Gauge.builder("delivery_report.cached_days", closedDays, Map::size)
+                .description("Closed days whose report partial is cached")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (precomputeDays > 0) {
+            precomputer.scheduleWithFixedDelay(this::precomputeQuietly, FIRST_PRECOMPUTE_DELAY.toMillis(),
+                    precomputeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        precomputer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public DeliveryReportDTO report(ReportPeriod period, LocalDate date) {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        LocalDate from = period.start(date != null ? date : LocalDate.now(zone));
+        LocalDate to = period.end(from);
+
+        ReportPartial total = new ReportPartial();
+        boolean complete = true;
+        int cached = 0;
+        int computed = 0;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            if (!startOf(day).isBefore(now)) {
+                complete = false;
+                continue;
+            }
+            if (!isClosed(day, now)) {
+                complete = false;
+                total.merge(read(day, now));
+                computed++;
+                continue;
+            }
+            ReportPartial hit = closedDays.get(day);
+            if (hit != null) {
+                total.merge(hit);
+                cached++;
+            } else {
+                total.merge(closedDay(day));
+                computed++;
+            }
+        }
+        return toDto(period, from, to, complete, total, cached, computed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Cached partial of a closed day, read by a single caller when several ask for it at once. */
+    private ReportPartial closedDay(LocalDate day) {
+        return dayFlights.execute(day, 0, () -> {
+            ReportPartial partial = closedDays.get(day);
+            if (partial == null) {
+                partial = read(day, startOf(day.plusDays(1)));
+                closedDays.put(day, partial);
+                while (closedDays.size() > cacheDays) {
+                    closedDays.pollFirstEntry();
+                }
+            }
+            return partial;
+        });
+    }
+
+    private ReportPartial read(LocalDate day, Instant until) {
+        Instant end = startOf(day.plusDays(1));
+        Instant to = until.isBefore(end) ? until : end;
+        return dayReadTime.record(() -> aggregator.aggregate(startOf(day), to,
+                (chunkFrom, chunkTo) -> readOnlyTx.execute(status -> historyRepo.aggregate(chunkFrom, chunkTo))));
+    }
+
+    private boolean isClosed(LocalDate day, Instant now) {
+        return !now.isBefore(startOf(day.plusDays(1)).plus(closeDelay));
+    }
+
+    // Days are not always 24 hours long in zones with daylight saving time
+    private Instant startOf(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant();
+    }
+
+    private void precomputeQuietly() {
+        try {
+            Instant now = Instant.now();
+            LocalDate today = LocalDate.now(zone);
+            int added = 0;
+            for (int i = 1; i <= precomputeDays; i++) {
+                LocalDate day = today.minusDays(i);
+                if (isClosed(day, now) && !closedDays.containsKey(day)) {
+                    closedDay(day);
+                    added++;
+                }
+            }
+            if (added > 0) {
+                log.info("Precomputed delivery report partials of {} closed day(s)", added);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Delivery report precomputation failed; closed days are read on demand", e);
+        }
+    }
+
+    private static DeliveryReportDTO toDto(ReportPeriod period, LocalDate from, LocalDate to, boolean complete,
+                                           ReportPartial total, int cached, int computed, long elapsedMs) {
+        Map<PackageStatus, DeliveryReportDTO.StatusFlow> entered = new EnumMap<>(PackageStatus.class);
+        Map<PackageStatus, DeliveryReportDTO.DwellTime> dwell = new EnumMap<>(PackageStatus.class);
+        for (PackageStatus status : PackageStatus.values()) {
+            entered.put(status, new DeliveryReportDTO.StatusFlow(total.entered(status), total.enteredWeight(status)));
+            long transitions = total.dwellCount(status);
+            if (transitions > 0) {
+                dwell.put(status, new DeliveryReportDTO.DwellTime(transitions,
+                        total.dwellSumMs(status) / MS_PER_SECOND / transitions,
+                        total.dwellPercentileMs(status, 0.5) / MS_PER_SECOND,
+                        total.dwellPercentileMs(status, 0.95) / MS_PER_SECOND,
+                        total.dwellMaxMs(status) / MS_PER_SECOND));
+            }
+        }
+        return new DeliveryReportDTO(period, from, to, complete, total.created(),
+                total.entered(PackageStatus.DELIVERED), total.enteredWeight(PackageStatus.DELIVERED),
+                entered, dwell, cached, computed, elapsedMs);
+    }
+}
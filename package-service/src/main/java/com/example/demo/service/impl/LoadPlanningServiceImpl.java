@@ -0,0 +1,134 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.LoadPlanRequestDTO;
+import com.example.demo.payload.LoadPlanResponseDTO;
+import com.example.demo.payload.VehicleLoadDTO;
+import com.example.demo.payload.VehicleTypeDTO;
+import com.example.demo.planning.Cargo;
+import com.example.demo.planning.FragilePolicy;
+import com.example.demo.planning.LoadPlan;
+import com.example.demo.planning.LoadPlanner;
+import com.example.demo.planning.Vehicle;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.service.LoadPlanningService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class LoadPlanningServiceImpl implements LoadPlanningService {
+
+    private static final int MAX_VEHICLES = 50_000;
+
+    private final PackageRepository pkgRepo;
+    private final ForkJoinPool pool;
+    private final LoadPlanner planner;
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final int maxAttempts;
+
+    public LoadPlanningServiceImpl(PackageRepository pkgRepo,
+                                   @Value("${app.load-plan.parallelism:0}") int parallelism,
+                                   @Value("${app.load-plan.time-budget:1s}") Duration defaultBudget,
+                                   @Value("${app.load-plan.max-time-budget:10s}") Duration maxBudget,
+                                   @Value("${app.load-plan.max-attempts:256}") int maxAttempts) {
+        this.pkgRepo = pkgRepo;
+        // Dedicated pool: a long plan must not starve the common pool (parallel streams, CompletableFuture)
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.planner = new LoadPlanner(pool);
+        this.defaultBudget = defaultBudget;
+        this.maxBudget = maxBudget;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public LoadPlanResponseDTO planProcessingPackages(LoadPlanRequestDTO request) {
+        long start = System.nanoTime();
+        List<Vehicle> fleet = expandFleet(request.vehicles());
+        Duration budget = request.timeBudgetMs() != null ? Duration.ofMillis(request.timeBudgetMs()) : defaultBudget;
+        if (budget.compareTo(maxBudget) > 0) {
+            budget = maxBudget;
+        }
+        FragilePolicy policy = request.fragilePolicy() != null ? request.fragilePolicy() : FragilePolicy.CAP;
+
+        // Read outside any transaction, so no connection is held while the planner runs
+        Cargo cargo = Cargo.of(pkgRepo.findPlannableByStatus(PackageStatus.PROCESSING));
+        LoadPlan plan = planner.plan(cargo, fleet, policy, budget, maxAttempts);
+        return toResponse(cargo, fleet, plan, System.nanoTime() - start);
+    }
+
+    private static List<Vehicle> expandFleet(List<VehicleTypeDTO> types) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (VehicleTypeDTO type : types) {
+            int quantity = type.quantity() != null ? type.quantity() : 1;
+            int maxFragile = type.maxFragile() != null ? type.maxFragile() : Integer.MAX_VALUE;
+            for (int i = 1; i <= quantity; i++) {
+                fleet.add(new Vehicle(quantity == 1 ? type.type() : type.type() + "-" + i, type.capacityKg(), maxFragile));
+            }
+            if (fleet.size() > MAX_VEHICLES) {
+                throw new APIException("A fleet may have at most " + MAX_VEHICLES + " vehicles");
+            }
+        }
+        return fleet;
+    }
+
+    private static LoadPlanResponseDTO toResponse(Cargo cargo, List<Vehicle> fleet, LoadPlan plan, long elapsedNanos) {
+        int[] vehicleOf = plan.vehicleOf();
+        int[] counts = new int[fleet.size()];
+        for (int vehicle : vehicleOf) {
+            if (vehicle >= 0) {
+                counts[vehicle]++;
+            }
+        }
+        List<List<Long>> packageIds = new ArrayList<>(fleet.size());
+        for (int count : counts) {
+            packageIds.add(count > 0 ? new ArrayList<>(count) : List.of());
+        }
+        double[] load = new double[fleet.size()];
+        int[] fragile = new int[fleet.size()];
+        List<Long> unassigned = new ArrayList<>(plan.unassigned());
+        double totalWeight = 0;
+        for (int item = 0; item < vehicleOf.length; item++) {
+            double weight = cargo.weights()[item];
+            totalWeight += weight;
+            int vehicle = vehicleOf[item];
+            if (vehicle < 0) {
+                unassigned.add(cargo.packageIds()[item]);
+                continue;
+            }
+            packageIds.get(vehicle).add(cargo.packageIds()[item]);
+            load[vehicle] += weight;
+            if (cargo.fragile()[item]) {
+                fragile[vehicle]++;
+            }
+        }
+
+        List<VehicleLoadDTO> loads = new ArrayList<>(plan.vehiclesUsed());
+        for (int v = 0; v < fleet.size(); v++) {
+            if (counts[v] > 0) {
+                Vehicle vehicle = fleet.get(v);
+                loads.add(new VehicleLoadDTO(vehicle.vehicleId(), vehicle.capacityKg(), round(load[v]),
+                        round(load[v] / vehicle.capacityKg()), fragile[v], packageIds.get(v)));
+            }
+        }
+        return new LoadPlanResponseDTO(cargo.size(), cargo.size() - plan.unassigned(), plan.vehiclesUsed(),
+                round(totalWeight), round(plan.usedCapacityKg()), plan.attempts(), plan.budgetExhausted(),
+                elapsedNanos / 1_000_000, loads, unassigned);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
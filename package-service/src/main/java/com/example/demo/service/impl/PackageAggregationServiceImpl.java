@@ -0,0 +1,102 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageAggregateDTO;
+import com.example.demo.readmodel.ActivePackageSnapshot;
+import com.example.demo.readmodel.PackageColumns;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.repository.StatusAggregate;
+import com.example.demo.service.PackageAggregationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class PackageAggregationServiceImpl implements PackageAggregationService {
+
+    static final String SNAPSHOT = "SNAPSHOT";
+    static final String DATABASE = "DATABASE";
+
+    private final ObjectProvider<ActivePackageSnapshot> snapshot;
+    private final PackageRepository pkgRepo;
+    private final Counter fallbacks;
+
+    public PackageAggregationServiceImpl(ObjectProvider<ActivePackageSnapshot> snapshot, PackageRepository pkgRepo,
+                                         MeterRegistry registry) {
+        this.snapshot = snapshot;
+        this.pkgRepo = pkgRepo;
+        this.fallbacks = Counter.builder("package_snapshot.fallbacks")
+                .description("Aggregations answered from the packages table because the snapshot was not serving")
+                .register(registry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PackageAggregateDTO aggregate(Set<PackageStatus> statuses, Boolean fragile,
+                                         Double minWeight, Double maxWeight) {
+        Set<PackageStatus> included = activeStatuses(statuses);
+        double min = minWeight != null ? minWeight : Double.NEGATIVE_INFINITY;
+        double max = maxWeight != null ? maxWeight : Double.POSITIVE_INFINITY;
+        if (min > max) {
+            throw new APIException("minWeight must not be greater than maxWeight");
+        }
+
+        Map<PackageStatus, PackageAggregateDTO.StatusTotals> byStatus = new EnumMap<>(PackageStatus.class);
+        ActivePackageSnapshot current = snapshot.getIfAvailable();
+        if (current != null && current.isServing()) {
+            long staleness = current.stalenessMillis();
+            int mask = 0;
+            for (PackageStatus status : included) {
+                mask |= 1 << status.ordinal();
+            }
+            PackageColumns.Totals totals = current.aggregate(new PackageColumns.Filter(mask, fragile, min, max));
+            for (PackageStatus status : included) {
+                byStatus.put(status, new PackageAggregateDTO.StatusTotals(
+                        totals.counts()[status.ordinal()], totals.weights()[status.ordinal()]));
+            }
+            return result(byStatus, SNAPSHOT, staleness);
+        }
+
+        fallbacks.increment();
+        for (PackageStatus status : included) {
+            byStatus.put(status, new PackageAggregateDTO.StatusTotals(0, 0));
+        }
+        // BETWEEN does not take infinities; package weights are far inside these bounds
+        for (StatusAggregate row : pkgRepo.aggregateByStatus(included, fragile,
+                Math.max(min, -Double.MAX_VALUE), Math.min(max, Double.MAX_VALUE))) {
+            byStatus.put(row.getStatus(), new PackageAggregateDTO.StatusTotals(row.getCount(), row.getWeight()));
+        }
+        return result(byStatus, DATABASE, 0);
+    }
+
+    private static Set<PackageStatus> activeStatuses(Set<PackageStatus> requested) {
+        if (requested == null || requested.isEmpty()) {
+            Set<PackageStatus> active = EnumSet.allOf(PackageStatus.class);
+            active.remove(PackageStatus.DELIVERED);
+            return active;
+        }
+        if (requested.contains(PackageStatus.DELIVERED)) {
+            throw new APIException("Delivered packages are not part of the active package snapshot");
+        }
+        return EnumSet.copyOf(requested);
+    }
+
+    private static PackageAggregateDTO result(Map<PackageStatus, PackageAggregateDTO.StatusTotals> byStatus,
+                                              String source, long staleness) {
+        long count = 0;
+        double weight = 0;
+        for (PackageAggregateDTO.StatusTotals totals : byStatus.values()) {
+            count += totals.count();
+            weight += totals.totalWeight();
+        }
+        return new PackageAggregateDTO(count, weight, byStatus, source, staleness);
+    }
+}
@@ -2,19 +2,28 @@ package com.example.demo.service.impl;
 
 import com.example.demo.config.AppConstant;
 import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ErrorCode;
 import com.example.demo.exceptions.ResourceNotFoundException;
 import com.example.demo.mapper.PackageMapper;
 import com.example.demo.model.PackageEntity;
 import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageBatchResponseDTO;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageField;
 import com.example.demo.payload.PackageRequestDTO;
 import com.example.demo.payload.PackageResponse;
 import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.payload.PackageSortField;
 import com.example.demo.repository.PackageRepository;
 import com.example.demo.service.PackageService;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -25,8 +34,16 @@ import java.util.*;
 @RequiredArgsConstructor
 public class PackageServiceImpl implements PackageService {
 
+    // Stackless and immutable, so the fixed-message rejections are shared rather than built per request
+    private static final APIException WEIGHT_LIMIT_EXCEEDED = new APIException(ErrorCode.WEIGHT_LIMIT_EXCEEDED);
+    private static final APIException INITIAL_STATUS_REQUIRED = new APIException(ErrorCode.INITIAL_STATUS_REQUIRED);
+    static final APIException DELIVERED_NOT_UPDATABLE = new APIException(ErrorCode.DELIVERED_PACKAGE_NOT_UPDATABLE);
+    private static final APIException DELIVERED_NOT_DELETABLE = new APIException(ErrorCode.DELIVERED_PACKAGE_NOT_DELETABLE);
+
     private final PackageRepository pkgRepo;
     private final PackageMapper pkgMapper;
+    private final PackageTotalCounter totalCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -34,52 +51,105 @@ public class PackageServiceImpl implements PackageService {
         validatePackageRequest(request);
 
         if (pkgRepo.existsByDescriptionIgnoreCase(request.description())) {
-            throw new APIException(
+            throw new APIException(ErrorCode.DUPLICATE_DESCRIPTION,
                     "Package with description '" + request.description() + "' already exists"
             );
         }
 
         PackageEntity pkgEntity = pkgMapper.toEntity(request);
         PackageEntity savedEntity = pkgRepo.save(pkgEntity);
-        return pkgMapper.toResponseDto(savedEntity);
+        totalCounter.invalidateAfterCommit();
+        PackageResponseDTO created = pkgMapper.toResponseDto(savedEntity);
+        publishChange(PackageChangeType.CREATED, savedEntity.getPackageId(), created);
+        return created;
     }
 
 
     @Override
     @Transactional(readOnly = true)
     public PackageResponse getAllPackages(Integer pageNumber, Integer pageSize,
-                                          String sortBy, String sortOrder) {
+                                          String sortBy, String sortOrder, CountStrategy countStrategy,
+                                          Set<PackageField> fields) {
         PageRequest pageRequest = new PageRequest(pageNumber, pageSize, sortBy, sortOrder);
         Pageable pageable = createPageable(pageRequest);
-        Page<PackageEntity> pageResult = pkgRepo.findAll(pageable);
-        
-        List<PackageResponseDTO> content = pageResult.getContent().stream()
+        CountStrategy strategy = countStrategy != null ? countStrategy : CountStrategy.EXACT;
+
+        if (PackageField.isPartial(fields)) {
+            // Only the requested columns are selected; the entity is never materialized
+            Slice<PackageResponseDTO> projected = pkgRepo.findProjected(fields, pageable);
+            return buildPackageResponse(projected, projected.getContent(), strategy, totalCounter.count(strategy));
+        }
+
+        if (strategy == CountStrategy.EXACT) {
+            Page<PackageEntity> pageResult = pkgRepo.findAll(pageable);
+            List<PackageResponseDTO> content = pageResult.getContent().stream()
+                    .map(pkgMapper::toResponseDto)
+                    .toList();
+            return buildPackageResponse(pageResult, content);
+        }
+
+        // Fetch one extra row to know whether there is a next page, without COUNT(*)
+        Slice<PackageEntity> sliceResult = pkgRepo.findAllBy(pageable);
+        List<PackageResponseDTO> content = sliceResult.getContent().stream()
                 .map(pkgMapper::toResponseDto)
                 .toList();
-
-        return buildPackageResponse(pageResult, content);
+        return buildPackageResponse(sliceResult, content, strategy, totalCounter.count(strategy));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PackageResponseDTO getPackageById(Long id) {
         PackageEntity pkg = pkgRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Package not found with id: %d", id)
-                ));
+                .orElseThrow(() -> ResourceNotFoundException.forPackage(id));
         return pkgMapper.toResponseDto(pkg);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PackageResponseDTO getPackageById(Long id, Set<PackageField> fields) {
+        if (!PackageField.isPartial(fields)) {
+            return getPackageById(id);
+        }
+        return pkgRepo.findProjectedById(id, fields)
+                .orElseThrow(() -> ResourceNotFoundException.forPackage(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PackageBatchResponseDTO getPackagesByIds(List<Long> ids) {
+        // Request order, without duplicates
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(ids));
+        if (requested.size() > AppConstant.MAX_BATCH_IDS) {
+            throw new APIException("At most " + AppConstant.MAX_BATCH_IDS + " ids can be fetched at once");
+        }
+
+        Map<Long, PackageEntity> found = new HashMap<>(requested.size() * 2);
+        for (int from = 0; from < requested.size(); from += AppConstant.BATCH_CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + AppConstant.BATCH_CHUNK_SIZE, requested.size()));
+            pkgRepo.findAllById(chunk).forEach(pkg -> found.put(pkg.getPackageId(), pkg));
+        }
+
+        List<PackageResponseDTO> packages = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            PackageEntity pkg = found.get(id);
+            if (pkg != null) {
+                packages.add(pkgMapper.toResponseDto(pkg));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PackageBatchResponseDTO(packages, missing);
+    }
+
     @Override
     @Transactional
     public PackageResponseDTO updatePackage(Long id, PackageRequestDTO pkgDTO) {
         PackageEntity existing = pkgRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Package not found with id: %d", id)
-                ));
+                .orElseThrow(() -> ResourceNotFoundException.forPackage(id));
 
         if (existing.getStatus() == PackageStatus.DELIVERED) {
-            throw new APIException("Cannot update a package that has already been delivered");
+            throw DELIVERED_NOT_UPDATABLE;
         }
 
         validateWeight(pkgDTO.weight());
@@ -91,7 +161,9 @@ public class PackageServiceImpl implements PackageService {
         existing.setStatus(pkgDTO.status());
 
         PackageEntity updated = pkgRepo.save(existing);
-        return pkgMapper.toResponseDto(updated);
+        PackageResponseDTO response = pkgMapper.toResponseDto(updated);
+        publishChange(PackageChangeType.UPDATED, id, response);
+        return response;
     }
 
 
@@ -102,37 +174,98 @@ public class PackageServiceImpl implements PackageService {
             PackageStatus.OUT_FOR_DELIVERY, EnumSet.of(PackageStatus.DELIVERED)
     );
 
+    private static final APIException[][] INVALID_TRANSITIONS = buildInvalidTransitions();
+
+    // REACHABLE[from][to]: to is from, or follows it through allowed transitions
+    private static final boolean[][] REACHABLE = buildReachable();
+
+    private static APIException[][] buildInvalidTransitions() {
+        PackageStatus[] statuses = PackageStatus.values();
+        APIException[][] table = new APIException[statuses.length][statuses.length];
+        for (PackageStatus from : statuses) {
+            for (PackageStatus to : statuses) {
+                table[from.ordinal()][to.ordinal()] = new APIException(ErrorCode.INVALID_STATUS_TRANSITION,
+                        "Invalid status transition: from " + from + " to " + to);
+            }
+        }
+        return table;
+    }
+
+    private static boolean[][] buildReachable() {
+        PackageStatus[] statuses = PackageStatus.values();
+        boolean[][] table = new boolean[statuses.length][statuses.length];
+        for (PackageStatus from : statuses) {
+            Deque<PackageStatus> open = new ArrayDeque<>(List.of(from));
+            while (!open.isEmpty()) {
+                PackageStatus status = open.pop();
+                if (!table[from.ordinal()][status.ordinal()]) {
+                    table[from.ordinal()][status.ordinal()] = true;
+                    open.addAll(ALLOWED_TRANSITIONS.getOrDefault(status, Collections.emptySet()));
+                }
+            }
+        }
+        return table;
+    }
+
     @Override
     @Transactional
     public PackageResponseDTO deletePackage(Long id) {
         PackageEntity existing = pkgRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Package not found with id: %d", id)
-                ));
+                .orElseThrow(() -> ResourceNotFoundException.forPackage(id));
 
         if (existing.getStatus() == PackageStatus.DELIVERED) {
-            throw new APIException("Cannot delete a package that has already been delivered");
+            throw DELIVERED_NOT_DELETABLE;
         }
 
         pkgRepo.delete(existing);
-        return pkgMapper.toResponseDto(existing);
+        totalCounter.invalidateAfterCommit();
+        PackageResponseDTO deleted = pkgMapper.toResponseDto(existing);
+        publishChange(PackageChangeType.DELETED, id, deleted);
+        return deleted;
+    }
+
+    // Delivered to other instances and stream subscribers only if the transaction commits
+    private void publishChange(PackageChangeType type, Long id, PackageResponseDTO pkg) {
+        eventPublisher.publishEvent(PackageChangeEvent.of(type, id, pkg));
     }
 
 
     private void validateStatusTransition(PackageStatus current, PackageStatus next) {
-        Set<PackageStatus> allowed = ALLOWED_TRANSITIONS.getOrDefault(current, Collections.emptySet());
-        if (!allowed.contains(next)) {
-            throw new APIException("Invalid status transition: from " + current + " to " + next);
+        if (!isAllowedTransition(current, next)) {
+            throw invalidTransition(current, next);
+        }
+    }
+
+    /** The prebuilt rejection of a transition; each pair's message is built once. */
+    static APIException invalidTransition(PackageStatus current, PackageStatus next) {
+        if (current == null || next == null) {
+            return new APIException(ErrorCode.INVALID_STATUS_TRANSITION,
+                    "Invalid status transition: from " + current + " to " + next);
         }
+        return INVALID_TRANSITIONS[current.ordinal()][next.ordinal()];
+    }
+
+    static boolean isAllowedTransition(PackageStatus current, PackageStatus next) {
+        return ALLOWED_TRANSITIONS.getOrDefault(current, Collections.emptySet()).contains(next);
+    }
+
+    /** Whether a package in {@code current} is in {@code status} or has already moved past it. */
+    static boolean isAtOrAfter(PackageStatus current, PackageStatus status) {
+        return current != null && status != null && REACHABLE[status.ordinal()][current.ordinal()];
     }
 
     private Pageable createPageable(PageRequest request) {
         int page = getValidPage(request.pageNumber());
         int size = getValidSize(request.pageSize());
-        String field = getValidSortField(request.sortBy());
+        PackageSortField field = getValidSortField(request.sortBy());
         Sort.Direction direction = getSortDirection(request.sortOrder());
-        
-        return org.springframework.data.domain.PageRequest.of(page, size, Sort.by(direction, field));
+
+        Sort sort = Sort.by(direction, field.attribute());
+        if (field.hasTiebreak()) {
+            // Same direction as the field, so (field, package_id) is still read from one index
+            sort = sort.and(Sort.by(direction, PackageSortField.PACKAGE_ID.attribute()));
+        }
+        return org.springframework.data.domain.PageRequest.of(page, size, sort);
     }
 
     private int getValidPage(Integer pageNumber) {
@@ -143,8 +276,8 @@ public class PackageServiceImpl implements PackageService {
         return pageSize != null && pageSize > 0 ? pageSize : Integer.parseInt(AppConstant.PAGE_SIZE);
     }
 
-    private String getValidSortField(String sortBy) {
-        return sortBy != null && !sortBy.isBlank() ? sortBy : AppConstant.SORT_PACKAGE_BY;
+    private PackageSortField getValidSortField(String sortBy) {
+        return PackageSortField.fromAttribute(sortBy != null && !sortBy.isBlank() ? sortBy : AppConstant.SORT_PACKAGE_BY);
     }
 
     private Sort.Direction getSortDirection(String sortOrder) {
@@ -167,25 +300,47 @@ public class PackageServiceImpl implements PackageService {
                 pageResult.getSize(),
                 pageResult.getTotalElements(),
                 pageResult.getTotalPages(),
-                pageResult.isLast()
+                pageResult.isLast(),
+                CountStrategy.EXACT,
+                true
+        );
+    }
+
+    private PackageResponse buildPackageResponse(Slice<?> sliceResult, List<PackageResponseDTO> content,
+                                                 CountStrategy strategy, PackageTotalCounter.TotalCount total) {
+        // Never report fewer elements than this slice proves to exist
+        long seen = sliceResult.getPageable().getOffset() + content.size() + (sliceResult.hasNext() ? 1 : 0);
+        long totalElements = Math.max(total.value(), seen);
+        int size = sliceResult.getSize();
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+
+        return new PackageResponse(
+                content,
+                sliceResult.getNumber(),
+                size,
+                totalElements,
+                totalPages,
+                sliceResult.isLast(),
+                strategy,
+                total.exact() && totalElements == total.value()
         );
     }
 
 
-    private void validatePackageRequest(PackageRequestDTO request) {
+    static void validatePackageRequest(PackageRequestDTO request) {
         validateWeight(request.weight());
         validateStatus(request.status());
     }
 
-    private void validateWeight(double weight) {
+    private static void validateWeight(double weight) {
         if (weight > 50.0) {
-            throw new APIException("Weight must not exceed 50.0 kg");
+            throw WEIGHT_LIMIT_EXCEEDED;
         }
     }
 
-    private void validateStatus(PackageStatus status) {
+    private static void validateStatus(PackageStatus status) {
         if (status != PackageStatus.PENDING) {
-            throw new APIException("Status must be an initial state (e.g. PENDING)");
+            throw INITIAL_STATUS_REQUIRED;
         }
     }
 
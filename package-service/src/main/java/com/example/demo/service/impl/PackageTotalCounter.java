@@ -0,0 +1,97 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.repository.PackageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Total package count for paginated listings, according to a {@link CountStrategy}.
+ */
+@Component
+public class PackageTotalCounter {
+
+    private final PackageRepository pkgRepo;
+    private final Duration cacheTtl;
+    private final Clock clock;
+
+    private final AtomicReference<CachedCount> cached = new AtomicReference<>();
+    // Bumped on every invalidation so a count computed before a write is never cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PackageTotalCounter(PackageRepository pkgRepo,
+                               @Value("${app.pagination.count-cache-ttl:30s}") Duration cacheTtl) {
+        this(pkgRepo, cacheTtl, Clock.systemUTC());
+    }
+
+    PackageTotalCounter(PackageRepository pkgRepo, Duration cacheTtl, Clock clock) {
+        this.pkgRepo = pkgRepo;
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
+    }
+
+    public TotalCount count(CountStrategy strategy) {
+        return switch (strategy) {
+            case EXACT -> new TotalCount(pkgRepo.count(), true);
+            case CACHED -> cachedCount();
+            case ESTIMATED -> estimatedCount();
+        };
+    }
+
+    /** Drops the cached count once the current transaction commits (immediately without one). */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached.set(null);
+    }
+
+    private TotalCount cachedCount() {
+        long now = clock.millis();
+        CachedCount current = cached.get();
+        if (current != null && current.expiresAt() > now && current.generation() == generation.get()) {
+            return new TotalCount(current.value(), false);
+        }
+
+        long gen = generation.get();
+        long value = pkgRepo.count();
+        CachedCount fresh = new CachedCount(value, now + cacheTtl.toMillis(), gen);
+        if (generation.get() == gen) {
+            cached.set(fresh);
+        }
+        return new TotalCount(value, true);
+    }
+
+    private TotalCount estimatedCount() {
+        long estimate = pkgRepo.estimateCount();
+        if (estimate < 0) {
+            // No statistics yet (never analyzed): fall back to the exact count
+            return new TotalCount(pkgRepo.count(), true);
+        }
+        return new TotalCount(estimate, false);
+    }
+
+    public record TotalCount(long value, boolean exact) {}
+
+    private record CachedCount(long value, long expiresAt, long generation) {}
+}
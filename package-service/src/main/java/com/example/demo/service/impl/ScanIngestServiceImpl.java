@@ -0,0 +1,286 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.exceptions.TooManyRequestsException;
+import com.example.demo.mapper.PackageMapper;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.service.ScanIngestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingest path for high-frequency scanner updates.
+ * <p>
+ * Scans are buffered per package and flushed in batched transactions when the
+ * buffer reaches {@code max-batch-size} events or every {@code flush-interval}.
+ * Intermediate statuses are collapsed into a single update, but every step of the
+ * chain is still checked against the allowed transitions: consecutive scans on
+ * arrival, and the first scan against the stored status at flush time.
+ * <p>
+ * A scan is acknowledged only after its batch has committed, so nothing
+ * acknowledged can be lost. On a crash, the only scans to replay are the
+ * unacknowledged ones, and there are never more than {@code max-pending-events}
+ * of them. Replay is idempotent: a scan the package has already reached or moved
+ * past in the lifecycle, stored or still buffered, is a no-op and is answered with
+ * the current state, so a client can resend its whole unacknowledged chain.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.scan-ingest.enabled", havingValue = "true")
+public class ScanIngestServiceImpl implements ScanIngestService {
+
+    private final PackageRepository pkgRepo;
+    private final PackageMapper pkgMapper;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final int maxPendingEvents;
+    private final Duration flushInterval;
+
+    private final Object lock = new Object();
+    private Map<Long, PendingScans> pending = new LinkedHashMap<>();
+    private int pendingEvents;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scan-ingest-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter coalescedScans;
+    private final DistributionSummary batchSizes;
+
+    public ScanIngestServiceImpl(PackageRepository pkgRepo,
+                                 PackageMapper pkgMapper,
+                                 TransactionTemplate txTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry registry,
+                                 @Value("${app.scan-ingest.max-batch-size:500}") int maxBatchSize,
+                                 @Value("${app.scan-ingest.max-pending-events:10000}") int maxPendingEvents,
+                                 @Value("${app.scan-ingest.flush-interval:50ms}") Duration flushInterval) {
+        this.pkgRepo = pkgRepo;
+        this.pkgMapper = pkgMapper;
+        this.txTemplate = txTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPendingEvents = maxPendingEvents;
+        this.flushInterval = flushInterval;
+
+        this.coalescedScans = Counter.builder("scan.ingest.coalesced")
+                .description("Scans absorbed into a later status before reaching the database")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("scan.ingest.batch.size")
+                .description("Packages updated per flush transaction")
+                .register(registry);
+        Gauge.builder("scan.ingest.pending", this, ScanIngestServiceImpl::pendingEvents)
+                .description("Scans buffered and not yet committed")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.execute(this::flushQuietly);
+        flusher.shutdown();
+        if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Scan ingest flusher did not finish within 10s; unacknowledged scans will be replayed by clients");
+        }
+    }
+
+    @Override
+    public CompletableFuture<PackageResponseDTO> submitScan(Long id, PackageStatus status) {
+        CompletableFuture<PackageResponseDTO> ack = new CompletableFuture<>();
+        boolean flushNow;
+        synchronized (lock) {
+            if (pendingEvents >= maxPendingEvents) {
+                throw new TooManyRequestsException("Scan buffer is full, retry later");
+            }
+            pending.computeIfAbsent(id, key -> new PendingScans()).append(status, ack);
+            pendingEvents++;
+            flushNow = pendingEvents >= maxBatchSize;
+        }
+        if (flushNow) {
+            flusher.execute(this::flushQuietly);
+        }
+        return ack;
+    }
+
+    /** Commits everything buffered so far. Normally called by the flusher thread. */
+    public void flush() {
+        Map<Long, PendingScans> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            pendingEvents = 0;
+        }
+
+        Iterator<Map.Entry<Long, PendingScans>> entries = batch.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map<Long, PendingScans> chunk = new LinkedHashMap<>();
+            while (entries.hasNext() && chunk.size() < maxBatchSize) {
+                Map.Entry<Long, PendingScans> entry = entries.next();
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            flushChunk(chunk);
+        }
+    }
+
+    private void flushChunk(Map<Long, PendingScans> chunk) {
+        Map<Long, Outcome> outcomes;
+        try {
+            outcomes = txTemplate.execute(status -> applyChunk(chunk));
+        } catch (RuntimeException e) {
+            log.warn("Scan flush of {} packages failed", chunk.size(), e);
+            chunk.values().forEach(scans -> scans.fail(e));
+            return;
+        }
+
+        batchSizes.record(chunk.size());
+        chunk.forEach((id, scans) -> {
+            Outcome outcome = outcomes.get(id);
+            if (outcome.error() != null) {
+                scans.fail(outcome.error());
+            } else {
+                coalescedScans.increment(scans.waiters.size() - 1);
+                scans.complete(outcome.value());
+            }
+        });
+    }
+
+    private Map<Long, Outcome> applyChunk(Map<Long, PendingScans> chunk) {
+        Map<Long, PackageEntity> entities = new HashMap<>(chunk.size() * 2);
+        pkgRepo.findAllById(chunk.keySet()).forEach(entity -> entities.put(entity.getPackageId(), entity));
+
+        Map<Long, Outcome> outcomes = new HashMap<>(chunk.size() * 2);
+        chunk.forEach((id, scans) -> {
+            PackageEntity entity = entities.get(id);
+            if (entity == null) {
+                outcomes.put(id, Outcome.failed(ResourceNotFoundException.forPackage(id)));
+                return;
+            }
+            try {
+                PackageStatus target = resolveChain(entity.getStatus(), scans.chain);
+                boolean changed = target != entity.getStatus();
+                if (changed) {
+                    // Flushed as a batched UPDATE at commit
+                    entity.setStatus(target);
+                }
+                PackageResponseDTO response = pkgMapper.toResponseDto(entity);
+                if (changed) {
+                    eventPublisher.publishEvent(PackageChangeEvent.of(PackageChangeType.UPDATED, id, response));
+                }
+                outcomes.put(id, Outcome.succeeded(response));
+            } catch (APIException e) {
+                outcomes.put(id, Outcome.failed(e));
+            }
+        });
+        return outcomes;
+    }
+
+    /** Walks the buffered chain from the stored status; scans the package already passed are replays. */
+    static PackageStatus resolveChain(PackageStatus stored, List<PackageStatus> chain) {
+        PackageStatus current = stored;
+        for (PackageStatus next : chain) {
+            if (PackageServiceImpl.isAtOrAfter(current, next)) {
+                continue;
+            }
+            if (current == PackageStatus.DELIVERED) {
+                throw PackageServiceImpl.DELIVERED_NOT_UPDATABLE;
+            }
+            if (!PackageServiceImpl.isAllowedTransition(current, next)) {
+                throw PackageServiceImpl.invalidTransition(current, next);
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unexpected scan ingest flush failure", e);
+        }
+    }
+
+    private int pendingEvents() {
+        synchronized (lock) {
+            return pendingEvents;
+        }
+    }
+
+    private static final class PendingScans {
+        private final List<PackageStatus> chain = new ArrayList<>(4);
+        private final List<CompletableFuture<PackageResponseDTO>> waiters = new ArrayList<>(4);
+
+        void append(PackageStatus status, CompletableFuture<PackageResponseDTO> ack) {
+            if (chain.isEmpty()) {
+                chain.add(status);
+            } else {
+                PackageStatus last = chain.get(chain.size() - 1);
+                // A replay of a scan still buffered only waits for the flush
+                if (!PackageServiceImpl.isAtOrAfter(last, status)) {
+                    if (!PackageServiceImpl.isAllowedTransition(last, status)) {
+                        throw PackageServiceImpl.invalidTransition(last, status);
+                    }
+                    chain.add(status);
+                }
+            }
+            waiters.add(ack);
+        }
+
+        void complete(PackageResponseDTO value) {
+            waiters.forEach(waiter -> waiter.complete(value));
+        }
+
+        void fail(Throwable error) {
+            waiters.forEach(waiter -> waiter.completeExceptionally(error));
+        }
+    }
+
+    private record Outcome(PackageResponseDTO value, RuntimeException error) {
+        static Outcome succeeded(PackageResponseDTO value) {
+            return new Outcome(value, null);
+        }
+
+        static Outcome failed(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+    }
+}
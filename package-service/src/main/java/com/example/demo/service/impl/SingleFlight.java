@@ -0,0 +1,96 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.DeadlineExceededException;
+import com.example.demo.resilience.Deadline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Collapses concurrent identical calls into one: the first caller for a key runs
+ * the call, callers arriving while it is in flight wait for and share its result
+ * (or exception). Nothing is kept once the call completes.
+ * <p>
+ * Each flight belongs to a generation, and callers only join a flight of the
+ * current one: bumping the generation when data changes guarantees that a caller
+ * arriving after the change never receives a result read before it.
+ * <p>
+ * Followers wait no longer than their own request {@link Deadline}: a leader
+ * stuck on a slow call does not hold every caller behind it past their budget.
+ *
+ * @param <K> call key; must have value semantics
+ */
+public final class SingleFlight<K> {
+
+    /** Whether a caller ran the call or shared another caller's. */
+    public enum Role { LEADER, FOLLOWER }
+
+    public interface RoleListener {
+        void onCall(Role role);
+    }
+
+    private final ConcurrentMap<FlightKey<K>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final RoleListener listener;
+
+    public SingleFlight(RoleListener listener) {
+        this.listener = listener;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, long generation, Supplier<V> call) {
+        FlightKey<K> flightKey = new FlightKey<>(key, generation);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flightKey, mine);
+        if (inFlight != null) {
+            listener.onCall(Role.FOLLOWER);
+            return (V) await(inFlight);
+        }
+
+        listener.onCall(Role.LEADER);
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, mine);
+        }
+    }
+
+    /** Calls currently in flight. */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        Deadline deadline = Deadline.current();
+        try {
+            return deadline == null ? flight.get() : flight.get(deadline.remainingMillis(), MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded while waiting for a shared call");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared call", e);
+        } catch (ExecutionException e) {
+            // Rethrow the leader's exception as is, so followers see the same error (e.g. not found)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record FlightKey<K>(K key, long generation) {
+    }
+}
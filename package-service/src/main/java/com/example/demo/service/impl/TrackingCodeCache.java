@@ -0,0 +1,37 @@
+package com.example.demo.service.impl;
+
+/**
+ * Fixed-size, direct-mapped cache of tracking code to package id. A tracking code
+ * is never reassigned, so entries need no invalidation: a deleted package is
+ * reported missing by the id lookup that follows.
+ * <p>
+ * Codes are uniformly random, so their low bits pick the slot. A colliding code
+ * simply replaces the entry. Slots hold immutable entries, so unsynchronized
+ * readers see either a complete entry or an older one, never a torn one.
+ */
+public class TrackingCodeCache {
+
+    public static final long MISS = -1;
+
+    private record Entry(long code, long packageId) {}
+
+    private final Entry[] slots;
+    private final int mask;
+
+    /** @param capacity rounded up to a power of two */
+    public TrackingCodeCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /** The package id, or {@link #MISS}. */
+    public long get(long code) {
+        Entry entry = slots[(int) code & mask];
+        return entry != null && entry.code == code ? entry.packageId : MISS;
+    }
+
+    public void put(long code, long packageId) {
+        slots[(int) code & mask] = new Entry(code, packageId);
+    }
+}
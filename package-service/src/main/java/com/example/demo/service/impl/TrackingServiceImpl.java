@@ -0,0 +1,139 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ErrorCode;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.id.TrackingCode;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageTrackingDTO;
+import com.example.demo.payload.TrackingStatsDTO;
+import com.example.demo.readmodel.PackageReadModel;
+import com.example.demo.readmodel.TrackedPackage;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.repository.StatusCount;
+import com.example.demo.service.TrackingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class TrackingServiceImpl implements TrackingService {
+
+    static final String READ_MODEL = "READ_MODEL";
+    static final String DATABASE = "DATABASE";
+
+    private final ObjectProvider<PackageReadModel> readModel;
+    private final PackageRepository pkgRepo;
+    private final Counter lookupFallbacks;
+    private final Counter statsFallbacks;
+    private final TrackingCodeCache codeCache;
+    private final Counter codeHits;
+    private final Counter codeMisses;
+
+    public TrackingServiceImpl(ObjectProvider<PackageReadModel> readModel, PackageRepository pkgRepo,
+                               MeterRegistry registry,
+                               @Value("${app.tracking-code.cache-size:65536}") int codeCacheSize) {
+        this.readModel = readModel;
+        this.pkgRepo = pkgRepo;
+        this.lookupFallbacks = fallbackCounter(registry, "lookup");
+        this.statsFallbacks = fallbackCounter(registry, "stats");
+        this.codeCache = new TrackingCodeCache(codeCacheSize);
+        this.codeHits = codeCacheCounter(registry, "hit");
+        this.codeMisses = codeCacheCounter(registry, "miss");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PackageTrackingDTO trackPackage(Long id) {
+        PackageReadModel model = readModel.getIfAvailable();
+        if (model != null && model.isServing()) {
+            TrackedPackage pkg = model.find(id).orElseThrow(() -> notFound(id));
+            return new PackageTrackingDTO(pkg.packageId(), pkg.description(), pkg.status(), pkg.weight(),
+                    pkg.fragile(), pkg.lastChangedAt(), READ_MODEL);
+        }
+        lookupFallbacks.increment();
+        PackageEntity pkg = pkgRepo.findById(id).orElseThrow(() -> notFound(id));
+        return new PackageTrackingDTO(pkg.getPackageId(), pkg.getDescription(), pkg.getStatus(), pkg.getWeight(),
+                pkg.getFragile(), null, DATABASE);
+    }
+
+    // No transaction of its own: a hot code served by the read model needs no EntityManager
+    @Override
+    public PackageTrackingDTO trackByCode(String code) {
+        long value = TrackingCode.parse(code);
+        if (value == TrackingCode.INVALID) {
+            throw new APIException(ErrorCode.INVALID_TRACKING_CODE, "Invalid tracking code: '" + code + "'");
+        }
+        long packageId = codeCache.get(value);
+        if (packageId == TrackingCodeCache.MISS) {
+            codeMisses.increment();
+            packageId = pkgRepo.findPackageIdByTrackingCode(value)
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PACKAGE_NOT_FOUND,
+                            "Package not found with tracking code: " + code));
+            codeCache.put(value, packageId);
+        } else {
+            codeHits.increment();
+        }
+        return trackPackage(packageId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TrackingStatsDTO statusStats() {
+        PackageReadModel model = readModel.getIfAvailable();
+        if (model != null && model.isServing()) {
+            long staleness = model.stalenessMillis();
+            Map<PackageStatus, Long> counts = model.statusCounts();
+            return new TrackingStatsDTO(sum(counts), counts, READ_MODEL, staleness);
+        }
+        statsFallbacks.increment();
+        Map<PackageStatus, Long> counts = new EnumMap<>(PackageStatus.class);
+        for (PackageStatus status : PackageStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (StatusCount row : pkgRepo.countByStatus()) {
+            if (row.getStatus() != null) {
+                counts.put(row.getStatus(), row.getCount());
+            }
+        }
+        return new TrackingStatsDTO(sum(counts), counts, DATABASE, 0);
+    }
+
+    @Override
+    public void rebuildReadModel() {
+        PackageReadModel model = readModel.getIfAvailable();
+        if (model == null) {
+            throw new APIException("The tracking read model is disabled (app.read-model.enabled=false)");
+        }
+        model.requestRebuild();
+    }
+
+    private static long sum(Map<PackageStatus, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return ResourceNotFoundException.forPackage(id);
+    }
+
+    private static Counter codeCacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("tracking_code.cache")
+                .description("Tracking code lookups by whether the code to package id mapping was cached")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry registry, String query) {
+        return Counter.builder("read_model.fallbacks")
+                .description("Tracking queries answered from the packages table because the read model was not serving")
+                .tag("query", query)
+                .register(registry);
+    }
+}
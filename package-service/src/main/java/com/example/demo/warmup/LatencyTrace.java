@@ -0,0 +1,60 @@
+package com.example.demo.warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latencies of one warm-up scenario in call order, summarized as consecutive
+ * windows so the report shows how they fell as the JIT compiled the path.
+ * Single-threaded.
+ */
+final class LatencyTrace {
+
+    private final String name;
+    private long[] nanos;
+    private int calls;
+    private int errors;
+
+    LatencyTrace(String name, int expectedCalls) {
+        this.name = name;
+        this.nanos = new long[Math.max(expectedCalls, 16)];
+    }
+
+    void record(long elapsedNanos, boolean error) {
+        if (calls == nanos.length) {
+            nanos = Arrays.copyOf(nanos, calls * 2);
+        }
+        nanos[calls++] = elapsedNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    WarmupReport.Scenario summarize(int windowCount) {
+        return new WarmupReport.Scenario(name, calls, errors, windows(windowCount));
+    }
+
+    List<WarmupReport.Window> windows(int windowCount) {
+        int count = Math.min(windowCount, calls);
+        List<WarmupReport.Window> windows = new ArrayList<>(count);
+        for (int w = 0; w < count; w++) {
+            int from = (int) ((long) calls * w / count);
+            int to = (int) ((long) calls * (w + 1) / count);
+            long[] slice = Arrays.copyOfRange(nanos, from, to);
+            Arrays.sort(slice);
+            windows.add(new WarmupReport.Window(from, to, millis(percentile(slice, 0.5)),
+                    millis(percentile(slice, 0.99)), millis(slice[slice.length - 1])));
+        }
+        return windows;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
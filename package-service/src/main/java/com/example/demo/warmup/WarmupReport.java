@@ -0,0 +1,22 @@
+package com.example.demo.warmup;
+
+import java.util.List;
+
+/**
+ * Outcome of the warm-up phase, as shown under {@code warmup} in {@code /actuator/info}.
+ *
+ * @param durationMs      time from the first synthetic call until the instance could report ready
+ * @param rounds          rounds completed; each round calls every scenario once
+ * @param budgetExhausted true when {@code max-duration} ended the phase before all rounds ran
+ */
+public record WarmupReport(long durationMs, int rounds, boolean budgetExhausted, List<Scenario> scenarios) {
+
+    /**
+     * @param errors  calls that failed unexpectedly: exceptions and 5xx; expected 4xx are not errors
+     * @param windows latency over consecutive slices of the calls, first to last
+     */
+    public record Scenario(String name, int calls, int errors, List<Window> windows) {}
+
+    /** Latency of calls {@code [fromCall, toCall)}. */
+    public record Window(int fromCall, int toCall, double p50Ms, double p99Ms, double maxMs) {}
+}
@@ -0,0 +1,318 @@
+package com.example.demo.warmup;
+
+import com.example.demo.id.TrackingCode;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponse;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.readmodel.ActivePackageSnapshot;
+import com.example.demo.service.PackageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs synthetic traffic through every package endpoint before the instance reports
+ * ready, so that the first real requests do not pay for interpretation and JIT
+ * compilation of the MVC, Jackson, validation, MapStruct and Hibernate paths.
+ * <p>
+ * Spring Boot moves readiness to {@code ACCEPTING_TRAFFIC} only once the
+ * application runners have returned, so the readiness probe fails until the
+ * warm-up ends (after {@code rounds} rounds or {@code max-duration}, whichever
+ * comes first). It never fails startup: errors are counted and reported.
+ * <p>
+ * Nothing it does is visible to clients. Reads and rejected creates go over HTTP
+ * to the embedded server; creates, updates and deletes run in-process in a
+ * transaction that is always rolled back after flushing each write, so the SQL
+ * and triggers run but no row, change event or notification survives. Requests
+ * carry the {@link #USER_AGENT} user agent and stay out of the access log and
+ * the HTTP server metrics. Listings ask for an estimated count, and aggregates
+ * are only sent once the active package snapshot serves them, so the warm-up
+ * does not scan the table. Without an embedded web server (e.g. mock-environment
+ * tests) it is skipped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner, InfoContributor {
+
+    public static final String USER_AGENT = "package-service-warmup";
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final String[] SORT_FIELDS = {"packageId", "description", "status"};
+    private static final int SAMPLE_SIZE = 50;
+    // Planner estimate: a default EXACT count would run COUNT(*) on every listing call
+    private static final String COUNT_STRATEGY = "countStrategy=ESTIMATED";
+    private static final int SKIPPED = -1;
+
+    private final ApplicationContext context;
+    private final PackageService packageService;
+    private final ObjectProvider<ActivePackageSnapshot> snapshot;
+    private final TransactionTemplate rolledBackTx;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Timer duration;
+    private final String apiPrefix;
+    private final int rounds;
+    private final Duration maxDuration;
+    private final int windows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile WarmupReport report;
+
+    public WarmupRunner(ApplicationContext context,
+                        PackageService packageService,
+                        ObjectProvider<ActivePackageSnapshot> snapshot,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        MeterRegistry registry,
+                        @Value("${api.prefix}") String apiPrefix,
+                        @Value("${app.warmup.rounds:1000}") int rounds,
+                        @Value("${app.warmup.max-duration:60s}") Duration maxDuration,
+                        @Value("${app.warmup.windows:10}") int windows) {
+        this.context = context;
+        this.packageService = packageService;
+        this.snapshot = snapshot;
+        this.rolledBackTx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.duration = Timer.builder("warmup.duration")
+                .description("Time spent warming up before reporting ready")
+                .register(registry);
+        this.apiPrefix = apiPrefix;
+        this.rounds = rounds;
+        this.maxDuration = maxDuration;
+        this.windows = windows;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            log.info("JIT warm-up skipped: no embedded web server");
+            return;
+        }
+        try {
+            report = warmUp(web.getWebServer().getPort());
+            duration.record(report.durationMs(), TimeUnit.MILLISECONDS);
+            log(report);
+        } catch (RuntimeException e) {
+            log.warn("JIT warm-up aborted; reporting ready without it", e);
+        }
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        WarmupReport current = report;
+        builder.withDetail("warmup", current != null ? current : Map.of("status", "not run"));
+    }
+
+    private WarmupReport warmUp(int port) {
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + port + apiPrefix)
+                .defaultHeader(HttpHeaders.USER_AGENT, USER_AGENT)
+                .build();
+        Sample sample = sample(client);
+        List<Scenario> scenarios = scenarios(client, sample);
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int completed = 0;
+        boolean exhausted = false;
+        while (completed < rounds) {
+            if (System.nanoTime() >= deadline) {
+                exhausted = true;
+                break;
+            }
+            for (Scenario scenario : scenarios) {
+                scenario.run(completed);
+            }
+            completed++;
+        }
+
+        List<WarmupReport.Scenario> summaries = new ArrayList<>(scenarios.size());
+        for (Scenario scenario : scenarios) {
+            summaries.add(scenario.trace.summarize(windows));
+        }
+        return new WarmupReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), completed, exhausted,
+                summaries);
+    }
+
+    private List<Scenario> scenarios(RestClient client, Sample sample) {
+        List<Scenario> scenarios = new ArrayList<>();
+        // Alternating JSON and CBOR warms both converters; CBOR gets 406 when binary content is disabled
+        scenarios.add(scenario("GET /packages/all", round -> get(client, "/packages/all?" + COUNT_STRATEGY + "&pageSize=20&sortBy="
+                + SORT_FIELDS[round % SORT_FIELDS.length] + (round % 4 == 3 ? "&fields=packageId,status" : ""),
+                round % 2 == 0 ? MediaType.APPLICATION_JSON : CBOR)));
+        scenarios.add(scenario("GET /packages/{id}", round -> get(client, "/packages/" + sample.id(round)
+                + (round % 4 == 3 ? "?fields=packageId,status" : ""),
+                round % 2 == 0 ? MediaType.APPLICATION_JSON : CBOR)));
+        scenarios.add(scenario("GET /packages/track/{code}", round -> get(client,
+                "/packages/track/" + sample.code(round), MediaType.APPLICATION_JSON)));
+        scenarios.add(scenario("GET /tracking/{id}", round -> get(client, "/tracking/" + sample.id(round),
+                MediaType.APPLICATION_JSON)));
+        scenarios.add(scenario("GET /packages/aggregate", round -> aggregate(client, round)));
+        scenarios.add(scenario("POST /packages/create (rejected)", round -> rejectedCreate(client, round)));
+        scenarios.add(scenario("create, update, delete (rolled back)", this::rolledBackWrites));
+        return scenarios;
+    }
+
+    private Scenario scenario(String name, Call call) {
+        return new Scenario(new LatencyTrace(name, rounds), call);
+    }
+
+    private static int get(RestClient client, String uri, MediaType accept) {
+        return client.get().uri(uri).accept(accept).exchange((request, response) -> {
+            response.getBody().readAllBytes();
+            return response.getStatusCode().value();
+        });
+    }
+
+    // Only once the snapshot serves: until then every call is a GROUP BY over the table
+    private int aggregate(RestClient client, int round) {
+        ActivePackageSnapshot current = snapshot.getIfAvailable();
+        if (current == null || !current.isServing()) {
+            return SKIPPED;
+        }
+        return get(client, "/packages/aggregate" + (round % 2 == 0 ? "" : "?fragile=true&maxWeight=25"),
+                MediaType.APPLICATION_JSON);
+    }
+
+    // Fails validation or the weight check before any database access
+    private int rejectedCreate(RestClient client, int round) throws IOException {
+        PackageRequestDTO invalid = round % 2 == 0
+                ? new PackageRequestDTO("ab", 12.5, false, PackageStatus.PENDING)
+                : new PackageRequestDTO("Warm-up overweight package", 60.0, false, PackageStatus.PENDING);
+        int status = client.post().uri("/packages/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(invalid))
+                .exchange((request, response) -> {
+                    response.getBody().readAllBytes();
+                    return response.getStatusCode().value();
+                });
+        return status == 400 ? 200 : 500;
+    }
+
+    // The request goes through the same JSON and validation steps as over HTTP. Each write is flushed:
+    // with application-assigned ids nothing would reach the database before the rollback otherwise
+    private int rolledBackWrites(int round) throws IOException {
+        String description = "Warm-up package " + round + "-" + System.nanoTime();
+        PackageRequestDTO request = objectMapper.readValue(objectMapper.writeValueAsBytes(
+                new PackageRequestDTO(description, 12.5, round % 2 == 0, PackageStatus.PENDING)), PackageRequestDTO.class);
+        if (!validator.validate(request).isEmpty()) {
+            return 500;
+        }
+        PackageResponseDTO created = rolledBackTx.execute(status -> {
+            status.setRollbackOnly();
+            PackageResponseDTO pkg = packageService.createPackage(request);
+            entityManager.flush();
+            packageService.getPackageById(pkg.packageId());
+            packageService.updatePackage(pkg.packageId(),
+                    new PackageRequestDTO(description, 13.0, request.fragile(), PackageStatus.PROCESSING));
+            entityManager.flush();
+            PackageResponseDTO deleted = packageService.deletePackage(pkg.packageId());
+            entityManager.flush();
+            return deleted;
+        });
+        objectMapper.writeValueAsBytes(created);
+        return 200;
+    }
+
+    // Existing packages make reads take the found path; on an empty table they take the not-found one
+    private Sample sample(RestClient client) {
+        try {
+            byte[] body = client.get().uri("/packages/all?" + COUNT_STRATEGY + "&pageSize=" + SAMPLE_SIZE)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange((request, response) -> response.getStatusCode().is2xxSuccessful()
+                            ? response.getBody().readAllBytes() : new byte[0]);
+            if (body.length > 0) {
+                List<PackageResponseDTO> content = objectMapper.readValue(body, PackageResponse.class).getContent();
+                if (content != null && !content.isEmpty()) {
+                    return new Sample(
+                            content.stream().map(PackageResponseDTO::packageId).toArray(Long[]::new),
+                            content.stream().map(PackageResponseDTO::trackingCode).toArray(String[]::new));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not sample packages for the warm-up; using unknown ids", e);
+        }
+        return new Sample(new Long[]{Long.MAX_VALUE}, new String[]{TrackingCode.format(TrackingCode.random())});
+    }
+
+    private void log(WarmupReport report) {
+        log.info("JIT warm-up finished in {} ms: {} rounds{}", report.durationMs(), report.rounds(),
+                report.budgetExhausted() ? " (max-duration reached)" : "");
+        for (WarmupReport.Scenario scenario : report.scenarios()) {
+            List<WarmupReport.Window> windows = scenario.windows();
+            if (windows.isEmpty()) {
+                continue;
+            }
+            WarmupReport.Window first = windows.get(0);
+            WarmupReport.Window last = windows.get(windows.size() - 1);
+            log.info("  {}: {} calls, {} errors, p99 {} ms over the first {} calls -> {} ms over the last {}",
+                    scenario.name(), scenario.calls(), scenario.errors(), first.p99Ms(),
+                    first.toCall() - first.fromCall(), last.p99Ms(), last.toCall() - last.fromCall());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        /** Runs one call and returns its HTTP status, or {@link #SKIPPED}; 5xx counts as an error. */
+        int run(int round) throws IOException;
+    }
+
+    private record Scenario(LatencyTrace trace, Call call) {
+        void run(int round) {
+            long start = System.nanoTime();
+            boolean error;
+            try {
+                int status = call.run(round);
+                if (status == SKIPPED) {
+                    return;
+                }
+                error = status >= 500;
+            } catch (IOException | RuntimeException e) {
+                error = true;
+            }
+            trace.record(System.nanoTime() - start, error);
+        }
+    }
+
+    private record Sample(Long[] ids, String[] codes) {
+        long id(int round) {
+            return ids[round % ids.length];
+        }
+
+        String code(int round) {
+            return codes[round % codes.length];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Baseline schema for PackageEntity.
+-- IF NOT EXISTS keeps this safe on databases that were previously created by ddl-auto=update.
+CREATE TABLE IF NOT EXISTS packages (
+    package_id  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description VARCHAR(255),
+    weight      DOUBLE PRECISION,
+    fragile     BOOLEAN,
+    status      VARCHAR(255)
+        CHECK (status IN ('PENDING', 'PROCESSING', 'IN_TRANSIT', 'OUT_FOR_DELIVERY',
+                          'DELIVERED', 'FAILED_DELIVERY', 'RETURNED'))
+);
@@ -0,0 +1,10 @@
+-- Indexes backing the PackageRepository query paths.
+
+-- existsByDescriptionIgnoreCase: Spring Data compares upper(description) = upper(?)
+CREATE INDEX IF NOT EXISTS idx_packages_description_upper ON packages (upper(description));
+
+-- getAllPackages sorted by description
+CREATE INDEX IF NOT EXISTS idx_packages_description ON packages (description);
+
+-- status filters and status aggregates
+CREATE INDEX IF NOT EXISTS idx_packages_status ON packages (status);
@@ -0,0 +1,50 @@
+-- Change tracking for catching up in-memory state restored from the local package journal.
+
+-- Last write time of every row. No default on ADD COLUMN, so existing rows are not rewritten;
+-- they stay NULL, which only means "unchanged since before this migration".
+ALTER TABLE packages ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ;
+ALTER TABLE packages ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+
+CREATE OR REPLACE FUNCTION packages_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS packages_touch_updated_at ON packages;
+CREATE TRIGGER packages_touch_updated_at
+    BEFORE UPDATE ON packages
+    FOR EACH ROW EXECUTE FUNCTION packages_touch_updated_at();
+
+CREATE INDEX IF NOT EXISTS idx_packages_updated_at ON packages (updated_at);
+
+-- Deleted package ids, kept for the catch-up window and pruned by the journal
+CREATE TABLE IF NOT EXISTS package_tombstones (
+    package_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_package_tombstones_deleted_at ON package_tombstones (deleted_at);
+
+CREATE OR REPLACE FUNCTION packages_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO package_tombstones (package_id) VALUES (OLD.package_id)
+    ON CONFLICT (package_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS packages_record_tombstone ON packages;
+CREATE TRIGGER packages_record_tombstone
+    AFTER DELETE ON packages
+    FOR EACH ROW EXECUTE FUNCTION packages_record_tombstone();
+
+-- Identity of this database, so journal state recorded against another one is never replayed
+CREATE TABLE IF NOT EXISTS database_identity (
+    id UUID PRIMARY KEY
+);
+
+INSERT INTO database_identity (id)
+SELECT gen_random_uuid()
+WHERE NOT EXISTS (SELECT 1 FROM database_identity);
@@ -0,0 +1,17 @@
+-- Indexes backing every sortable field of getAllPackages (see PackageSortField).
+-- Non-unique sort keys get package_id as a tiebreak, so ORDER BY <field>, package_id
+-- is read from the index in order, in either direction, and pages are stable.
+--
+-- Built CONCURRENTLY so writes to packages go on during the build; this cannot run in a
+-- transaction (see V4__add_sort_indexes.sql.conf). A failed concurrent build leaves an
+-- INVALID index behind, so each one is dropped first and a rerun starts clean.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_packages_description_id;
+CREATE INDEX CONCURRENTLY idx_packages_description_id ON packages (description, package_id);
+-- Superseded: same leading column
+DROP INDEX CONCURRENTLY IF EXISTS idx_packages_description;
+
+-- Also serves the status filters and status aggregates through its leading column
+DROP INDEX CONCURRENTLY IF EXISTS idx_packages_status_id;
+CREATE INDEX CONCURRENTLY idx_packages_status_id ON packages (status, package_id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_packages_status;
@@ -0,0 +1,73 @@
+-- Printed tracking codes (see TrackingCode): 55 random bits, shown as 12 Crockford base32 characters.
+-- The application assigns them on insert; the default covers rows written by anything else.
+--
+-- Runs outside a transaction (see V5__add_tracking_codes.sql.conf) so the backfill commits in
+-- batches and no step holds a lock on packages for longer than a batch or a metadata change.
+-- Every step can be rerun after a failure.
+
+ALTER TABLE packages ADD COLUMN IF NOT EXISTS tracking_code BIGINT;
+
+-- 56 random bits of a v4 UUID (past its version and variant nibbles), shifted down to 55
+CREATE OR REPLACE FUNCTION random_tracking_code() RETURNS BIGINT AS $$
+    SELECT (('x' || substr(replace(gen_random_uuid()::text, '-', ''), 19, 14))::bit(56)::bigint) >> 1
+$$ LANGUAGE sql VOLATILE;
+
+-- Rows inserted from here on get a code, so the backfill only has to cover the existing ones
+ALTER TABLE packages ALTER COLUMN tracking_code SET DEFAULT random_tracking_code();
+
+-- A backfill is not a change to the package: transactions that set app.preserve_updated_at keep
+-- updated_at, so the journal catch-up (V3) does not replay every backfilled row
+CREATE OR REPLACE FUNCTION packages_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('app.preserve_updated_at', true) = 'on' THEN
+        RETURN NEW;
+    END IF;
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Backfill in primary key batches of 10000, one transaction each
+DO $$
+DECLARE
+    last_id BIGINT := -9223372036854775808;
+    batch_end BIGINT;
+BEGIN
+    LOOP
+        SELECT max(package_id) INTO batch_end
+        FROM (SELECT package_id FROM packages WHERE package_id > last_id ORDER BY package_id LIMIT 10000) batch;
+        EXIT WHEN batch_end IS NULL;
+        PERFORM set_config('app.preserve_updated_at', 'on', true);
+        UPDATE packages SET tracking_code = random_tracking_code()
+        WHERE package_id > last_id AND package_id <= batch_end AND tracking_code IS NULL;
+        last_id := batch_end;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Redraw the (rare) duplicates before the unique index goes on
+DO $$
+BEGIN
+    LOOP
+        PERFORM set_config('app.preserve_updated_at', 'on', true);
+        UPDATE packages SET tracking_code = random_tracking_code()
+        WHERE package_id IN (
+            SELECT package_id FROM (
+                SELECT package_id, row_number() OVER (PARTITION BY tracking_code ORDER BY package_id) AS n
+                FROM packages) ranked
+            WHERE n > 1);
+        EXIT WHEN NOT FOUND;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- NOT NULL without a scan under an exclusive lock: a validated check proves it first
+ALTER TABLE packages DROP CONSTRAINT IF EXISTS packages_tracking_code_not_null;
+ALTER TABLE packages ADD CONSTRAINT packages_tracking_code_not_null CHECK (tracking_code IS NOT NULL) NOT VALID;
+ALTER TABLE packages VALIDATE CONSTRAINT packages_tracking_code_not_null;
+ALTER TABLE packages ALTER COLUMN tracking_code SET NOT NULL;
+ALTER TABLE packages DROP CONSTRAINT packages_tracking_code_not_null;
+
+-- GET /packages/track/{code}; a failed concurrent build leaves an INVALID index, dropped on a rerun
+DROP INDEX CONCURRENTLY IF EXISTS idx_packages_tracking_code;
+CREATE UNIQUE INDEX CONCURRENTLY idx_packages_tracking_code ON packages (tracking_code);
@@ -0,0 +1,114 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.diagnostics.AccessLogFilter;
+import com.example.demo.diagnostics.AccessLogSampler;
+import com.example.demo.diagnostics.AccessLogWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the access log under 8 concurrent request threads, against
+ * no logging at all and against formatting and writing a line synchronously on the
+ * request thread (what request-level DEBUG logging does). The writer thread drains
+ * into a no-op logger, so this measures what the request thread pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    private static final String ROUTE = "/api/v1/packages/{id}";
+
+    private final Servlet handler = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+    };
+    private final PrintStream synchronousSink = new PrintStream(OutputStream.nullOutputStream());
+
+    private AccessLogWriter writer;
+    private AccessLogFilter everyRequest;
+    private AccessLogFilter sampled;
+
+    @Setup
+    public void setup() {
+        writer = new AccessLogWriter(8192, NOPLogger.NOP_LOGGER, new SimpleMeterRegistry());
+        writer.start();
+        everyRequest = new AccessLogFilter(AccessLogSampler.parse(1.0, "", ""), writer);
+        sampled = new AccessLogFilter(AccessLogSampler.parse(0.01, "5xx:1", ""), writer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.stop();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse noAccessLog() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(handler).doFilter(request(), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse synchronousLine() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        new MockFilterChain(handler).doFilter(request, response);
+        synchronousSink.println("method=" + request.getMethod() + " path=" + request.getRequestURI()
+                + " route=" + ROUTE + " status=" + response.getStatus()
+                + " latency_ms=" + String.format(Locale.ROOT, "%.3f", (System.nanoTime() - start) / 1_000_000.0));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse asyncEveryRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        everyRequest.doFilter(request(), response, new MockFilterChain(handler));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse asyncSampledOnePercent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sampled.doFilter(request(), response, new MockFilterChain(handler));
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/packages/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.planning.Cargo;
+import com.example.demo.planning.FragilePolicy;
+import com.example.demo.planning.LoadPlan;
+import com.example.demo.planning.LoadPlanner;
+import com.example.demo.planning.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of a fixed 64-attempt plan over 100k packages as the fork-join pool
+ * grows; with no time budget in play, this shows how the portfolio search scales
+ * with cores (and how many attempts a given budget buys).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoadPlannerBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"100000"})
+    public int packages;
+
+    private ForkJoinPool pool;
+    private LoadPlanner planner;
+    private Cargo cargo;
+    private List<Vehicle> fleet;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        planner = new LoadPlanner(pool);
+
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[packages];
+        double[] weights = new double[packages];
+        boolean[] fragile = new boolean[packages];
+        for (int i = 0; i < packages; i++) {
+            ids[i] = i + 1;
+            weights[i] = Math.min(50.0, Math.max(0.1, Math.exp(1.0 + 0.9 * random.nextGaussian())));
+            fragile[i] = random.nextDouble() < 0.15;
+        }
+        cargo = new Cargo(ids, weights, fragile);
+
+        fleet = new ArrayList<>();
+        for (int i = 0; i < packages / 250; i++) {
+            fleet.add(new Vehicle("van-" + i, 800, 20));
+            fleet.add(new Vehicle("truck-" + i, 1_500, 40));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public LoadPlan plan64Attempts() {
+        return planner.plan(cargo, fleet, FragilePolicy.CAP, Duration.ofMinutes(5), 64);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.id.TrackingCode;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageResponse;
+import com.example.demo.payload.PackageResponseDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes on the wire and (de)serialization cost of the package payloads per
+ * encoding: {@code GET /packages/{id}} ({@code SINGLE}) and a 100-package page of
+ * {@code GET /packages/all} ({@code PAGE}). {@code wireBytes} against {@code ops}
+ * is the encoded size of one payload.
+ * <p>
+ * The mappers are configured like the application's, see BinaryContentConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    public enum Format {
+        JSON(new JsonFactory()), CBOR(new CBORFactory()), SMILE(new SmileFactory());
+
+        private final JsonFactory factory;
+
+        Format(JsonFactory factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public Format format;
+
+    @Param({"SINGLE", "PAGE"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Object value;
+    private Class<?> type;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().build().copyWith(format.factory);
+        List<PackageResponseDTO> packages = packages(100);
+        if ("SINGLE".equals(payload)) {
+            value = packages.get(0);
+            type = PackageResponseDTO.class;
+        } else {
+            value = new PackageResponse(packages, 3, 100, 50_000_000L, 500_000, false, CountStrategy.CACHED, false);
+            type = PackageResponse.class;
+        }
+        encoded = mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serialize(Wire wire) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(value);
+        wire.wireBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return mapper.readValue(encoded, type);
+    }
+
+    private static List<PackageResponseDTO> packages(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        PackageStatus[] statuses = PackageStatus.values();
+        List<PackageResponseDTO> packages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            packages.add(new PackageResponseDTO(
+                    7_300_000_000_000_000L + random.nextLong(1L << 40),
+                    "Package " + random.nextInt(1_000_000) + " to warehouse " + random.nextInt(200),
+                    Math.round(random.nextDouble(0.1, 50.0) * 100) / 100.0,
+                    random.nextInt(7) == 0,
+                    statuses[random.nextInt(statuses.length)],
+                    TrackingCode.format(TrackingCode.random())));
+        }
+        return packages;
+    }
+}
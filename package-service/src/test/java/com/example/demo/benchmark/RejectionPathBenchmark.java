@@ -0,0 +1,176 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.DeadlineExceededException;
+import com.example.demo.exceptions.ErrorCode;
+import com.example.demo.exceptions.ErrorResponse;
+import com.example.demo.exceptions.MyGlobalExceptionHandler;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.exceptions.ServiceUnavailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a rejected request from the throw in the service layer to the
+ * error body, before and after making the domain exceptions stackless and the
+ * fixed-message responses prebuilt.
+ * <p>
+ * {@code depth} is the number of frames between the controller and the throw; a
+ * request through the servlet filters, MVC and the transactional proxies is well
+ * over a hundred frames deep, and filling in the stack trace costs per frame. The
+ * {@code before} variants reproduce the previous code path: a new exception with a
+ * full stack trace, {@code String.format} messages and {@code LocalDateTime.now()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    private static final APIException WEIGHT_LIMIT_EXCEEDED = new APIException(ErrorCode.WEIGHT_LIMIT_EXCEEDED);
+
+    @Param({"20", "150"})
+    public int depth;
+
+    private MyGlobalExceptionHandler handler;
+    private WebRequest request;
+
+    @Setup
+    public void setup() {
+        handler = new MyGlobalExceptionHandler();
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/packages/42");
+        servletRequest.addHeader("Accept", "application/json");
+        request = new ServletWebRequest(servletRequest);
+    }
+
+    @Benchmark
+    public Object weightLimit_before() {
+        try {
+            throwAt(depth, () -> new LegacyException("Weight must not exceed 50.0 kg"));
+            return null;
+        } catch (LegacyException e) {
+            return legacyResponse(e.getMessage(), "API Error", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Benchmark
+    public Object weightLimit_after() {
+        try {
+            throwAt(depth, () -> WEIGHT_LIMIT_EXCEEDED);
+            return null;
+        } catch (APIException e) {
+            return handler.handleAPIException(e);
+        }
+    }
+
+    @Benchmark
+    public Object notFound_before() {
+        long id = ThreadLocalRandom.current().nextLong(1, 1_000_000);
+        try {
+            throwAt(depth, () -> new LegacyException(String.format("Package not found with id: %d", id)));
+            return null;
+        } catch (LegacyException e) {
+            return legacyResponse(e.getMessage(), "Resource Not Found", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Benchmark
+    public Object notFound_after() {
+        long id = ThreadLocalRandom.current().nextLong(1, 1_000_000);
+        try {
+            throwAt(depth, () -> ResourceNotFoundException.forPackage(id));
+            return null;
+        } catch (ResourceNotFoundException e) {
+            return handler.handleResourceNotFound(e, request);
+        }
+    }
+
+    @Benchmark
+    public Object breakerOpen_before() {
+        try {
+            throwAt(depth, () -> new LegacyException("The database is unavailable, retry shortly"));
+            return null;
+        } catch (LegacyException e) {
+            return legacyResponse(e.getMessage(), "Service Unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @Benchmark
+    public Object breakerOpen_after() {
+        try {
+            throwAt(depth, () -> new ServiceUnavailableException("The database is unavailable, retry shortly", 5));
+            return null;
+        } catch (ServiceUnavailableException e) {
+            return handler.handleServiceUnavailable(e);
+        }
+    }
+
+    @Benchmark
+    public Object deadlineExceeded_before() {
+        try {
+            throwAt(depth, () -> new LegacyException("Request deadline exceeded before the database call"));
+            return null;
+        } catch (LegacyException e) {
+            return legacyResponse(e.getMessage(), "Gateway Timeout", HttpStatus.GATEWAY_TIMEOUT);
+        }
+    }
+
+    @Benchmark
+    public Object deadlineExceeded_after() {
+        try {
+            throwAt(depth, () -> new DeadlineExceededException("Request deadline exceeded before the database call"));
+            return null;
+        } catch (DeadlineExceededException e) {
+            return handler.handleDeadlineExceeded(e);
+        }
+    }
+
+    // The exception is created at the bottom of the stack, where a stack trace would capture every frame
+    private static void throwAt(int depth, ExceptionSupplier supplier) {
+        if (depth > 0) {
+            throwAt(depth - 1, supplier);
+            return;
+        }
+        throw supplier.get();
+    }
+
+    private static ResponseEntity<ErrorResponse> legacyResponse(String message, String errorType, HttpStatus status) {
+        return new ResponseEntity<>(
+                new ErrorResponse(LocalDateTime.now(), status.value(), errorType, Map.of("error", message)),
+                status);
+    }
+
+    @FunctionalInterface
+    private interface ExceptionSupplier {
+        RuntimeException get();
+    }
+
+    private static final class LegacyException extends RuntimeException {
+        LegacyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.impl.SingleFlight;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thundering herd: 64 threads reading a handful of hot packages from a "database"
+ * that takes 2 ms per query. {@code databaseCalls} against {@code ops} shows how
+ * many reads each query serves with and without coalescing; throughput shows what
+ * that buys once the database is the bottleneck.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    private static final long QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"1", "16"})
+    public int hotPackages;
+
+    private final SingleFlight<Long> flights = new SingleFlight<>(role -> { });
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Calls {
+        public long databaseCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            databaseCalls = 0;
+        }
+    }
+
+    @Benchmark
+    public String direct(Calls calls) {
+        return query(nextId(), calls);
+    }
+
+    @Benchmark
+    public String coalesced(Calls calls) {
+        long id = nextId();
+        return flights.execute(id, 0, () -> query(id, calls));
+    }
+
+    private long nextId() {
+        return ThreadLocalRandom.current().nextInt(hotPackages);
+    }
+
+    // Runs on the leader's thread, so the call is counted once
+    private static String query(long id, Calls calls) {
+        calls.databaseCalls++;
+        LockSupport.parkNanos(QUERY_NANOS);
+        return "package-" + id;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.readmodel.PackageColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Total weight of fragile packages out for delivery" over the column store, as
+ * the fork-join pool grows. The store takes about 600 MB at 10M rows, two thirds
+ * of it the id index; the scan itself only touches the status, weight and fragile
+ * columns (~180 MB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SnapshotAggregationBenchmark {
+
+    private static final PackageStatus[] ACTIVE = {
+            PackageStatus.PENDING, PackageStatus.PROCESSING, PackageStatus.IN_TRANSIT,
+            PackageStatus.OUT_FOR_DELIVERY, PackageStatus.FAILED_DELIVERY, PackageStatus.RETURNED
+    };
+
+    @Param({"1", "4", "8"})
+    public int parallelism;
+
+    @Param({"10000000"})
+    public int packages;
+
+    private ForkJoinPool pool;
+    private PackageColumns columns;
+    private PackageColumns.Filter fragileOutForDelivery;
+    private PackageColumns.Filter weightBand;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        columns = new PackageColumns(packages);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 1; i <= packages; i++) {
+            columns.upsert(i, ACTIVE[random.nextInt(ACTIVE.length)],
+                    Math.min(50.0, Math.max(0.1, Math.exp(1.0 + 0.9 * random.nextGaussian()))),
+                    random.nextDouble() < 0.15);
+        }
+        fragileOutForDelivery = new PackageColumns.Filter(
+                1 << PackageStatus.OUT_FOR_DELIVERY.ordinal(), true,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        weightBand = new PackageColumns.Filter(
+                (1 << PackageStatus.values().length) - 1, null, 5.0, 20.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public PackageColumns.Totals fragileOutForDelivery() {
+        return columns.aggregate(fragileOutForDelivery, pool);
+    }
+
+    @Benchmark
+    public PackageColumns.Totals weightBandAllStatuses() {
+        return columns.aggregate(weightBand, pool);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.id.TrackingCode;
+import com.example.demo.service.impl.TrackingCodeCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU side of {@code GET /packages/track/{code}} for hot codes: parse and check the
+ * code, then map it to a package id from the cache. The target is tens of
+ * thousands of lookups per second per instance, so this path should cost well under
+ * a microsecond per call and scale with threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TrackingCodeBenchmark {
+
+    @Param({"1000", "100000"})
+    public int hotCodes;
+
+    private String[] codes;
+    private long[] values;
+    private TrackingCodeCache cache;
+
+    @Setup
+    public void setup() {
+        codes = new String[hotCodes];
+        values = new long[hotCodes];
+        cache = new TrackingCodeCache(65536);
+        for (int i = 0; i < hotCodes; i++) {
+            values[i] = TrackingCode.random();
+            codes[i] = TrackingCode.format(values[i]);
+            cache.put(values[i], i);
+        }
+    }
+
+    @Benchmark
+    public long parse() {
+        return TrackingCode.parse(codes[next()]);
+    }
+
+    @Benchmark
+    public String format() {
+        return TrackingCode.format(values[next()]);
+    }
+
+    /** Parse plus cache lookup; with more hot codes than slots, part of the lookups miss. */
+    @Benchmark
+    public long lookup() {
+        long code = TrackingCode.parse(codes[next()]);
+        return code == TrackingCode.INVALID ? -1 : cache.get(code);
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(hotCodes);
+    }
+}
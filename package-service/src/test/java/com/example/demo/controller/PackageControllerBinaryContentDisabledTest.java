@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.BinaryContentConfig;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.service.AsyncCreateService;
+import com.example.demo.service.PackageService;
+import com.example.demo.service.TrackingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = PackageController.class, properties = "app.binary-content.enabled=false")
+@Import(BinaryContentConfig.class)
+class PackageControllerBinaryContentDisabledTest {
+
+    private static final PackageResponseDTO PACKAGE =
+            new PackageResponseDTO(42L, "Binary package", 12.5, true, PackageStatus.IN_TRANSIT, "4F7Q-2KXM-9B01");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PackageService packageService;
+
+    @MockitoBean
+    private AsyncCreateService asyncCreateService;
+
+    @MockitoBean
+    private TrackingService trackingService;
+
+    @Test
+    void getPackageById_acceptCbor_isNotAcceptable() throws Exception {
+        when(packageService.getPackageById(eq(42L), any())).thenReturn(PACKAGE);
+
+        mockMvc.perform(get("/api/v1/packages/42").accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void getPackageById_acceptSmile_isNotAcceptable() throws Exception {
+        when(packageService.getPackageById(eq(42L), any())).thenReturn(PACKAGE);
+
+        mockMvc.perform(get("/api/v1/packages/42").accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isNotAcceptable());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.BinaryContentConfig;
+import com.example.demo.exceptions.ErrorCode;
+import com.example.demo.exceptions.ErrorResponse;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponse;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.service.AsyncCreateService;
+import com.example.demo.service.PackageService;
+import com.example.demo.service.TrackingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PackageController.class)
+@Import(BinaryContentConfig.class)
+class PackageControllerContentNegotiationTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+
+    private static final PackageResponseDTO PACKAGE =
+            new PackageResponseDTO(42L, "Binary package", 12.5, true, PackageStatus.IN_TRANSIT, "4F7Q-2KXM-9B01");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PackageService packageService;
+
+    @MockitoBean
+    private AsyncCreateService asyncCreateService;
+
+    @MockitoBean
+    private TrackingService trackingService;
+
+    @Test
+    void getPackageById_withoutAccept_answersJson() throws Exception {
+        when(packageService.getPackageById(eq(42L), any())).thenReturn(PACKAGE);
+
+        mockMvc.perform(get("/api/v1/packages/42"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getPackageById_acceptCbor_answersCbor() throws Exception {
+        // Given
+        when(packageService.getPackageById(eq(42L), any())).thenReturn(PACKAGE);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/packages/42").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+
+        // Then
+        PackageResponseDTO body = CBOR_MAPPER.readValue(result.getResponse().getContentAsByteArray(),
+                PackageResponseDTO.class);
+        assertThat(body).isEqualTo(PACKAGE);
+    }
+
+    @Test
+    void getAllPackages_acceptSmile_answersSmile() throws Exception {
+        // Given
+        PackageResponse page = new PackageResponse(List.of(PACKAGE), 0, 10, 1, 1, true, CountStrategy.EXACT, true);
+        when(packageService.getAllPackages(any(), any(), any(), any(), any(), any())).thenReturn(page);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/packages/all").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        // Then
+        PackageResponse body = SMILE_MAPPER.readValue(result.getResponse().getContentAsByteArray(),
+                PackageResponse.class);
+        assertThat(body).isEqualTo(page);
+    }
+
+    @Test
+    void createPackage_cborBody_isReadAndValidated() throws Exception {
+        // Given
+        PackageRequestDTO request = new PackageRequestDTO("Binary package", 12.5, true, PackageStatus.PENDING);
+        when(packageService.createPackage(request)).thenReturn(PACKAGE);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/packages/create")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(CBOR));
+
+        PackageRequestDTO invalid = new PackageRequestDTO("ab", 12.5, true, PackageStatus.PENDING);
+        mockMvc.perform(post("/api/v1/packages/create")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(invalid)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(CBOR));
+    }
+
+    @Test
+    void getPackageById_notFound_answersErrorResponseInCbor() throws Exception {
+        // Given
+        when(packageService.getPackageById(anyLong(), any())).thenThrow(ResourceNotFoundException.forPackage(7));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/packages/7").accept(CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+
+        // Then
+        ErrorResponse body = CBOR_MAPPER.readValue(result.getResponse().getContentAsByteArray(), ErrorResponse.class);
+        assertThat(body.getCode()).isEqualTo(ErrorCode.PACKAGE_NOT_FOUND);
+        assertThat(body.getMessages()).containsEntry("error", "Package not found with id: 7");
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.SparseFieldsetConfig;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageResponse;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.service.AsyncCreateService;
+import com.example.demo.service.PackageService;
+import com.example.demo.service.TrackingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PackageController.class)
+@Import(SparseFieldsetConfig.class)
+class PackageControllerSparseFieldsetTest {
+
+    // No tracking code yet: a full response still carries the property, as null
+    private static final PackageResponseDTO PACKAGE =
+            new PackageResponseDTO(42L, "Sparse package", 12.5, true, PackageStatus.IN_TRANSIT, null);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PackageService packageService;
+
+    @MockitoBean
+    private AsyncCreateService asyncCreateService;
+
+    @MockitoBean
+    private TrackingService trackingService;
+
+    @Test
+    void getPackageById_withoutFields_keepsNullProperties() throws Exception {
+        when(packageService.getPackageById(eq(42L), any())).thenReturn(PACKAGE);
+
+        mockMvc.perform(get("/api/v1/packages/42"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"packageId":42,"description":"Sparse package","weight":12.5,"fragile":true,
+                         "status":"IN_TRANSIT","trackingCode":null}
+                        """, true));
+    }
+
+    @Test
+    void getPackageById_withFields_writesOnlySelectedProperties() throws Exception {
+        // Given: the projection leaves unselected components null; a selected one may be null too
+        when(packageService.getPackageById(eq(42L), any()))
+                .thenReturn(new PackageResponseDTO(42L, null, null, null, null, null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/packages/42").param("fields", "packageId,trackingCode"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"packageId":42,"trackingCode":null}
+                        """, true));
+    }
+
+    @Test
+    void getAllPackages_withFields_filtersOnlyThePackages() throws Exception {
+        // Given
+        PackageResponse page = new PackageResponse(
+                List.of(new PackageResponseDTO(42L, null, null, null, PackageStatus.IN_TRANSIT, null)),
+                0, 10, 1, 1, true, CountStrategy.EXACT, true);
+        when(packageService.getAllPackages(any(), any(), any(), any(), any(), any())).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/packages/all").param("fields", "packageId,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].packageId").value(42))
+                .andExpect(jsonPath("$.content[0].status").value("IN_TRANSIT"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].trackingCode").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+}
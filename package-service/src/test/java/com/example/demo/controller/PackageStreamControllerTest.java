@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.events.PackageChangeStreamHub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PackageStreamController.class)
+class PackageStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PackageChangeStreamHub streamHub;
+
+    @Test
+    void streamChanges_followsTheGivenIds() throws Exception {
+        when(streamHub.subscribe(any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/packages/stream").param("ids", "1,2,2"))
+                .andExpect(status().isOk());
+
+        verify(streamHub).subscribe(Set.of(1L, 2L));
+    }
+
+    @Test
+    void streamChanges_emptyId_isBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/packages/stream").param("ids", "1,,2"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(streamHub);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.datasource;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.service.PackageService;
+import com.example.demo.support.PostgresContainerSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only transactions run on their own pool, so a flood of slow reads leaves
+ * the write pool (and create latency) alone and is shed instead of queued.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.write.maximum-pool-size=4",
+        "app.datasource.read.maximum-pool-size=2",
+        "app.datasource.read.max-waiting=2",
+        "app.datasource.read.connection-timeout=250ms"
+})
+class ReadWriteDataSourceTest extends PostgresContainerSupport {
+
+    private static final int WRITES = 200;
+    private static final int READERS = 32;
+
+    @Autowired
+    private PackageService packageService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Wrapped by the statement counting and deadline proxies
+    @Autowired
+    private DataSource proxiedDataSource;
+
+    private ReadWriteDataSource dataSource;
+    private TransactionTemplate readOnly;
+    private int sequence;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        dataSource = proxiedDataSource.unwrap(ReadWriteDataSource.class);
+        jdbc.execute("TRUNCATE packages");
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransaction_usesReadPool() {
+        // When
+        Integer readActive = readOnly.execute(status -> {
+            jdbc.queryForObject("SELECT 1", Integer.class);
+            return dataSource.readPool().getHikariPoolMXBean().getActiveConnections();
+        });
+        Integer writeActive = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbc.queryForObject("SELECT 1", Integer.class);
+            return dataSource.readPool().getHikariPoolMXBean().getActiveConnections();
+        });
+
+        // Then
+        assertThat(readActive).isEqualTo(1);
+        assertThat(writeActive).isZero();
+    }
+
+    @Test
+    void writeP99_holdsSteadyUnderReadFlood() throws Exception {
+        // Given
+        createPackages(50); // warm up
+        long baselineP99 = p99(createPackages(WRITES));
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        ExecutorService flood = Executors.newFixedThreadPool(READERS);
+        for (int i = 0; i < READERS; i++) {
+            flood.execute(() -> {
+                while (flooding.get()) {
+                    try {
+                        readOnly.execute(status -> jdbc.queryForObject(
+                                "SELECT count(*) FROM packages, pg_sleep(0.05)", Long.class));
+                        served.incrementAndGet();
+                    } catch (DataAccessException e) {
+                        shed.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // When
+        long floodP99;
+        try {
+            TimeUnit.MILLISECONDS.sleep(200); // read pool saturated
+            floodP99 = p99(createPackages(WRITES));
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            assertThat(flood.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Then
+        assertThat(served.get()).isPositive();
+        assertThat(shed.get()).as("reads beyond the pool and its wait queue fail fast").isPositive();
+        assertThat(floodP99)
+                .as("write p99 under flood %d µs vs baseline %d µs",
+                        TimeUnit.NANOSECONDS.toMicros(floodP99), TimeUnit.NANOSECONDS.toMicros(baselineP99))
+                .isLessThan(Math.max(3 * baselineP99, TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    private long[] createPackages(int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            PackageRequestDTO request = new PackageRequestDTO("Flood package " + sequence++, 10.0, false, PackageStatus.PENDING);
+            long start = System.nanoTime();
+            packageService.createPackage(request);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void capacity_roundsUpToPowerOfTwo() {
+        assertThat(new AccessLogRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new AccessLogRingBuffer<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void offer_whenFull_rejectsUntilConsumerFreesASlot() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+    }
+
+    @Test
+    void poll_returnsElementsInOrderAcrossLaps() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+
+        for (int i = 0; i < 20; i++) {
+            buffer.offer(i);
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducers_singleConsumer_loseNothingAccepted() throws Exception {
+        // Given
+        AccessLogRingBuffer<Long> buffer = new AccessLogRingBuffer<>(256);
+        int producers = 8;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        // When
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            accepted.add(executor.submit(() -> {
+                int count = 0;
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                    count++;
+                }
+                return count;
+            }));
+        }
+        Set<Long> received = new HashSet<>();
+        Map<Integer, Long> lastPerProducer = new HashMap<>();
+        while (received.size() < producers * perProducer) {
+            Long value = buffer.poll();
+            if (value == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // Each producer's elements come out in the order it offered them
+            int producer = (int) (value / perProducer);
+            Long last = lastPerProducer.put(producer, value);
+            assertThat(last == null || last < value).isTrue();
+            received.add(value);
+        }
+        executor.shutdown();
+
+        // Then
+        for (Future<Integer> future : accepted) {
+            assertThat(future.get()).isEqualTo(perProducer);
+        }
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+}
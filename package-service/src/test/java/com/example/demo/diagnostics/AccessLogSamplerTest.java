@@ -0,0 +1,51 @@
+package com.example.demo.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccessLogSamplerTest {
+
+    private static final String GET_BY_ID = "/api/v1/packages/{id}";
+
+    @Test
+    void routeRate_overridesDefault() {
+        AccessLogSampler sampler = AccessLogSampler.parse(1.0, "", GET_BY_ID + ":0");
+
+        assertThat(sampler.sample(GET_BY_ID, 200)).isFalse();
+        assertThat(sampler.sample("/api/v1/packages/all", 200)).isTrue();
+    }
+
+    @Test
+    void statusClassRate_isAFloor() {
+        AccessLogSampler sampler = AccessLogSampler.parse(0.0, "5xx:1, 4XX:0", GET_BY_ID + ":0");
+
+        assertThat(sampler.sample(GET_BY_ID, 503)).isTrue();
+        assertThat(sampler.sample(GET_BY_ID, 404)).isFalse();
+        assertThat(sampler.sample(null, 500)).isTrue();
+    }
+
+    @Test
+    void fractionalRate_keepsRoughlyThatShare() {
+        AccessLogSampler sampler = AccessLogSampler.parse(0.1, "", "");
+
+        int kept = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (sampler.sample("/api/v1/packages/all", 200)) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    void parse_rejectsMalformedSpecs() {
+        assertThatThrownBy(() -> AccessLogSampler.parse(1.0, "200:1", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AccessLogSampler.parse(1.0, "", GET_BY_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AccessLogSampler.parse(1.5, "", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.diagnostics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlDiagnosticsFilterTest {
+
+    private final SqlDiagnosticsFilter filter = new SqlDiagnosticsFilter(new SimpleMeterRegistry());
+
+    @Test
+    void bufferedResponse_getsHeadersAndBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/packages/1"), response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+        });
+
+        assertThat(response.getHeader(SqlDiagnosticsFilter.STATEMENT_COUNT_HEADER)).isEqualTo("0");
+        assertThat(response.getHeader(SqlDiagnosticsFilter.STATEMENT_TIME_HEADER)).isNotNull();
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+    }
+
+    @Test
+    void eventStreamRequest_isNotWrapped() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/packages/stream");
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> assertThat(res).isSameAs(response));
+    }
+
+    @Test
+    void eventStreamResponse_writesThroughOnFlush() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain sse = (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            res.getOutputStream().write("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+
+            // Reached the client before the handler returned
+            assertThat(response.isCommitted()).isTrue();
+            assertThat(response.getContentAsString()).isEqualTo("data: 1\n\n");
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/packages/stream"), response, sse);
+
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("data: 1\n\n");
+    }
+}
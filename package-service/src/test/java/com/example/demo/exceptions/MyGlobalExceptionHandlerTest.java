@@ -0,0 +1,64 @@
+package com.example.demo.exceptions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MyGlobalExceptionHandlerTest {
+
+    private final MyGlobalExceptionHandler handler = new MyGlobalExceptionHandler();
+
+    @Test
+    void handleAPIException_fixedMessage_reusesPrebuiltMessages() {
+        // Given
+        APIException ex = new APIException(ErrorCode.WEIGHT_LIMIT_EXCEEDED);
+
+        // When
+        ResponseEntity<ErrorResponse> first = handler.handleAPIException(ex);
+        ResponseEntity<ErrorResponse> second = handler.handleAPIException(ex);
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(first.getBody().getCode()).isEqualTo(ErrorCode.WEIGHT_LIMIT_EXCEEDED);
+        assertThat(first.getBody().getMessages()).isEqualTo(Map.of("error", "Weight must not exceed 50.0 kg"));
+        assertThat(second.getBody().getMessages()).isSameAs(first.getBody().getMessages());
+    }
+
+    @Test
+    void handleAPIException_plainMessage_keepsMessageAndGenericCode() {
+        // Given
+        APIException ex = new APIException("Invalid sort direction: sideways");
+
+        // When
+        ResponseEntity<ErrorResponse> response = handler.handleAPIException(ex);
+
+        // Then
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(response.getBody().getCode()).isEqualTo(ErrorCode.BAD_REQUEST);
+        assertThat(response.getBody().getMessages()).containsEntry("error", "Invalid sort direction: sideways");
+    }
+
+    @Test
+    void handleResourceNotFound_jsonRequest_returnsPackageNotFoundCode() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/packages/42");
+        request.addHeader("Accept", "application/json");
+
+        // When
+        ResponseEntity<Object> response = handler.handleResourceNotFound(
+                ResourceNotFoundException.forPackage(42), new ServletWebRequest(request));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isInstanceOfSatisfying(ErrorResponse.class, body -> {
+            assertThat(body.getCode()).isEqualTo(ErrorCode.PACKAGE_NOT_FOUND);
+            assertThat(body.getMessages()).containsEntry("error", "Package not found with id: 42");
+        });
+    }
+}
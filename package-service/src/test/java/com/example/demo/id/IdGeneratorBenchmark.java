@@ -0,0 +1,96 @@
+package com.example.demo.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of in-process ID allocation under contention, against a plain
+ * AtomicLong counter (lower bound) and random UUIDs (what a UUIDv4 key would cost).
+ * <p>
+ * A JMH loop outruns the 4096 IDs per millisecond a worker can hand out, and the
+ * generator refuses to run more than two seconds ahead of the wall clock. So the
+ * {@code snowflake_*} methods measure the cost of an allocation on a clock that
+ * ticks every microsecond instead, and {@code snowflakeSustained_*} measure the real
+ * capacity: after an ID from a borrowed millisecond, the caller waits for the clock
+ * to get there. Lives next to the generator for access to its clock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final int TIMESTAMP_SHIFT = SnowflakeIdGenerator.WORKER_BITS + SnowflakeIdGenerator.SEQUENCE_BITS;
+
+    private final long origin = System.nanoTime();
+    // One "millisecond" per microsecond: 4096 IDs per microsecond are never exhausted
+    private final SnowflakeIdGenerator snowflake = new SnowflakeIdGenerator(1,
+            () -> SnowflakeIdGenerator.EPOCH_MILLIS + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - origin));
+    private final SnowflakeIdGenerator wallClockSnowflake = new SnowflakeIdGenerator(2);
+    private final AtomicLong counter = new AtomicLong();
+
+    @Benchmark
+    @Threads(1)
+    public long snowflake_1thread() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long snowflake_4threads() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long snowflake_16threads() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long snowflakeSustained_1thread() {
+        return sustained();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long snowflakeSustained_16threads() {
+        return sustained();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long atomicCounter_16threads() {
+        return counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public UUID randomUuid_16threads() {
+        return UUID.randomUUID();
+    }
+
+    private long sustained() {
+        long id = wallClockSnowflake.nextId();
+        long millis = (id >>> TIMESTAMP_SHIFT) + SnowflakeIdGenerator.EPOCH_MILLIS;
+        while (System.currentTimeMillis() < millis) {
+            Thread.onSpinWait();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-10-19T12:00:00Z").toEpochMilli();
+
+    @Test
+    void nextId_embedsWorkerAndTimestamp() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertThat(id).isPositive();
+        assertThat(SnowflakeIdGenerator.workerIdOf(id)).isEqualTo(37);
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+    }
+
+    @Test
+    void nextId_isStrictlyIncreasingWithinAMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+
+        long previous = generator.nextId();
+        // More than the 4096 sequence values of one millisecond: the generator borrows the next one
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void nextId_smallClockStepBack_staysMonotonic() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-500);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void nextId_largeClockStepBack_refusesToAllocate() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        generator.nextId();
+        clock.addAndGet(-60_000);
+
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Clock moved back by 60000 ms");
+    }
+
+    @Test
+    void nextId_sequenceExhaustedForTooLong_refusesToAllocate() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+
+        // Every ID borrows from the future while the clock stands still
+        assertThatThrownBy(() -> {
+            for (long i = 0; i < 4096L * 2_100; i++) {
+                generator.nextId();
+            }
+        })
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Sequence exhausted");
+    }
+
+    @Test
+    void nextId_concurrentCallers_neverCollide() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(ids).hasSize(8 * 20_000);
+    }
+
+    @Test
+    void constructor_workerIdOutOfRange_throws() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.id;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TrackingCodeTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void format_isTwelveCharactersInGroupsOfFour() {
+        assertThat(TrackingCode.format(0)).isEqualTo("0000-0000-0000");
+        assertThat(TrackingCode.format(TrackingCode.random())).matches("[0-9A-HJKMNP-TV-Z]{4}(-[0-9A-HJKMNP-TV-Z]{4}){2}");
+    }
+
+    @Test
+    void parse_roundTripsRandomCodes() {
+        for (int i = 0; i < 10_000; i++) {
+            long code = TrackingCode.random();
+
+            assertThat(code).isBetween(0L, (1L << 55) - 1);
+            assertThat(TrackingCode.parse(TrackingCode.format(code))).isEqualTo(code);
+        }
+    }
+
+    @Test
+    void parse_ignoresCaseSeparatorsAndAmbiguousLetters() {
+        long code = TrackingCode.parse("4F7Q-2KXM-9B01");
+
+        assertThat(code).isNotEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("4f7q 2kxm 9b01")).isEqualTo(code);
+        assertThat(TrackingCode.parse("4F7Q2KXM9BOl")).isEqualTo(code);
+    }
+
+    @Test
+    void parse_rejectsEverySingleCharacterSubstitution() {
+        String code = TrackingCode.format(TrackingCode.random()).replace("-", "");
+
+        for (int pos = 0; pos < code.length(); pos++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c != code.charAt(pos)) {
+                    String typo = code.substring(0, pos) + c + code.substring(pos + 1);
+                    assertThat(TrackingCode.parse(typo)).as(typo).isEqualTo(TrackingCode.INVALID);
+                }
+            }
+        }
+    }
+
+    @Test
+    void parse_rejectsAdjacentTranspositions() {
+        String code = TrackingCode.format(TrackingCode.random()).replace("-", "");
+
+        for (int pos = 0; pos + 1 < code.length(); pos++) {
+            char a = code.charAt(pos);
+            char b = code.charAt(pos + 1);
+            // Luhn mod 32 cannot tell 0Z from Z0
+            if (a != b && !(a == '0' && b == 'Z') && !(a == 'Z' && b == '0')) {
+                String swapped = code.substring(0, pos) + b + a + code.substring(pos + 2);
+                assertThat(TrackingCode.parse(swapped)).as(swapped).isEqualTo(TrackingCode.INVALID);
+            }
+        }
+    }
+
+    @Test
+    void parse_rejectsMalformedInput() {
+        assertThat(TrackingCode.parse(null)).isEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("")).isEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("4F7Q-2KXM-9B0")).isEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("4F7Q-2KXM-9B011")).isEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("4F7Q-2KXM-9BU1")).isEqualTo(TrackingCode.INVALID);
+        assertThat(TrackingCode.parse("4F7Q-2KXM-9B0é")).isEqualTo(TrackingCode.INVALID);
+    }
+}
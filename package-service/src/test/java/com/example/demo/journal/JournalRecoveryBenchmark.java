@@ -0,0 +1,130 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.readmodel.PackageReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm restart: replaying a 1M-package snapshot plus a journal tail of growing
+ * length into a map, the way a projection rebuilds its view. The database is
+ * stubbed out (no catch-up rows), so this is the local part of recovery only.
+ * Lives next to the journal for access to its file format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalRecoveryBenchmark {
+
+    private static final PackageStatus[] STATUSES = PackageStatus.values();
+    private static final int SEGMENT_SIZE = (int) DataSize.ofMegabytes(64).toBytes();
+
+    @Param({"1000000"})
+    public int packages;
+
+    @Param({"0", "100000", "1000000", "5000000"})
+    public int journalRecords;
+
+    private Path directory;
+    private PackageJournal journal;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        UUID databaseId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(42);
+
+        try (JournalFiles.SnapshotWriter writer = JournalFiles.writeSnapshot(directory, 1, now, databaseId)) {
+            for (long id = 1; id <= packages; id++) {
+                writer.append(randomRecord(random, id, now));
+            }
+            writer.commit();
+        }
+        long sequence = 1;
+        JournalSegment segment = JournalSegment.create(JournalFiles.segment(directory, sequence), sequence, SEGMENT_SIZE);
+        for (int i = 0; i < journalRecords; i++) {
+            JournalRecord record = randomRecord(random, 1 + random.nextInt(packages), now);
+            if (!segment.append(record)) {
+                segment.close();
+                sequence++;
+                segment = JournalSegment.create(JournalFiles.segment(directory, sequence), sequence, SEGMENT_SIZE);
+                segment.append(record);
+            }
+        }
+        segment.close();
+
+        JdbcTemplate database = new JdbcTemplate() {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return requiredType.cast(databaseId);
+            }
+
+            @Override
+            public void query(String sql, RowCallbackHandler handler, Object... args) {
+                // nothing changed while down
+            }
+        };
+        journal = new PackageJournal(database, new StaticListableBeanFactory().getBeanProvider(PackageReadModel.class),
+                new SimpleMeterRegistry(), directory, DataSize.ofBytes(SEGMENT_SIZE), Duration.ofMinutes(10),
+                Duration.ofMinutes(1), Duration.ofHours(24));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Map<Long, PackageResponseDTO> recover() {
+        Map<Long, PackageResponseDTO> view = new HashMap<>(packages * 2);
+        boolean replayed = journal.replay(event -> {
+            if (event.type() == PackageChangeType.DELETED) {
+                view.remove(event.packageId());
+            } else {
+                view.put(event.packageId(), event.pkg());
+            }
+        });
+        if (!replayed) {
+            throw new IllegalStateException("Journal was not replayed");
+        }
+        return view;
+    }
+
+    private static JournalRecord randomRecord(SplittableRandom random, long id, long changedAt) {
+        return new JournalRecord(JournalRecord.UPSERT, id, changedAt, "Package " + id,
+                Math.round(random.nextDouble() * 500) / 10.0, random.nextInt(7) == 0,
+                STATUSES[random.nextInt(STATUSES.length)]);
+    }
+}
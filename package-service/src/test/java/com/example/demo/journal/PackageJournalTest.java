@@ -0,0 +1,186 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.readmodel.PackageReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageJournalTest {
+
+    private static final UUID DATABASE = UUID.randomUUID();
+    private static final Duration MARGIN = Duration.ofMinutes(1);
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        now = System.currentTimeMillis();
+        lenient().when(jdbc.queryForObject("SELECT id FROM database_identity", UUID.class)).thenReturn(DATABASE);
+    }
+
+    @Test
+    void replay_withoutSnapshot_returnsFalse() throws IOException {
+        // Given
+        writeSegment(1, upsert(1, PackageStatus.PENDING, now));
+
+        // When
+        boolean replayed = journal().replay(event -> fail("nothing to replay"));
+
+        // Then
+        assertThat(replayed).isFalse();
+    }
+
+    @Test
+    void replay_appliesSnapshotThenJournalInOrder() throws IOException {
+        // Given
+        writeSnapshot(2, DATABASE, upsert(1, PackageStatus.PENDING, now), upsert(2, PackageStatus.PENDING, now));
+        writeSegment(1, upsert(1, PackageStatus.RETURNED, now - 1_000));
+        writeSegment(2, upsert(1, PackageStatus.IN_TRANSIT, now + 1),
+                new JournalRecord(JournalRecord.DELETE, 2, now + 2, null, null, null, null));
+
+        // When
+        List<PackageChangeEvent> events = new ArrayList<>();
+        boolean replayed = journal().replay(events::add);
+
+        // Then: segment 1 is superseded by the snapshot
+        assertThat(replayed).isTrue();
+        assertThat(events).extracting(PackageChangeEvent::type, PackageChangeEvent::packageId)
+                .containsExactly(
+                        tuple(PackageChangeType.UPDATED, 1L),
+                        tuple(PackageChangeType.UPDATED, 2L),
+                        tuple(PackageChangeType.UPDATED, 1L),
+                        tuple(PackageChangeType.DELETED, 2L));
+        assertThat(events.get(2).pkg())
+                .isEqualTo(new PackageResponseDTO(1L, "Package 1", 2.5, true, PackageStatus.IN_TRANSIT, null));
+    }
+
+    @Test
+    void replay_snapshotOfAnotherDatabase_returnsFalse() throws IOException {
+        // Given
+        writeSnapshot(1, UUID.randomUUID(), upsert(1, PackageStatus.PENDING, now));
+
+        // When
+        boolean replayed = journal().replay(event -> fail("must not replay another database's state"));
+
+        // Then
+        assertThat(replayed).isFalse();
+    }
+
+    @Test
+    void replay_catchesUpFromLastChangeBeforeFirstGap() throws IOException {
+        // Given: changes may have been missed after the first record
+        writeSnapshot(1, DATABASE);
+        writeSegment(1, upsert(1, PackageStatus.PENDING, now - 20_000), JournalRecord.gap(now - 15_000),
+                upsert(2, PackageStatus.PENDING, now - 10_000));
+
+        // When
+        List<PackageChangeEvent> events = new ArrayList<>();
+        journal().replay(events::add);
+
+        // Then
+        Timestamp expectedFrom = Timestamp.from(Instant.ofEpochMilli(now - 20_000).minus(MARGIN));
+        assertThat(events).hasSize(2);
+        verify(jdbc).query(startsWith("SELECT package_id, description"), any(RowCallbackHandler.class), eq(expectedFrom));
+        verify(jdbc).query(startsWith("SELECT package_id, deleted_at"), any(RowCallbackHandler.class), eq(expectedFrom));
+    }
+
+    @Test
+    void replay_stopsSegmentAtTornRecord() throws IOException {
+        // Given
+        writeSnapshot(1, DATABASE);
+        JournalRecord first = upsert(1, PackageStatus.PENDING, now);
+        writeSegment(1, first, upsert(2, PackageStatus.PENDING, now), upsert(3, PackageStatus.PENDING, now));
+        corruptByteAt(JournalFiles.segment(directory, 1), first.encodedSize() + JournalRecord.HEADER_BYTES + 3);
+
+        // When
+        List<PackageChangeEvent> events = new ArrayList<>();
+        journal().replay(events::add);
+
+        // Then
+        assertThat(events).extracting(PackageChangeEvent::packageId).containsExactly(1L);
+    }
+
+    @Test
+    void replay_journalOlderThanCatchUpWindow_returnsFalse() throws IOException {
+        // Given
+        long twoDaysAgo = now - Duration.ofDays(2).toMillis();
+        writeSnapshot(1, DATABASE, upsert(1, PackageStatus.PENDING, twoDaysAgo));
+
+        // When / Then
+        assertThat(journal().replay(event -> { })).isFalse();
+        verify(jdbc).queryForObject("SELECT id FROM database_identity", UUID.class);
+        verifyNoMoreInteractions(jdbc);
+    }
+
+    private PackageJournal journal() throws IOException {
+        return new PackageJournal(jdbc, new StaticListableBeanFactory().getBeanProvider(PackageReadModel.class),
+                new SimpleMeterRegistry(), directory, DataSize.ofKilobytes(64), Duration.ofMinutes(10),
+                MARGIN, Duration.ofHours(24));
+    }
+
+    private void writeSnapshot(long sequence, UUID database, JournalRecord... records) throws IOException {
+        long createdAt = records.length == 0 ? now - 30_000 : records[0].changedAtMillis();
+        try (JournalFiles.SnapshotWriter writer = JournalFiles.writeSnapshot(directory, sequence, createdAt, database)) {
+            for (JournalRecord record : records) {
+                writer.append(record);
+            }
+            writer.commit();
+        }
+    }
+
+    private void writeSegment(long sequence, JournalRecord... records) throws IOException {
+        try (JournalSegment segment = JournalSegment.create(JournalFiles.segment(directory, sequence), sequence,
+                (int) DataSize.ofKilobytes(64).toBytes())) {
+            for (JournalRecord record : records) {
+                assertThat(segment.append(record)).isTrue();
+            }
+        }
+    }
+
+    private static void corruptByteAt(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.put(position, (byte) (buffer.get(position) ^ 0x5a));
+            buffer.force();
+        }
+    }
+
+    private static JournalRecord upsert(long id, PackageStatus status, long changedAt) {
+        return new JournalRecord(JournalRecord.UPSERT, id, changedAt, "Package " + id, 2.5, true, status);
+    }
+}
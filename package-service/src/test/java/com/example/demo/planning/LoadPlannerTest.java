@@ -0,0 +1,149 @@
+package com.example.demo.planning;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoadPlannerTest {
+
+    private static ForkJoinPool pool;
+    private static LoadPlanner planner;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+        planner = new LoadPlanner(pool);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void plan_firstFitDecreasing_packsTightly() {
+        // Given: 150 kg that FFD fits exactly into three 50 kg vehicles
+        Cargo cargo = cargo(new double[]{30, 20, 25, 25, 10, 40}, new boolean[6]);
+        List<Vehicle> fleet = fleet(4, 50, Integer.MAX_VALUE);
+
+        // When
+        LoadPlan plan = planner.plan(cargo, fleet, FragilePolicy.CAP, Duration.ofSeconds(1), 1);
+
+        // Then
+        assertThat(plan.unassigned()).isZero();
+        assertThat(plan.vehiclesUsed()).isEqualTo(3);
+        assertValid(cargo, fleet, plan, FragilePolicy.CAP);
+    }
+
+    @Test
+    void plan_tooHeavyForEveryVehicle_leavesPackageUnassigned() {
+        Cargo cargo = cargo(new double[]{45, 5}, new boolean[2]);
+        List<Vehicle> fleet = fleet(1, 40, Integer.MAX_VALUE);
+
+        LoadPlan plan = planner.plan(cargo, fleet, FragilePolicy.CAP, Duration.ofSeconds(1), 8);
+
+        assertThat(plan.vehicleOf()).containsExactly(-1, 0);
+        assertThat(plan.unassigned()).isEqualTo(1);
+    }
+
+    @Test
+    void plan_capPolicy_respectsFragileCap() {
+        boolean[] fragile = {true, true, true, true, false, false};
+        Cargo cargo = cargo(new double[]{1, 1, 1, 1, 1, 1}, fragile);
+        List<Vehicle> fleet = fleet(3, 100, 2);
+
+        LoadPlan plan = planner.plan(cargo, fleet, FragilePolicy.CAP, Duration.ofSeconds(1), 16);
+
+        assertThat(plan.unassigned()).isZero();
+        assertThat(plan.vehiclesUsed()).isEqualTo(2);
+        assertValid(cargo, fleet, plan, FragilePolicy.CAP);
+    }
+
+    @Test
+    void plan_separatePolicy_neverMixesFragileAndRegular() {
+        boolean[] fragile = {true, false, true, false};
+        Cargo cargo = cargo(new double[]{5, 5, 5, 5}, fragile);
+        List<Vehicle> fleet = fleet(3, 100, Integer.MAX_VALUE);
+
+        LoadPlan plan = planner.plan(cargo, fleet, FragilePolicy.SEPARATE, Duration.ofSeconds(1), 16);
+
+        assertThat(plan.unassigned()).isZero();
+        assertThat(plan.vehiclesUsed()).isEqualTo(2);
+        assertValid(cargo, fleet, plan, FragilePolicy.SEPARATE);
+    }
+
+    @Test
+    void plan_hundredThousandPackages_withinBudget() {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        int n = 100_000;
+        double[] weights = new double[n];
+        boolean[] fragile = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.min(50.0, Math.max(0.1, Math.exp(1.0 + 0.9 * random.nextGaussian())));
+            fragile[i] = random.nextDouble() < 0.15;
+        }
+        Cargo cargo = cargo(weights, fragile);
+        List<Vehicle> fleet = new ArrayList<>(fleet(300, 1_500, 40));
+        fleet.addAll(fleet(600, 800, 20));
+
+        // When
+        long start = System.nanoTime();
+        LoadPlan plan = planner.plan(cargo, fleet, FragilePolicy.CAP, Duration.ofSeconds(2), 256);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+        assertThat(plan.attempts()).isGreaterThan(1);
+        assertThat(plan.unassigned()).isZero();
+        assertValid(cargo, fleet, plan, FragilePolicy.CAP);
+    }
+
+    private static void assertValid(Cargo cargo, List<Vehicle> fleet, LoadPlan plan, FragilePolicy policy) {
+        double[] load = new double[fleet.size()];
+        int[] fragileCount = new int[fleet.size()];
+        int[] regularCount = new int[fleet.size()];
+        for (int item = 0; item < cargo.size(); item++) {
+            int vehicle = plan.vehicleOf()[item];
+            if (vehicle >= 0) {
+                load[vehicle] += cargo.weights()[item];
+                if (cargo.fragile()[item]) {
+                    fragileCount[vehicle]++;
+                } else {
+                    regularCount[vehicle]++;
+                }
+            }
+        }
+        for (int v = 0; v < fleet.size(); v++) {
+            assertThat(load[v]).isLessThanOrEqualTo(fleet.get(v).capacityKg() + 1e-6);
+            assertThat(fragileCount[v]).isLessThanOrEqualTo(fleet.get(v).maxFragile());
+            if (policy == FragilePolicy.SEPARATE) {
+                assertThat(fragileCount[v] == 0 || regularCount[v] == 0).isTrue();
+            }
+        }
+    }
+
+    private static Cargo cargo(double[] weights, boolean[] fragile) {
+        long[] ids = new long[weights.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        return new Cargo(ids, weights, fragile);
+    }
+
+    private static List<Vehicle> fleet(int count, double capacityKg, int maxFragile) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            fleet.add(new Vehicle("truck-" + capacityKg + "-" + i, capacityKg, maxFragile));
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.model.PackageStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackageColumnsTest {
+
+    private static final PackageStatus[] STATUSES = PackageStatus.values();
+    private static final int ALL_STATUSES = (1 << STATUSES.length) - 1;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void aggregate_sumsMatchingRowsPerStatus() {
+        // Given
+        PackageColumns columns = new PackageColumns(4);
+        columns.upsert(1, PackageStatus.OUT_FOR_DELIVERY, 2.5, true);
+        columns.upsert(2, PackageStatus.OUT_FOR_DELIVERY, 4.0, false);
+        columns.upsert(3, PackageStatus.IN_TRANSIT, 1.0, true);
+
+        // When
+        PackageColumns.Totals fragileOut = columns.aggregate(
+                filter(1 << PackageStatus.OUT_FOR_DELIVERY.ordinal(), true), pool);
+        PackageColumns.Totals all = columns.aggregate(filter(ALL_STATUSES, null), pool);
+
+        // Then
+        int out = PackageStatus.OUT_FOR_DELIVERY.ordinal();
+        assertThat(fragileOut.counts()[out]).isEqualTo(1);
+        assertThat(fragileOut.weights()[out]).isEqualTo(2.5);
+        assertThat(all.counts()[out]).isEqualTo(2);
+        assertThat(all.counts()[PackageStatus.IN_TRANSIT.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    void upsert_overwritesExistingRow() {
+        // Given
+        PackageColumns columns = new PackageColumns(4);
+        columns.upsert(7, PackageStatus.PENDING, 1.0, true);
+
+        // When
+        columns.upsert(7, PackageStatus.IN_TRANSIT, 3.0, false);
+
+        // Then
+        PackageColumns.Totals totals = columns.aggregate(filter(ALL_STATUSES, null), pool);
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(totals.counts()[PackageStatus.PENDING.ordinal()]).isZero();
+        assertThat(totals.weights()[PackageStatus.IN_TRANSIT.ordinal()]).isEqualTo(3.0);
+        assertThat(columns.aggregate(filter(ALL_STATUSES, true), pool).counts()[PackageStatus.IN_TRANSIT.ordinal()])
+                .isZero();
+    }
+
+    @Test
+    void remove_movesLastRowIntoHoleWithItsFragileBit() {
+        // Given
+        PackageColumns columns = new PackageColumns(4);
+        columns.upsert(1, PackageStatus.PENDING, 1.0, false);
+        columns.upsert(2, PackageStatus.PENDING, 2.0, false);
+        columns.upsert(3, PackageStatus.PENDING, 3.0, true);
+
+        // When
+        columns.remove(1);
+        columns.remove(42);
+
+        // Then
+        PackageColumns.Totals fragile = columns.aggregate(filter(ALL_STATUSES, true), pool);
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(fragile.counts()[PackageStatus.PENDING.ordinal()]).isEqualTo(1);
+        assertThat(fragile.weights()[PackageStatus.PENDING.ordinal()]).isEqualTo(3.0);
+
+        columns.upsert(3, PackageStatus.RETURNED, 3.0, true);
+        assertThat(columns.size()).isEqualTo(2);
+    }
+
+    @Test
+    void aggregate_matchesNaiveComputationAfterRandomChurn() {
+        // Given: enough rows for the scan to split, and enough removals to exercise the id index
+        SplittableRandom random = new SplittableRandom(7);
+        PackageColumns columns = new PackageColumns(16);
+        Map<Long, Row> expected = new HashMap<>();
+        for (int i = 0; i < 300_000; i++) {
+            long id = 1 + random.nextInt(200_000);
+            if (random.nextInt(4) == 0) {
+                columns.remove(id);
+                expected.remove(id);
+            } else {
+                Row row = new Row(STATUSES[random.nextInt(STATUSES.length)],
+                        Math.round(random.nextDouble() * 500) / 10.0, random.nextBoolean());
+                columns.upsert(id, row.status, row.weight, row.fragile);
+                expected.put(id, row);
+            }
+        }
+        int mask = (1 << PackageStatus.IN_TRANSIT.ordinal()) | (1 << PackageStatus.OUT_FOR_DELIVERY.ordinal());
+        PackageColumns.Filter filter = new PackageColumns.Filter(mask, true, 10.0, 30.0);
+
+        // When
+        PackageColumns.Totals totals = columns.aggregate(filter, pool);
+
+        // Then
+        long[] counts = new long[STATUSES.length];
+        double[] weights = new double[STATUSES.length];
+        expected.values().stream()
+                .filter(row -> (mask >>> row.status.ordinal() & 1) == 1)
+                .filter(row -> row.fragile && row.weight >= 10.0 && row.weight <= 30.0)
+                .forEach(row -> {
+                    counts[row.status.ordinal()]++;
+                    weights[row.status.ordinal()] += row.weight;
+                });
+        assertThat(columns.size()).isEqualTo(expected.size());
+        assertThat(totals.counts()).containsExactly(counts);
+        for (int s = 0; s < STATUSES.length; s++) {
+            assertThat(totals.weights()[s]).isCloseTo(weights[s], within(1e-6));
+        }
+    }
+
+    @Test
+    void longIntHashMap_keepsEntriesReachableAcrossRemovalsAndGrowth() {
+        // Given
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i * 1_024L, i);
+        }
+
+        // When
+        for (int i = 1; i <= 10_000; i += 2) {
+            assertThat(map.remove(i * 1_024L)).isEqualTo(i);
+        }
+
+        // Then
+        assertThat(map.size()).isEqualTo(5_000);
+        assertThat(map.get(1_024L)).isEqualTo(-1);
+        assertThat(map.remove(1_024L)).isEqualTo(-1);
+        for (int i = 2; i <= 10_000; i += 2) {
+            assertThat(map.get(i * 1_024L)).isEqualTo(i);
+        }
+    }
+
+    private static PackageColumns.Filter filter(int mask, Boolean fragile) {
+        return new PackageColumns.Filter(mask, fragile, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    private record Row(PackageStatus status, double weight, boolean fragile) {
+    }
+}
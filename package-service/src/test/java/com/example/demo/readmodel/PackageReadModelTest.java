@@ -0,0 +1,196 @@
+package com.example.demo.readmodel;
+
+import com.example.demo.events.PackageChangeListener;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageReadModelTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private ObjectProvider<PackageChangeListener> listenerProvider;
+
+    @Mock
+    private PackageChangeListener listener;
+
+    @Mock
+    private ObjectProvider<WarmStartSource> warmStartProvider;
+
+    private PackageReadModel readModel;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(listenerProvider.getIfAvailable()).thenReturn(listener);
+        lenient().when(listener.millisSinceLastPoll()).thenReturn(100L);
+        readModel = new PackageReadModel(jdbc, listenerProvider, warmStartProvider, new SimpleMeterRegistry(), Duration.ofSeconds(5), 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.stop();
+    }
+
+    @Test
+    void rebuild_loadsTableInKeysetBatches() {
+        // Given: two full batches and a short one
+        tableReturns(
+                List.of(tracked(1, PackageStatus.PENDING), tracked(2, PackageStatus.PENDING)),
+                List.of(tracked(3, PackageStatus.DELIVERED), tracked(4, PackageStatus.IN_TRANSIT)),
+                List.of(tracked(5, PackageStatus.DELIVERED)));
+
+        // When
+        readModel.start();
+        awaitServing();
+
+        // Then
+        assertThat(readModel.find(3L)).map(TrackedPackage::status).contains(PackageStatus.DELIVERED);
+        assertThat(readModel.statusCounts())
+                .containsEntry(PackageStatus.PENDING, 2L)
+                .containsEntry(PackageStatus.DELIVERED, 2L)
+                .containsEntry(PackageStatus.IN_TRANSIT, 1L)
+                .containsEntry(PackageStatus.RETURNED, 0L);
+        verify(jdbc).query(anyString(), any(RowMapper.class), eq(Long.MIN_VALUE), eq(2));
+        verify(jdbc).query(anyString(), any(RowMapper.class), eq(2L), eq(2));
+        verify(jdbc).query(anyString(), any(RowMapper.class), eq(4L), eq(2));
+    }
+
+    @Test
+    void onChange_updatesPackagesAndCounts() {
+        tableReturns(List.of(tracked(1, PackageStatus.PENDING)));
+        readModel.start();
+        awaitServing();
+
+        readModel.onChange(change(PackageChangeType.UPDATED, 1, PackageStatus.PROCESSING));
+        readModel.onChange(change(PackageChangeType.CREATED, 2, PackageStatus.PENDING));
+        readModel.onChange(change(PackageChangeType.DELETED, 2, PackageStatus.PENDING));
+
+        assertThat(readModel.find(1L)).map(TrackedPackage::status).contains(PackageStatus.PROCESSING);
+        assertThat(readModel.find(1L)).map(TrackedPackage::lastChangedAt).isPresent();
+        assertThat(readModel.find(2L)).isEmpty();
+        assertThat(readModel.statusCounts())
+                .containsEntry(PackageStatus.PENDING, 0L)
+                .containsEntry(PackageStatus.PROCESSING, 1L);
+    }
+
+    @Test
+    void changesDuringRebuild_areReplayedOnTopOfTheScan() throws Exception {
+        // Given: the scan blocks until a change has arrived
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbc.query(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+            scanning.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(tracked(1, PackageStatus.PENDING));
+        });
+        readModel.start();
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        readModel.onChange(change(PackageChangeType.UPDATED, 1, PackageStatus.PROCESSING));
+        readModel.onChange(change(PackageChangeType.CREATED, 7, PackageStatus.PENDING));
+        assertThat(readModel.isServing()).isFalse();
+        release.countDown();
+        awaitServing();
+
+        // Then
+        assertThat(readModel.find(1L)).map(TrackedPackage::status).contains(PackageStatus.PROCESSING);
+        assertThat(readModel.find(7L)).isPresent();
+    }
+
+    @Test
+    void requestRebuild_keepsServingLiveChangesWhileLoading() throws Exception {
+        // Given: a served view, then a manual rebuild whose scan blocks
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbc.query(anyString(), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(tracked(1, PackageStatus.PENDING)))
+                .thenAnswer(invocation -> {
+                    scanning.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(tracked(1, PackageStatus.PENDING));
+                });
+        readModel.start();
+        awaitServing();
+        await(() -> !readModel.isRebuilding());
+        readModel.requestRebuild();
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        readModel.onChange(change(PackageChangeType.UPDATED, 1, PackageStatus.PROCESSING));
+
+        // Then: reads during the rebuild see the change
+        assertThat(readModel.isServing()).isTrue();
+        assertThat(readModel.find(1L)).map(TrackedPackage::status).contains(PackageStatus.PROCESSING);
+        assertThat(readModel.statusCounts()).containsEntry(PackageStatus.PROCESSING, 1L);
+
+        // And after it, replayed on top of the stale scan
+        release.countDown();
+        await(() -> !readModel.isRebuilding());
+        assertThat(readModel.find(1L)).map(TrackedPackage::status).contains(PackageStatus.PROCESSING);
+    }
+
+    @Test
+    void isServing_falseWhileListenerLags() {
+        tableReturns(List.of());
+        readModel.start();
+        awaitServing();
+
+        when(listener.millisSinceLastPoll()).thenReturn(60_000L);
+        assertThat(readModel.isServing()).isFalse();
+
+        when(listener.millisSinceLastPoll()).thenReturn(100L);
+        assertThat(readModel.isServing()).isTrue();
+    }
+
+    @SafeVarargs
+    private void tableReturns(List<TrackedPackage>... batches) {
+        Iterator<List<TrackedPackage>> remaining = List.of(batches).iterator();
+        when(jdbc.query(anyString(), any(RowMapper.class), any(), any()))
+                .thenAnswer(invocation -> remaining.hasNext() ? remaining.next() : List.of());
+    }
+
+    private void awaitServing() {
+        await(readModel::isServing);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static TrackedPackage tracked(long id, PackageStatus status) {
+        return new TrackedPackage(id, "Package " + id, 1.0, false, status, null);
+    }
+
+    private static PackageChangeEvent change(PackageChangeType type, long id, PackageStatus status) {
+        return PackageChangeEvent.of(type, id, new PackageResponseDTO(id, "Package " + id, 1.0, false, status, null));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.report;
+
+import com.example.demo.model.PackageStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ChunkedAggregatorTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void aggregate_day_readsEachHourOnceAndMergesThem() {
+        // Given
+        ChunkedAggregator aggregator = new ChunkedAggregator(pool, Duration.ofHours(1));
+        Instant from = Instant.parse("2025-06-02T00:00:00Z");
+        Instant to = from.plus(Duration.ofDays(1));
+        List<Instant[]> chunks = new CopyOnWriteArrayList<>();
+
+        // When: every chunk reports one created package
+        ReportPartial total = aggregator.aggregate(from, to, (chunkFrom, chunkTo) -> {
+            chunks.add(new Instant[]{chunkFrom, chunkTo});
+            ReportPartial partial = new ReportPartial();
+            partial.add(null, PackageStatus.PENDING, -1, 1, 0, 0, 1.0);
+            return partial;
+        });
+
+        // Then: 24 contiguous, non-overlapping hours
+        assertThat(total.created()).isEqualTo(24);
+        assertThat(chunks).hasSize(24);
+        chunks.sort((a, b) -> a[0].compareTo(b[0]));
+        assertThat(chunks.get(0)[0]).isEqualTo(from);
+        assertThat(chunks.get(23)[1]).isEqualTo(to);
+        for (int i = 0; i < chunks.size(); i++) {
+            assertThat(Duration.between(chunks.get(i)[0], chunks.get(i)[1])).isEqualTo(Duration.ofHours(1));
+            if (i > 0) {
+                assertThat(chunks.get(i)[0]).isEqualTo(chunks.get(i - 1)[1]);
+            }
+        }
+    }
+
+    @Test
+    void aggregate_partialChunk_endsAtRangeEnd() {
+        // Given
+        ChunkedAggregator aggregator = new ChunkedAggregator(pool, Duration.ofHours(1));
+        Instant from = Instant.parse("2025-06-02T00:00:00Z");
+        Instant to = from.plus(Duration.ofMinutes(150));
+        List<Instant> ends = new CopyOnWriteArrayList<>();
+
+        // When
+        aggregator.aggregate(from, to, (chunkFrom, chunkTo) -> {
+            ends.add(chunkTo);
+            return new ReportPartial();
+        });
+
+        // Then
+        assertThat(ends).hasSize(3).contains(to);
+    }
+
+    @Test
+    void aggregate_emptyRange_readsNothing() {
+        ChunkedAggregator aggregator = new ChunkedAggregator(pool, Duration.ofHours(1));
+        Instant at = Instant.parse("2025-06-02T00:00:00Z");
+
+        ReportPartial total = aggregator.aggregate(at, at, (chunkFrom, chunkTo) -> {
+            throw new AssertionError("no chunk expected");
+        });
+
+        assertThat(total.created()).isZero();
+    }
+}
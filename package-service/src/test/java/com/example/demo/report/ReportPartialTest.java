@@ -0,0 +1,58 @@
+package com.example.demo.report;
+
+import com.example.demo.model.PackageStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReportPartialTest {
+
+    @Test
+    void bucketOf_powersOfTwo_startTheirOwnBucket() {
+        assertThat(ReportPartial.bucketOf(0)).isZero();
+        assertThat(ReportPartial.bucketOf(1)).isZero();
+        assertThat(ReportPartial.bucketOf(7)).isEqualTo(2);
+        assertThat(ReportPartial.bucketOf(8)).isEqualTo(3);
+        assertThat(ReportPartial.bucketOf(Long.MAX_VALUE)).isEqualTo(ReportPartial.BUCKETS - 1);
+    }
+
+    @Test
+    void merge_addsTotalsAndKeepsMaximum() {
+        // Given
+        ReportPartial first = new ReportPartial();
+        first.add(null, PackageStatus.PENDING, -1, 3, 0, 0, 30.0);
+        first.add(PackageStatus.IN_TRANSIT, PackageStatus.OUT_FOR_DELIVERY,
+                ReportPartial.bucketOf(5_000), 2, 9_000, 5_000, 12.5);
+        ReportPartial second = new ReportPartial();
+        second.add(PackageStatus.IN_TRANSIT, PackageStatus.OUT_FOR_DELIVERY,
+                ReportPartial.bucketOf(60_000), 1, 60_000, 60_000, 4.0);
+
+        // When
+        ReportPartial merged = new ReportPartial().merge(first).merge(second);
+
+        // Then
+        assertThat(merged.created()).isEqualTo(3);
+        assertThat(merged.entered(PackageStatus.PENDING)).isEqualTo(3);
+        assertThat(merged.entered(PackageStatus.OUT_FOR_DELIVERY)).isEqualTo(3);
+        assertThat(merged.enteredWeight(PackageStatus.OUT_FOR_DELIVERY)).isEqualTo(16.5);
+        assertThat(merged.dwellCount(PackageStatus.IN_TRANSIT)).isEqualTo(3);
+        assertThat(merged.dwellSumMs(PackageStatus.IN_TRANSIT)).isEqualTo(69_000);
+        assertThat(merged.dwellMaxMs(PackageStatus.IN_TRANSIT)).isEqualTo(60_000);
+        assertThat(first.dwellCount(PackageStatus.IN_TRANSIT)).isEqualTo(2);
+    }
+
+    @Test
+    void dwellPercentileMs_isBucketUpperBoundCappedByMaximum() {
+        // Given: 90 dwell times of ~1 s and 10 of ~100 s
+        ReportPartial partial = new ReportPartial();
+        partial.add(PackageStatus.PROCESSING, PackageStatus.IN_TRANSIT,
+                ReportPartial.bucketOf(1_000), 90, 90_000, 1_000, 0);
+        partial.add(PackageStatus.PROCESSING, PackageStatus.IN_TRANSIT,
+                ReportPartial.bucketOf(100_000), 10, 1_000_000, 100_000, 0);
+
+        // When & Then
+        assertThat(partial.dwellPercentileMs(PackageStatus.PROCESSING, 0.5)).isBetween(1_000L, 2_000L);
+        assertThat(partial.dwellPercentileMs(PackageStatus.PROCESSING, 0.95)).isEqualTo(100_000);
+        assertThat(partial.dwellPercentileMs(PackageStatus.PENDING, 0.5)).isZero();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageField;
+import com.example.demo.support.PostgresContainerSupport;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the execution plan of every {@link PackageRepository} query against the
+ * schema created by the Flyway migrations.
+ * <p>
+ * Each test calls the real repository method, captures the SQL and bind values
+ * Hibernate sent through a datasource-proxy listener, and EXPLAINs exactly that
+ * statement. Sequential scans are disabled for the test transaction, so the planner
+ * only falls back to one when no index can serve the query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PackageRepositoryQueryPlanTest extends PostgresContainerSupport {
+
+    private static final StatementCapture CAPTURE = new StatementCapture();
+
+    @Autowired
+    private PackageRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static BeanPostProcessor statementCapturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(CAPTURE)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("""
+                INSERT INTO packages (description, weight, fragile, status)
+                SELECT 'Package ' || g, (g % 50) + 1, g % 7 = 0,
+                       (ARRAY['PENDING','PROCESSING','IN_TRANSIT','OUT_FOR_DELIVERY',
+                              'DELIVERED','FAILED_DELIVERY','RETURNED'])[g % 7 + 1]
+                FROM generate_series(1, 5000) g
+                """);
+        jdbc.execute("ANALYZE packages");
+        jdbc.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void existsByDescriptionIgnoreCase_usesUpperDescriptionIndex() {
+        assertIndexScan(captured(() -> repository.existsByDescriptionIgnoreCase("package 42")),
+                "idx_packages_description_upper");
+    }
+
+    @Test
+    void findById_usesPrimaryKey() {
+        assertIndexScan(captured(() -> repository.findById(42L)), "packages_pkey");
+    }
+
+    @Test
+    void findAllBy_sortedByPackageId_usesPrimaryKey() {
+        assertIndexScan(captured(() -> repository.findAllBy(
+                PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "packageId")))), "packages_pkey");
+    }
+
+    @Test
+    void findAllBy_sortedByDescription_usesDescriptionIndex() {
+        assertIndexScan(captured(() -> repository.findAllBy(
+                PageRequest.of(0, 10, Sort.by("description").and(Sort.by("packageId"))))),
+                "idx_packages_description_id");
+    }
+
+    @Test
+    void findAllBy_sortedByStatusDesc_usesStatusIndexBackward() {
+        assertIndexScan(captured(() -> repository.findAllBy(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "status", "packageId")))),
+                "idx_packages_status_id");
+    }
+
+    @Test
+    void findProjected_sortedByStatusDesc_usesStatusIndexBackward() {
+        assertIndexScan(captured(() -> repository.findProjected(EnumSet.of(PackageField.PACKAGE_ID, PackageField.STATUS),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "status", "packageId")))),
+                "idx_packages_status_id");
+    }
+
+    @Test
+    void findProjectedById_usesPrimaryKey() {
+        assertIndexScan(captured(() -> repository.findProjectedById(42L,
+                EnumSet.of(PackageField.PACKAGE_ID, PackageField.STATUS))), "packages_pkey");
+    }
+
+    @Test
+    void findAllById_usesPrimaryKey() {
+        // The batch get reads its ids in chunks of one IN list each
+        assertIndexUsed(captured(() -> repository.findAllById(List.of(3L, 42L, 512L, 4096L))), "packages_pkey");
+    }
+
+    @Test
+    void findAll_pageAndCount_useIndexes() {
+        // A page short of the total runs the COUNT(*) query as well
+        List<Statement> statements = capturedAll(() -> repository.findAll(
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "packageId"))));
+
+        assertThat(statements).as("statements executed").hasSize(2);
+        assertIndexScan(statements.get(0), "packages_pkey");
+        assertThat(explain(statements.get(1)))
+                .as("plan for: %s", statements.get(1))
+                .doesNotContain("Seq Scan")
+                .contains("Index Only Scan");
+    }
+
+    @Test
+    void sortableFields_areBackedByIndexes() {
+        assertThat(new SortIndexVerifier(jdbc).unindexedSortFields()).isEmpty();
+    }
+
+    @Test
+    void estimateCount_usesCatalogIndex() {
+        assertIndexScan(captured(repository::estimateCount), "pg_class_oid_index", "pg_class");
+    }
+
+    @Test
+    void findPlannableByStatus_usesStatusIndex() {
+        // One status is a seventh of the table: the planner may use a bitmap scan over the index
+        assertIndexUsed(captured(() -> repository.findPlannableByStatus(PackageStatus.PROCESSING)),
+                "idx_packages_status_id");
+    }
+
+    @Test
+    void countByStatus_usesStatusIndex() {
+        assertIndexUsed(captured(repository::countByStatus), "idx_packages_status_id");
+    }
+
+    @Test
+    void findPackageIdByTrackingCode_usesTrackingCodeIndex() {
+        assertIndexScan(captured(() -> repository.findPackageIdByTrackingCode(123456789L)),
+                "idx_packages_tracking_code");
+    }
+
+    @Test
+    void matchDescriptions_usesUpperDescriptionIndex() {
+        assertIndexUsed(captured(() -> repository.matchDescriptions(
+                        new String[]{"Package 1", "package 2", "PACKAGE 3", "Package 4"})),
+                "idx_packages_description_upper");
+    }
+
+    @Test
+    void aggregateByStatus_usesStatusIndex() {
+        assertIndexUsed(captured(() -> repository.aggregateByStatus(
+                        EnumSet.of(PackageStatus.IN_TRANSIT, PackageStatus.OUT_FOR_DELIVERY), true, 10, 30)),
+                "idx_packages_status_id");
+    }
+
+    /** The one statement the call sent to the database. */
+    private static Statement captured(Runnable call) {
+        List<Statement> statements = capturedAll(call);
+        assertThat(statements).as("statements executed").hasSize(1);
+        return statements.get(0);
+    }
+
+    private static List<Statement> capturedAll(Runnable call) {
+        return CAPTURE.during(call);
+    }
+
+    private String explain(Statement statement) {
+        return String.join("\n",
+                jdbc.queryForList("EXPLAIN " + statement.sql(), String.class, statement.parameters().toArray()));
+    }
+
+    private void assertIndexUsed(Statement statement, String expectedIndex) {
+        assertThat(explain(statement))
+                .as("plan for: %s", statement)
+                .doesNotContain("Seq Scan")
+                .containsAnyOf("using " + expectedIndex + " on packages", "Bitmap Index Scan on " + expectedIndex);
+    }
+
+    private void assertIndexScan(Statement statement, String expectedIndex) {
+        assertIndexScan(statement, expectedIndex, "packages");
+    }
+
+    private void assertIndexScan(Statement statement, String expectedIndex, String table) {
+        assertThat(explain(statement))
+                .as("plan for: %s", statement)
+                .doesNotContain("Seq Scan")
+                .contains("using " + expectedIndex + " on " + table);
+    }
+
+    private record Statement(String sql, List<Object> parameters) {
+    }
+
+    /** Records the statements executed while {@link #during} runs; the tests run on one thread. */
+    private static final class StatementCapture implements QueryExecutionListener {
+
+        private List<Statement> statements;
+
+        List<Statement> during(Runnable call) {
+            statements = new ArrayList<>();
+            try {
+                call.run();
+                return statements;
+            } finally {
+                statements = null;
+            }
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (statements == null) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> bindings = query.getParametersList();
+                statements.add(new Statement(query.getQuery(), bindings.isEmpty() ? List.of() : values(bindings.get(0))));
+            }
+        }
+
+        // Bind values in parameter order; setNull records the SQL type where the value would be
+        private static List<Object> values(List<ParameterSetOperation> operations) {
+            return operations.stream()
+                    .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                    .map(operation -> "setNull".equals(operation.getMethod().getName()) ? null : operation.getArgs()[1])
+                    .toList();
+        }
+    }
+}
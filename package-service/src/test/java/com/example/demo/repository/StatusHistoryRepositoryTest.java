@@ -0,0 +1,90 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PackageStatus;
+import com.example.demo.report.ReportPartial;
+import com.example.demo.support.PostgresContainerSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The status change trigger of the V6 migration and the chunk aggregation reading
+ * what it writes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatusHistoryRepository.class)
+class StatusHistoryRepositoryTest extends PostgresContainerSupport {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private StatusHistoryRepository historyRepo;
+
+    @Test
+    void aggregate_countsCreationsTransitionsAndDwellTimes() {
+        // Given: three packages created, two of which left PENDING after two hours
+        Instant start = Instant.now().minus(Duration.ofMinutes(1));
+        jdbc.update("""
+                INSERT INTO packages (package_id, description, weight, fragile, status)
+                VALUES (101, 'Report 1', 10, false, 'PENDING'),
+                       (102, 'Report 2', 20, false, 'PENDING'),
+                       (103, 'Report 3', 5, true, 'PENDING')
+                """);
+        jdbc.update("UPDATE packages SET status_changed_at = clock_timestamp() - interval '2 hours' "
+                + "WHERE package_id IN (101, 102)");
+        jdbc.update("UPDATE packages SET status = 'PROCESSING' WHERE package_id IN (101, 102)");
+        // Not a status change: no history row
+        jdbc.update("UPDATE packages SET status = 'PROCESSING', weight = 21 WHERE package_id = 102");
+
+        // When
+        ReportPartial partial = historyRepo.aggregate(start, Instant.now().plus(Duration.ofMinutes(1)));
+
+        // Then
+        assertThat(partial.created()).isEqualTo(3);
+        assertThat(partial.entered(PackageStatus.PENDING)).isEqualTo(3);
+        assertThat(partial.enteredWeight(PackageStatus.PENDING)).isEqualTo(35.0);
+        assertThat(partial.entered(PackageStatus.PROCESSING)).isEqualTo(2);
+        assertThat(partial.dwellCount(PackageStatus.PENDING)).isEqualTo(2);
+        assertThat(partial.dwellMaxMs(PackageStatus.PENDING)).isBetween(7_200_000L, 7_260_000L);
+        // 2 h is in the [2^22, 2^23) ms bucket
+        assertThat(partial.dwellPercentileMs(PackageStatus.PENDING, 0.5)).isEqualTo(partial.dwellMaxMs(PackageStatus.PENDING));
+    }
+
+    @Test
+    void aggregate_rangeBeforeTheChanges_isEmpty() {
+        jdbc.update("INSERT INTO packages (package_id, description, weight, fragile, status) "
+                + "VALUES (201, 'Report 4', 1, false, 'PENDING')");
+
+        ReportPartial partial = historyRepo.aggregate(Instant.parse("2000-01-01T00:00:00Z"),
+                Instant.parse("2000-01-02T00:00:00Z"));
+
+        assertThat(partial.created()).isZero();
+    }
+
+    @Test
+    void trigger_skipStatusHistorySetting_onlyStampsTheStatusTime() {
+        // Given: a bulk load opting out of the history, as the dataset generator does
+        jdbc.queryForObject("SELECT set_config('app.skip_status_history', 'on', true)", String.class);
+
+        // When
+        jdbc.update("INSERT INTO packages (package_id, description, weight, fragile, status) "
+                + "VALUES (301, 'Seeded 1', 1, false, 'PENDING')");
+        jdbc.update("UPDATE packages SET status = 'PROCESSING' WHERE package_id = 301");
+
+        // Then
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM package_status_history WHERE package_id = 301",
+                Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT status_changed_at IS NOT NULL FROM packages WHERE package_id = 301",
+                Boolean.class)).isTrue();
+    }
+}
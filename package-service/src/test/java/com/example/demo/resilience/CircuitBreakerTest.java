@@ -0,0 +1,100 @@
+package com.example.demo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(5), 2, now::get);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        // When
+        record(true, true, true);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensAtFailureRateThreshold() {
+        // When
+        record(false, true, false, true);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.retryAfter()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void windowForgetsOldOutcomes() {
+        // Given
+        record(true, false, false, false);
+
+        // When - the failure slides out of the window
+        record(false, false, true);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenAdmitsTrialCallsAndClosesWhenTheySucceed() {
+        // Given
+        record(true, true, true, true);
+        advance(5);
+
+        // When
+        boolean first = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+        boolean third = breaker.tryAcquire();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.record(false);
+        breaker.record(false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // A fresh window: three failures are below the minimum again
+        record(true, true, true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopens() {
+        // Given
+        record(true, true, true, true);
+        advance(5);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // When
+        breaker.record(true);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failed : failures) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.record(failed);
+        }
+    }
+
+    private void advance(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
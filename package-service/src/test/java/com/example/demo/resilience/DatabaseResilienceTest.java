@@ -0,0 +1,172 @@
+package com.example.demo.resilience;
+
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.service.PackageService;
+import com.example.demo.support.LatencyProxy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deadlines and the repository circuit breaker against a database reached through
+ * a {@link LatencyProxy}, so the tests can make it slow on demand.
+ */
+@SpringBootTest(properties = {
+        "app.circuit-breaker.window-size=4",
+        "app.circuit-breaker.minimum-calls=4",
+        "app.circuit-breaker.slow-call-threshold=200ms",
+        "app.circuit-breaker.open-duration=1s",
+        "app.circuit-breaker.trial-calls=1",
+        "app.change-stream.enabled=false",
+        "app.read-model.enabled=false",
+        "app.snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DatabaseResilienceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static LatencyProxy proxy;
+
+    @Autowired
+    private PackageService packageService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CircuitBreaker breaker;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${api.prefix}")
+    private String apiPrefix;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        if (proxy == null) {
+            proxy = new LatencyProxy(POSTGRES.getHost(), POSTGRES.getFirstMappedPort());
+        }
+        registry.add("spring.datasource.url",
+                () -> "jdbc:postgresql://127.0.0.1:" + proxy.port() + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("app.id.worker-id", () -> "1");
+    }
+
+    @AfterEach
+    void removeLatency() {
+        proxy.setLatency(Duration.ZERO);
+    }
+
+    @AfterAll
+    static void closeProxy() throws IOException {
+        proxy.close();
+    }
+
+    @Test
+    void statementUnderDeadline_isCancelledWhenTheDeadlineExpires() {
+        // When
+        long start = System.nanoTime();
+        Throwable thrown;
+        try (Deadline.Scope scope = Deadline.begin(Duration.ofMillis(200))) {
+            thrown = catchThrowable(() -> jdbc.queryForObject("SELECT pg_sleep(5)", String.class));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(thrown).isInstanceOf(DataAccessException.class);
+        assertThat(((DataAccessException) thrown).getMostSpecificCause())
+                .isInstanceOfSatisfying(SQLException.class, e -> assertThat(e.getSQLState()).isEqualTo("57014"));
+        assertThat(elapsedMillis).isLessThan(2_000);
+    }
+
+    @Test
+    void requestTimeoutHeader_failsLaterRepositoryCallsWith504() throws Exception {
+        // Given
+        PackageResponseDTO created = packageService.createPackage(request(PackageStatus.PENDING));
+        proxy.setLatency(Duration.ofMillis(300));
+
+        // When & Then - the lookup takes the whole budget, so the save is never attempted
+        mockMvc.perform(put(apiPrefix + "/packages/" + created.packageId())
+                        .header(DeadlineFilter.TIMEOUT_HEADER, "150")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "%s", "weight": 10.0, "fragile": false, "status": "PROCESSING"}
+                                """.formatted(created.description())))
+                .andExpect(status().isGatewayTimeout());
+
+        proxy.setLatency(Duration.ZERO);
+        assertThat(packageService.getPackageById(created.packageId()).status()).isEqualTo(PackageStatus.PENDING);
+    }
+
+    @Test
+    void slowDatabase_opensTheBreakerAndFailsFastWith503() throws Exception {
+        // Given
+        PackageResponseDTO created = packageService.createPackage(request(PackageStatus.PENDING));
+        proxy.setLatency(Duration.ofMillis(300));
+
+        // When - four slow calls fill the window
+        for (int i = 0; i < 4; i++) {
+            try {
+                packageService.getPackageById(-1L);
+            } catch (ResourceNotFoundException expected) {
+                // Slow either way
+            }
+        }
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        long start = System.nanoTime();
+        mockMvc.perform(get(apiPrefix + "/packages/" + created.packageId()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(300);
+
+        // And once the database recovers, a trial call closes it again
+        proxy.setLatency(Duration.ZERO);
+        TimeUnit.MILLISECONDS.sleep(1_100);
+        assertThat(packageService.getPackageById(created.packageId()).packageId()).isEqualTo(created.packageId());
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    // Contexts are rebuilt per test but the database is shared, so descriptions must stay unique
+    private static PackageRequestDTO request(PackageStatus status) {
+        return new PackageRequestDTO("Resilience package " + System.nanoTime(), 10.0, false, status);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.exceptions.TooManyRequestsException;
+import com.example.demo.mapper.PackageMapper;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CreateRequestState;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageCreateStatusDTO;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.repository.DescriptionMatch;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.service.impl.AsyncCreateServiceImpl;
+import com.example.demo.service.impl.PackageTotalCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncCreateServiceImplTest {
+
+    @Mock
+    private PackageRepository pkgRepo;
+
+    @Mock
+    private PackageMapper pkgMapper;
+
+    @Mock
+    private PackageTotalCounter totalCounter;
+
+    @Mock
+    private TransactionTemplate txTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AsyncCreateServiceImpl service;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setup() {
+        service = new AsyncCreateServiceImpl(pkgRepo, pkgMapper, totalCounter, txTemplate, eventPublisher,
+                new SimpleMeterRegistry(), 3, 100, Duration.ZERO, Duration.ofMinutes(1));
+        lenient().when(txTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(pkgMapper.toEntity(any(PackageRequestDTO.class))).thenAnswer(invocation -> {
+            PackageRequestDTO request = invocation.getArgument(0);
+            PackageEntity entity = new PackageEntity();
+            entity.setDescription(request.description());
+            entity.setWeight(request.weight());
+            entity.setFragile(request.fragile());
+            entity.setStatus(request.status());
+            return entity;
+        });
+        lenient().when(pkgMapper.toResponseDto(any(PackageEntity.class))).thenAnswer(invocation -> {
+            PackageEntity entity = invocation.getArgument(0);
+            return new PackageResponseDTO(entity.getPackageId(), entity.getDescription(), entity.getWeight(),
+                    entity.getFragile(), entity.getStatus(), null);
+        });
+        lenient().when(pkgRepo.saveAll(anyIterable())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        lenient().when(pkgRepo.matchDescriptions(any())).thenAnswer(invocation -> matches(invocation.getArgument(0)));
+    }
+
+    @Test
+    void submit_invalidRequest_isRejectedSynchronously() {
+        // When / Then
+        assertThatThrownBy(() -> service.submit(request("Too heavy", 60.0)))
+                .isInstanceOf(APIException.class)
+                .hasMessage("Weight must not exceed 50.0 kg");
+        service.drain();
+        verifyNoInteractions(txTemplate);
+    }
+
+    @Test
+    void drain_groupCommitsQueuedRequestsInOneTransaction() {
+        // Given
+        PackageCreateStatusDTO first = service.submit(request("First package", 1.0));
+        PackageCreateStatusDTO second = service.submit(request("Second package", 2.0));
+        assertThat(first.state()).isEqualTo(CreateRequestState.ACCEPTED);
+
+        // When
+        service.drain();
+
+        // Then
+        verify(txTemplate, times(1)).execute(any());
+        verify(pkgRepo, times(1)).saveAll(anyIterable());
+        verify(eventPublisher, times(2)).publishEvent(any(PackageChangeEvent.class));
+        verify(totalCounter).invalidateAfterCommit();
+        PackageCreateStatusDTO created = service.status(first.handle());
+        assertThat(created.state()).isEqualTo(CreateRequestState.CREATED);
+        assertThat(created.pkg().description()).isEqualTo("First package");
+        assertThat(created.pkg().packageId()).isNotNull();
+        assertThat(service.status(second.handle()).state()).isEqualTo(CreateRequestState.CREATED);
+    }
+
+    @Test
+    void drain_duplicateDescriptions_failOnlyThoseRequests() {
+        // Given: one description exists, another appears twice in the batch
+        when(pkgRepo.matchDescriptions(any())).thenAnswer(invocation -> matches(invocation.getArgument(0), "TAKEN"));
+        PackageCreateStatusDTO taken = service.submit(request("Taken", 1.0));
+        PackageCreateStatusDTO original = service.submit(request("Twice", 1.0));
+        PackageCreateStatusDTO duplicate = service.submit(request("twice", 1.0));
+
+        // When
+        service.drain();
+
+        // Then
+        assertThat(service.status(taken.handle()))
+                .extracting(PackageCreateStatusDTO::state, PackageCreateStatusDTO::error)
+                .containsExactly(CreateRequestState.FAILED, "Package with description 'Taken' already exists");
+        assertThat(service.status(original.handle()).state()).isEqualTo(CreateRequestState.CREATED);
+        assertThat(service.status(duplicate.handle()).state()).isEqualTo(CreateRequestState.FAILED);
+    }
+
+    @Test
+    void drain_failedBatch_isRetriedOneByOne() {
+        // Given
+        doThrow(new DataIntegrityViolationException("batch rejected"))
+                .doAnswer(invocation -> assignIds(invocation.getArgument(0)))
+                .doThrow(new DataIntegrityViolationException("row rejected"))
+                .when(pkgRepo).saveAll(anyIterable());
+        PackageCreateStatusDTO first = service.submit(request("First package", 1.0));
+        PackageCreateStatusDTO second = service.submit(request("Second package", 1.0));
+
+        // When
+        service.drain();
+
+        // Then
+        verify(txTemplate, times(3)).execute(any());
+        assertThat(service.status(first.handle()).state()).isEqualTo(CreateRequestState.CREATED);
+        assertThat(service.status(second.handle()))
+                .extracting(PackageCreateStatusDTO::state, PackageCreateStatusDTO::error)
+                .containsExactly(CreateRequestState.FAILED, "Could not create the package");
+    }
+
+    @Test
+    void submit_fullQueue_throwsTooManyRequests() {
+        // Given: capacity 3
+        for (int i = 0; i < 3; i++) {
+            service.submit(request("Package " + i, 1.0));
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> service.submit(request("One too many", 1.0)))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void status_unknownHandle_throwsNotFound() {
+        assertThatThrownBy(() -> service.status(UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // Stands in for the database's UPPER()
+    private static List<DescriptionMatch> matches(String[] descriptions, String... storedFolded) {
+        List<DescriptionMatch> matches = new ArrayList<>();
+        for (String description : descriptions) {
+            String folded = description.toUpperCase(Locale.ROOT);
+            boolean taken = List.of(storedFolded).contains(folded);
+            matches.add(new DescriptionMatch() {
+                @Override
+                public String getDescription() {
+                    return description;
+                }
+
+                @Override
+                public String getFolded() {
+                    return folded;
+                }
+
+                @Override
+                public boolean getTaken() {
+                    return taken;
+                }
+            });
+        }
+        return matches;
+    }
+
+    private List<PackageEntity> assignIds(Iterable<PackageEntity> entities) {
+        List<PackageEntity> saved = new ArrayList<>();
+        entities.forEach(entity -> {
+            entity.setPackageId(nextId.getAndIncrement());
+            saved.add(entity);
+        });
+        return saved;
+    }
+
+    private static PackageRequestDTO request(String description, double weight) {
+        return new PackageRequestDTO(description, weight, false, PackageStatus.PENDING);
+    }
+}
@@ -1,27 +1,40 @@
 package com.example.demo.service;
 
 import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ErrorCode;
 import com.example.demo.exceptions.ResourceNotFoundException;
 import com.example.demo.mapper.PackageMapper;
 import com.example.demo.model.PackageEntity;
 import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageBatchResponseDTO;
+import com.example.demo.payload.PackageChangeEvent;
+import com.example.demo.payload.PackageChangeType;
+import com.example.demo.payload.PackageField;
 import com.example.demo.payload.PackageRequestDTO;
 import com.example.demo.payload.PackageResponse;
 import com.example.demo.payload.PackageResponseDTO;
 import com.example.demo.repository.PackageRepository;
 import com.example.demo.service.impl.PackageServiceImpl;
+import com.example.demo.service.impl.PackageTotalCounter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +48,12 @@ class PackageServiceImplTest {
     @Mock
     private PackageMapper pkgMapper;
 
+    @Mock
+    private PackageTotalCounter totalCounter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PackageServiceImpl service;
 
@@ -75,13 +94,17 @@ class PackageServiceImplTest {
                 savedEntity.getDescription(),
                 savedEntity.getWeight(),
                 savedEntity.getFragile(),
-                savedEntity.getStatus()
+                savedEntity.getStatus(),
+                null
             ));
 
         PackageResponseDTO result = service.createPackage(validRequest);
 
         assertThat(result.packageId()).isEqualTo(savedEntity.getPackageId());
         verify(pkgRepo).save(pkgEntity);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PackageChangeEvent change
+                && change.type() == PackageChangeType.CREATED
+                && change.packageId().equals(savedEntity.getPackageId())));
     }
 
     @Test
@@ -97,6 +120,22 @@ class PackageServiceImplTest {
         verifyNoInteractions(pkgRepo, pkgMapper);
     }
 
+    @Test
+    void createPackage_rejection_isStacklessWithCode() {
+        // Given
+        PackageRequestDTO tooHeavy = new PackageRequestDTO(
+            "Hefty item", 60.0, false, PackageStatus.PENDING
+        );
+
+        // When
+        Throwable thrown = catchThrowable(() -> service.createPackage(tooHeavy));
+
+        // Then
+        assertThat(thrown).isInstanceOf(APIException.class);
+        assertThat(((APIException) thrown).getErrorCode()).isEqualTo(ErrorCode.WEIGHT_LIMIT_EXCEEDED);
+        assertThat(thrown.getStackTrace()).isEmpty();
+    }
+
     @Test
     void createPackage_invalidStatus_throws() {
         PackageRequestDTO badStatus = new PackageRequestDTO(
@@ -201,6 +240,32 @@ class PackageServiceImplTest {
         verifyNoInteractions(pkgRepo, pkgMapper);
     }
 
+    @Test
+    void getAllPackages_unsortableField_throwsBeforeQuery() {
+        // When & Then
+        assertThatThrownBy(() -> service.getAllPackages(0, 5, "weight", "asc"))
+            .isInstanceOf(APIException.class)
+            .hasMessageContaining("Cannot sort by 'weight'")
+            .hasMessageContaining("packageId, description, status");
+
+        verifyNoInteractions(pkgRepo, pkgMapper);
+    }
+
+    @Test
+    void getAllPackages_nonUniqueSortField_addsPackageIdTiebreak() {
+        // Given
+        when(pkgRepo.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        // When
+        service.getAllPackages(0, 5, "status", "desc");
+
+        // Then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(pkgRepo).findAll(pageable.capture());
+        assertThat(pageable.getValue().getSort())
+            .containsExactly(Sort.Order.desc("status"), Sort.Order.desc("packageId"));
+    }
+
     @Test
     void getAllPackages_negativePageNumber_usesDefault() {
         // Given
@@ -263,6 +328,178 @@ class PackageServiceImplTest {
         verify(pkgRepo).findAll(any(Pageable.class));
     }
 
+    @Test
+    void getAllPackages_estimatedCount_skipsCountQuery() {
+        // Given
+        List<PackageEntity> entities = createTestEntities();
+        SliceImpl<PackageEntity> slice = new SliceImpl<>(entities,
+            org.springframework.data.domain.PageRequest.of(0, 2), true);
+
+        List<PackageResponseDTO> responseDTOs = createTestResponseDTOs();
+
+        when(pkgRepo.findAllBy(any(Pageable.class))).thenReturn(slice);
+        when(pkgMapper.toResponseDto(any(PackageEntity.class)))
+            .thenReturn(responseDTOs.get(0), responseDTOs.get(1));
+        when(totalCounter.count(CountStrategy.ESTIMATED))
+            .thenReturn(new PackageTotalCounter.TotalCount(100, false));
+
+        // When
+        PackageResponse result = service.getAllPackages(0, 2, null, null, CountStrategy.ESTIMATED);
+
+        // Then
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(100);
+        assertThat(result.getTotalPages()).isEqualTo(50);
+        assertThat(result.isLastPage()).isFalse();
+        assertThat(result.getCountStrategy()).isEqualTo(CountStrategy.ESTIMATED);
+        assertThat(result.isTotalExact()).isFalse();
+
+        verify(pkgRepo, never()).findAll(any(Pageable.class));
+        verify(pkgRepo, never()).count();
+    }
+
+    @Test
+    void getAllPackages_estimateBelowSeenRows_isRaisedToSeenRows() {
+        // Given - stale statistics claim fewer rows than the requested page proves to exist
+        List<PackageEntity> entities = createTestEntities();
+        SliceImpl<PackageEntity> slice = new SliceImpl<>(entities,
+            org.springframework.data.domain.PageRequest.of(3, 2), true);
+
+        when(pkgRepo.findAllBy(any(Pageable.class))).thenReturn(slice);
+        when(totalCounter.count(CountStrategy.ESTIMATED))
+            .thenReturn(new PackageTotalCounter.TotalCount(1, false));
+
+        // When
+        PackageResponse result = service.getAllPackages(3, 2, null, null, CountStrategy.ESTIMATED);
+
+        // Then - 3 full pages before, 2 rows here, and at least one more
+        assertThat(result.getTotalElements()).isEqualTo(9);
+        assertThat(result.getTotalPages()).isEqualTo(5);
+        assertThat(result.isLastPage()).isFalse();
+    }
+
+    @Test
+    void getAllPackages_exactCount_flagsExactTotals() {
+        // Given
+        Page<PackageEntity> page = new PageImpl<>(List.of(),
+            org.springframework.data.domain.PageRequest.of(0, 5), 0);
+        when(pkgRepo.findAll(any(Pageable.class))).thenReturn(page);
+
+        // When
+        PackageResponse result = service.getAllPackages(0, 5, null, null, CountStrategy.EXACT);
+
+        // Then
+        assertThat(result.getCountStrategy()).isEqualTo(CountStrategy.EXACT);
+        assertThat(result.isTotalExact()).isTrue();
+        verifyNoInteractions(totalCounter);
+    }
+
+    @Test
+    void getAllPackages_sparseFields_usesProjection() {
+        // Given
+        EnumSet<PackageField> fields = EnumSet.of(PackageField.PACKAGE_ID, PackageField.STATUS);
+        List<PackageResponseDTO> projected = List.of(
+            new PackageResponseDTO(1L, null, null, null, PackageStatus.PENDING, null),
+            new PackageResponseDTO(2L, null, null, null, PackageStatus.IN_TRANSIT, null)
+        );
+        when(pkgRepo.findProjected(eq(fields), any(Pageable.class))).thenReturn(
+            new SliceImpl<>(projected, org.springframework.data.domain.PageRequest.of(0, 10), false));
+        when(totalCounter.count(CountStrategy.EXACT)).thenReturn(new PackageTotalCounter.TotalCount(2, true));
+
+        // When
+        PackageResponse result = service.getAllPackages(0, 10, null, null, CountStrategy.EXACT, fields);
+
+        // Then
+        assertThat(result.getContent()).containsExactlyElementsOf(projected);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.isTotalExact()).isTrue();
+        assertThat(result.isLastPage()).isTrue();
+
+        verify(pkgRepo, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(pkgMapper);
+    }
+
+    @Test
+    void getPackageById_sparseFields_usesProjection() {
+        // Given
+        EnumSet<PackageField> fields = EnumSet.of(PackageField.PACKAGE_ID, PackageField.STATUS);
+        PackageResponseDTO projected = new PackageResponseDTO(1L, null, null, null, PackageStatus.PENDING, null);
+        when(pkgRepo.findProjectedById(1L, fields)).thenReturn(Optional.of(projected));
+
+        // When
+        PackageResponseDTO result = service.getPackageById(1L, fields);
+
+        // Then
+        assertThat(result).isEqualTo(projected);
+        verify(pkgRepo, never()).findById(any());
+        verifyNoInteractions(pkgMapper);
+    }
+
+    @Test
+    void getPackageById_sparseFieldsMissingId_throwsResourceNotFoundException() {
+        // Given
+        EnumSet<PackageField> fields = EnumSet.of(PackageField.STATUS);
+        when(pkgRepo.findProjectedById(999L, fields)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> service.getPackageById(999L, fields))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Package not found with id: 999");
+    }
+
+    @Test
+    void getPackagesByIds_preservesRequestOrderAndReportsMissing() {
+        // Given
+        PackageEntity first = entity(3L, PackageStatus.PENDING);
+        PackageEntity second = entity(1L, PackageStatus.DELIVERED);
+        when(pkgRepo.findAllById(List.of(3L, 2L, 1L))).thenReturn(List.of(second, first));
+        when(pkgMapper.toResponseDto(any(PackageEntity.class))).thenAnswer(invocation -> {
+            PackageEntity pkg = invocation.getArgument(0);
+            return new PackageResponseDTO(pkg.getPackageId(), pkg.getDescription(), pkg.getWeight(),
+                    pkg.getFragile(), pkg.getStatus(), null);
+        });
+
+        // When
+        PackageBatchResponseDTO result = service.getPackagesByIds(List.of(3L, 2L, 1L, 3L));
+
+        // Then
+        assertThat(result.packages()).extracting(PackageResponseDTO::packageId).containsExactly(3L, 1L);
+        assertThat(result.missingIds()).containsExactly(2L);
+    }
+
+    @Test
+    void getPackagesByIds_queriesInChunks() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        when(pkgRepo.findAllById(anyList())).thenReturn(List.of());
+
+        // When
+        PackageBatchResponseDTO result = service.getPackagesByIds(ids);
+
+        // Then
+        verify(pkgRepo).findAllById(ids.subList(0, 100));
+        verify(pkgRepo).findAllById(ids.subList(100, 200));
+        verify(pkgRepo).findAllById(ids.subList(200, 250));
+        assertThat(result.missingIds()).hasSize(250);
+    }
+
+    @Test
+    void getPackagesByIds_tooManyIds_throwsAPIException() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThatThrownBy(() -> service.getPackagesByIds(ids))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("At most 500");
+        verifyNoInteractions(pkgRepo);
+    }
+
+    @Test
+    void parseFields_unknownField_throwsAPIException() {
+        assertThatThrownBy(() -> PackageField.parse("packageId,owner"))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("Unknown field: 'owner'");
+    }
+
     @Test
     void getPackageById_existingId_success() {
         // Given
@@ -275,7 +512,7 @@ class PackageServiceImplTest {
         packageEntity.setStatus(PackageStatus.PENDING);
 
         PackageResponseDTO expectedResponse = new PackageResponseDTO(
-                packageId, "Test Package", 15.0, true, PackageStatus.PENDING
+                packageId, "Test Package", 15.0, true, PackageStatus.PENDING, null
         );
 
         when(pkgRepo.findById(packageId)).thenReturn(Optional.of(packageEntity));
@@ -389,7 +626,7 @@ class PackageServiceImplTest {
         updatedEntity.setStatus(PackageStatus.PROCESSING);
 
         PackageResponseDTO expectedResponse = new PackageResponseDTO(
-                packageId, "Updated Package Description", 25.0, true, PackageStatus.PROCESSING
+                packageId, "Updated Package Description", 25.0, true, PackageStatus.PROCESSING, null
         );
 
         when(pkgRepo.findById(packageId)).thenReturn(Optional.of(existingEntity));
@@ -542,7 +779,7 @@ class PackageServiceImplTest {
         updatedEntity.setStatus(PackageStatus.OUT_FOR_DELIVERY);
 
         PackageResponseDTO expectedResponse = new PackageResponseDTO(
-                packageId, "Updated Description", 20.0, true, PackageStatus.OUT_FOR_DELIVERY
+                packageId, "Updated Description", 20.0, true, PackageStatus.OUT_FOR_DELIVERY, null
         );
 
         when(pkgRepo.findById(packageId)).thenReturn(Optional.of(existingEntity));
@@ -633,8 +870,18 @@ class PackageServiceImplTest {
     }
 
     private List<PackageResponseDTO> createTestResponseDTOs() {
-        PackageResponseDTO dto1 = new PackageResponseDTO(1L, "Package 1", 10.0, false, PackageStatus.PENDING);
-        PackageResponseDTO dto2 = new PackageResponseDTO(2L, "Package 2", 15.0, true, PackageStatus.IN_TRANSIT);
+        PackageResponseDTO dto1 = new PackageResponseDTO(1L, "Package 1", 10.0, false, PackageStatus.PENDING, null);
+        PackageResponseDTO dto2 = new PackageResponseDTO(2L, "Package 2", 15.0, true, PackageStatus.IN_TRANSIT, null);
         return List.of(dto1, dto2);
     }
-}
\ No newline at end of file
+
+    private static PackageEntity entity(Long id, PackageStatus status) {
+        PackageEntity pkg = new PackageEntity();
+        pkg.setPackageId(id);
+        pkg.setDescription("Package " + id);
+        pkg.setWeight(2.0);
+        pkg.setFragile(false);
+        pkg.setStatus(status);
+        return pkg;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.diagnostics.SqlDiagnosticsFilter;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.CountStrategy;
+import com.example.demo.payload.PackageField;
+import com.example.demo.payload.PackageRequestDTO;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.support.PostgresContainerSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.example.demo.support.SqlStatementAssertions.assertStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the JDBC statement count of every {@link PackageService} method.
+ * Update the expected counts deliberately when a change needs more queries.
+ */
+@SpringBootTest(properties = "app.diagnostics.sql.enabled=true")
+@AutoConfigureMockMvc
+class PackageServiceStatementCountTest extends PostgresContainerSupport {
+
+    @Autowired
+    private PackageService packageService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private PackageResponseDTO existing;
+
+    @BeforeEach
+    void setup() {
+        jdbc.execute("TRUNCATE packages");
+        for (int i = 0; i < 15; i++) {
+            existing = packageService.createPackage(request("Seeded package " + i, PackageStatus.PENDING));
+        }
+    }
+
+    @Test
+    void createPackage_existsCheckAndInsert() {
+        // exists-by-description + insert + pg_notify
+        assertStatements(3, () -> packageService.createPackage(request("New package", PackageStatus.PENDING)));
+    }
+
+    @Test
+    void getAllPackages_pageAndCount() {
+        // page select + count(*)
+        assertStatements(2, () -> packageService.getAllPackages(0, 10, "packageId", "asc"));
+    }
+
+    @Test
+    void getAllPackages_cachedCount_countsOncePerTtl() {
+        // slice select + count(*), then the slice select alone while the count is cached
+        assertStatements(2, () -> packageService.getAllPackages(0, 10, "packageId", "asc", CountStrategy.CACHED));
+        assertStatements(1, () -> packageService.getAllPackages(1, 10, "packageId", "asc", CountStrategy.CACHED));
+    }
+
+    @Test
+    void getAllPackages_estimatedCount_readsPlannerStatistics() {
+        jdbc.execute("ANALYZE packages");
+        // slice select + pg_class lookup
+        assertStatements(2, () -> packageService.getAllPackages(0, 10, "packageId", "asc", CountStrategy.ESTIMATED));
+    }
+
+    @Test
+    void getPackageById_singleSelect() {
+        assertStatements(1, () -> packageService.getPackageById(existing.packageId()));
+    }
+
+    @Test
+    void sparseFields_singleProjectedSelect() {
+        EnumSet<PackageField> fields = EnumSet.of(PackageField.PACKAGE_ID, PackageField.STATUS);
+        assertStatements(1, () -> packageService.getPackageById(existing.packageId(), fields));
+        // projected slice + count(*)
+        assertStatements(2, () -> packageService.getAllPackages(0, 10, "packageId", "asc", CountStrategy.EXACT, fields));
+    }
+
+    @Test
+    void getPackagesByIds_oneInQueryPerChunk() {
+        List<Long> ids = new ArrayList<>(jdbc.queryForList("SELECT package_id FROM packages", Long.class));
+        assertStatements(1, () -> packageService.getPackagesByIds(ids));
+
+        // 15 real + 135 unknown ids: two chunks of at most 100
+        for (long unknown = 1; ids.size() < 150; unknown++) {
+            ids.add(unknown);
+        }
+        assertStatements(2, () -> packageService.getPackagesByIds(ids));
+    }
+
+    @Test
+    void updatePackage_selectAndUpdate() {
+        // select + update + pg_notify
+        assertStatements(3, () -> packageService.updatePackage(
+                existing.packageId(), request(existing.description(), PackageStatus.PROCESSING)));
+    }
+
+    @Test
+    void deletePackage_selectAndDelete() {
+        // select + delete + pg_notify
+        assertStatements(3, () -> packageService.deletePackage(existing.packageId()));
+    }
+
+    @Test
+    void diagnosticHeaders_reportStatementsPerRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/packages/{id}", existing.packageId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlDiagnosticsFilter.STATEMENT_COUNT_HEADER, "1"))
+                .andExpect(header().exists(SqlDiagnosticsFilter.STATEMENT_TIME_HEADER));
+    }
+
+    private static PackageRequestDTO request(String description, PackageStatus status) {
+        return new PackageRequestDTO(description, 10.0, false, status);
+    }
+}
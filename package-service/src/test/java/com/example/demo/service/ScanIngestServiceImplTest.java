@@ -0,0 +1,218 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.APIException;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.exceptions.TooManyRequestsException;
+import com.example.demo.mapper.PackageMapper;
+import com.example.demo.model.PackageEntity;
+import com.example.demo.model.PackageStatus;
+import com.example.demo.payload.PackageResponseDTO;
+import com.example.demo.repository.PackageRepository;
+import com.example.demo.service.impl.ScanIngestServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScanIngestServiceImplTest {
+
+    @Mock
+    private PackageRepository pkgRepo;
+
+    @Mock
+    private PackageMapper pkgMapper;
+
+    @Mock
+    private TransactionTemplate txTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ScanIngestServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new ScanIngestServiceImpl(pkgRepo, pkgMapper, txTemplate, eventPublisher, new SimpleMeterRegistry(),
+                100, 3, Duration.ofSeconds(10));
+        lenient().when(txTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(pkgMapper.toResponseDto(any(PackageEntity.class))).thenAnswer(invocation -> {
+            PackageEntity entity = invocation.getArgument(0);
+            return new PackageResponseDTO(entity.getPackageId(), entity.getDescription(), entity.getWeight(),
+                    entity.getFragile(), entity.getStatus(), null);
+        });
+    }
+
+    @Test
+    void flush_collapsesChainIntoFinalStatus() {
+        // Given
+        PackageEntity entity = entity(1L, PackageStatus.PENDING);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PackageResponseDTO> first = service.submitScan(1L, PackageStatus.PROCESSING);
+        CompletableFuture<PackageResponseDTO> second = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        assertThat(first).isNotDone();
+        service.flush();
+
+        // Then - both scans are acknowledged with the committed state
+        assertThat(first.join().status()).isEqualTo(PackageStatus.IN_TRANSIT);
+        assertThat(second.join().status()).isEqualTo(PackageStatus.IN_TRANSIT);
+        assertThat(entity.getStatus()).isEqualTo(PackageStatus.IN_TRANSIT);
+        verify(txTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void flush_replayedScanIsIdempotent() {
+        // Given - the package already reached IN_TRANSIT before a crash
+        PackageEntity entity = entity(1L, PackageStatus.IN_TRANSIT);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PackageResponseDTO> replay = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        service.flush();
+
+        // Then
+        assertThat(replay.join().status()).isEqualTo(PackageStatus.IN_TRANSIT);
+    }
+
+    @Test
+    void flush_replayedChainOverlappingStoredStatus_appliesOnlyTheNewScans() {
+        // Given - the crash happened after IN_TRANSIT committed; the client resends its whole chain
+        PackageEntity entity = entity(1L, PackageStatus.IN_TRANSIT);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PackageResponseDTO> processing = service.submitScan(1L, PackageStatus.PROCESSING);
+        CompletableFuture<PackageResponseDTO> inTransit = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        CompletableFuture<PackageResponseDTO> outForDelivery = service.submitScan(1L, PackageStatus.OUT_FOR_DELIVERY);
+        service.flush();
+
+        // Then
+        assertThat(processing.join().status()).isEqualTo(PackageStatus.OUT_FOR_DELIVERY);
+        assertThat(inTransit.join().status()).isEqualTo(PackageStatus.OUT_FOR_DELIVERY);
+        assertThat(outForDelivery.join().status()).isEqualTo(PackageStatus.OUT_FOR_DELIVERY);
+        assertThat(entity.getStatus()).isEqualTo(PackageStatus.OUT_FOR_DELIVERY);
+    }
+
+    @Test
+    void flush_replayedChainBehindStoredStatus_changesNothing() {
+        // Given
+        PackageEntity entity = entity(1L, PackageStatus.DELIVERED);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PackageResponseDTO> processing = service.submitScan(1L, PackageStatus.PROCESSING);
+        CompletableFuture<PackageResponseDTO> inTransit = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        service.flush();
+
+        // Then
+        assertThat(processing.join().status()).isEqualTo(PackageStatus.DELIVERED);
+        assertThat(inTransit.join().status()).isEqualTo(PackageStatus.DELIVERED);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void submitScan_replayBehindBufferedScan_waitsForTheFlush() {
+        // Given
+        PackageEntity entity = entity(1L, PackageStatus.PROCESSING);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PackageResponseDTO> inTransit = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        CompletableFuture<PackageResponseDTO> replay = service.submitScan(1L, PackageStatus.PROCESSING);
+        service.flush();
+
+        // Then
+        assertThat(inTransit.join().status()).isEqualTo(PackageStatus.IN_TRANSIT);
+        assertThat(replay.join().status()).isEqualTo(PackageStatus.IN_TRANSIT);
+    }
+
+    @Test
+    void flush_chainNotStartingFromStoredStatus_failsOnlyThatPackage() {
+        // Given
+        PackageEntity stale = entity(1L, PackageStatus.PENDING);
+        PackageEntity ok = entity(2L, PackageStatus.PENDING);
+        when(pkgRepo.findAllById(any())).thenReturn(List.of(stale, ok));
+
+        // When
+        CompletableFuture<PackageResponseDTO> invalid = service.submitScan(1L, PackageStatus.IN_TRANSIT);
+        CompletableFuture<PackageResponseDTO> valid = service.submitScan(2L, PackageStatus.PROCESSING);
+        service.flush();
+
+        // Then
+        assertThatThrownBy(invalid::join).hasCauseInstanceOf(APIException.class)
+                .hasMessageContaining("Invalid status transition: from PENDING to IN_TRANSIT");
+        assertThat(stale.getStatus()).isEqualTo(PackageStatus.PENDING);
+        assertThat(valid.join().status()).isEqualTo(PackageStatus.PROCESSING);
+    }
+
+    @Test
+    void flush_unknownPackage_failsWithNotFound() {
+        // Given
+        when(pkgRepo.findAllById(any())).thenReturn(List.of());
+
+        // When
+        CompletableFuture<PackageResponseDTO> scan = service.submitScan(42L, PackageStatus.PROCESSING);
+        service.flush();
+
+        // Then
+        assertThatThrownBy(scan::join).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void flush_transactionFailure_failsAllWaiters() {
+        // Given
+        doThrow(new RuntimeException("Database connection error")).when(txTemplate).execute(any());
+
+        // When
+        CompletableFuture<PackageResponseDTO> scan = service.submitScan(1L, PackageStatus.PROCESSING);
+        service.flush();
+
+        // Then
+        assertThatThrownBy(scan::join).hasMessageContaining("Database connection error");
+    }
+
+    @Test
+    void submitScan_invalidBufferedChain_rejectedImmediately() {
+        service.submitScan(1L, PackageStatus.PROCESSING);
+
+        assertThatThrownBy(() -> service.submitScan(1L, PackageStatus.DELIVERED))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("Invalid status transition: from PROCESSING to DELIVERED");
+    }
+
+    @Test
+    void submitScan_bufferFull_throwsTooManyRequests() {
+        service.submitScan(1L, PackageStatus.PROCESSING);
+        service.submitScan(2L, PackageStatus.PROCESSING);
+        service.submitScan(3L, PackageStatus.PROCESSING);
+
+        assertThatThrownBy(() -> service.submitScan(4L, PackageStatus.PROCESSING))
+                .isInstanceOf(TooManyRequestsException.class);
+        verifyNoInteractions(pkgRepo);
+    }
+
+    private static PackageEntity entity(Long id, PackageStatus status) {
+        PackageEntity entity = new PackageEntity();
+        entity.setPackageId(id);
+        entity.setDescription("Package " + id);
+        entity.setWeight(5.0);
+        entity.setFragile(false);
+        entity.setStatus(status);
+        return entity;
+    }
+}
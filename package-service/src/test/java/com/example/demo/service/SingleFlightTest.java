@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.DeadlineExceededException;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.resilience.Deadline;
+import com.example.demo.service.impl.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final List<SingleFlight.Role> roles = new CopyOnWriteArrayList<>();
+    private final SingleFlight<String> flights = new SingleFlight<>(roles::add);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_concurrentIdenticalCallsShareOneCall() throws Exception {
+        // Given: a leader blocked inside the call
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flights.execute("pkg-42", 0, () -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        Future<String> follower1 = executor.submit(() -> flights.execute("pkg-42", 0, () -> "own call"));
+        Future<String> follower2 = executor.submit(() -> flights.execute("pkg-42", 0, () -> "own call"));
+        awaitRoles(3);
+        release.countDown();
+
+        // Then
+        assertThat(List.of(leader.get(5, TimeUnit.SECONDS), follower1.get(5, TimeUnit.SECONDS),
+                follower2.get(5, TimeUnit.SECONDS))).containsOnly("result");
+        assertThat(calls).hasValue(1);
+        assertThat(roles).containsExactlyInAnyOrder(
+                SingleFlight.Role.LEADER, SingleFlight.Role.FOLLOWER, SingleFlight.Role.FOLLOWER);
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_newGenerationDoesNotJoinEarlierFlight() throws Exception {
+        // Given: a read in flight from before a write
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = executor.submit(() -> flights.execute("pkg-42", 0, () -> {
+            entered.countDown();
+            await(release);
+            return "before write";
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: a caller arrives after the write committed
+        String fresh = flights.execute("pkg-42", 1, () -> "after write");
+        release.countDown();
+
+        // Then
+        assertThat(fresh).isEqualTo("after write");
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+    }
+
+    @Test
+    void execute_followersGetTheLeadersException() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Package not found with id: 42");
+        Future<String> leader = executor.submit(() -> flights.execute("pkg-42", 0, () -> {
+            entered.countDown();
+            await(release);
+            throw notFound;
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        Future<String> follower = executor.submit(() -> flights.execute("pkg-42", 0, () -> "own call"));
+        awaitRoles(2);
+        release.countDown();
+
+        // Then
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(notFound);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(notFound);
+    }
+
+    @Test
+    void execute_followerStopsWaitingAtItsDeadline() throws Exception {
+        // Given: a leader stuck inside the call
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flights.execute("pkg-42", 0, () -> {
+            entered.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: a follower with a short request deadline joins it
+        Future<String> follower = executor.submit(() -> {
+            try (Deadline.Scope scope = Deadline.begin(Duration.ofMillis(50))) {
+                return flights.execute("pkg-42", 0, () -> "own call");
+            }
+        });
+
+        // Then: the follower gives up on its own budget, the leader still completes
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    @Test
+    void execute_afterCompletionRunsAgain() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        flights.execute("pkg-42", 0, calls::incrementAndGet);
+        flights.execute("pkg-42", 0, calls::incrementAndGet);
+
+        // Then: results are not cached
+        assertThat(calls).hasValue(2);
+    }
+
+    private void awaitRoles(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (roles.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(roles).hasSize(count);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
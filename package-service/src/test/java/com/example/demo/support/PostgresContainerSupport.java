@@ -0,0 +1,29 @@
+package com.example.demo.support;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Shared PostgreSQL container for integration tests that need the real database
+ * (query plans, statement counts, ...). Tests are skipped when Docker is not available.
+ * <p>
+ * Service instances do not migrate on startup (that is the migration job's part),
+ * so the test context runs the Flyway migrations against the fresh container itself.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresContainerSupport {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void migrate(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("app.id.worker-id", () -> "1");
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.support;
+
+import com.example.demo.diagnostics.SqlStatementStats;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of JDBC statements a call executes, so an added query (N+1, extra
+ * existence check, ...) fails the build. Requires {@code app.diagnostics.sql.enabled=true}.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertStatements(int expected, Supplier<T> action) {
+        try (SqlStatementStats.Scope scope = SqlStatementStats.begin()) {
+            T result = action.get();
+            assertThat(scope.stats().statements())
+                    .as("JDBC statements executed")
+                    .isEqualTo(expected);
+            return result;
+        }
+    }
+
+    public static void assertStatements(int expected, Runnable action) {
+        assertStatements(expected, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
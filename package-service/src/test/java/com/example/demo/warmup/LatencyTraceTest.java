@@ -0,0 +1,48 @@
+package com.example.demo.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LatencyTraceTest {
+
+    @Test
+    void windows_showLatencyFallingOverTheCalls() {
+        // Given: 100 calls slowing from 10 ms down to 1 ms, one failed
+        LatencyTrace trace = new LatencyTrace("GET /packages/{id}", 10);
+        for (int i = 0; i < 100; i++) {
+            trace.record((i < 50 ? 10 : 1) * 1_000_000L, i == 3);
+        }
+
+        // When
+        WarmupReport.Scenario scenario = trace.summarize(4);
+
+        // Then
+        assertThat(scenario.calls()).isEqualTo(100);
+        assertThat(scenario.errors()).isEqualTo(1);
+        List<WarmupReport.Window> windows = scenario.windows();
+        assertThat(windows).hasSize(4);
+        assertThat(windows.get(0).fromCall()).isZero();
+        assertThat(windows.get(3).toCall()).isEqualTo(100);
+        assertThat(windows.get(0).p99Ms()).isEqualTo(10.0);
+        assertThat(windows.get(3).p99Ms()).isEqualTo(1.0);
+    }
+
+    @Test
+    void windows_fewerCallsThanWindows_oneWindowPerCall() {
+        LatencyTrace trace = new LatencyTrace("GET /packages/all", 0);
+        trace.record(2_500_000, false);
+        trace.record(1_500_000, false);
+
+        List<WarmupReport.Window> windows = trace.summarize(10).windows();
+
+        assertThat(windows).extracting(WarmupReport.Window::p50Ms).containsExactly(2.5, 1.5);
+    }
+
+    @Test
+    void summarize_noCalls_hasNoWindows() {
+        assertThat(new LatencyTrace("idle", 0).summarize(10).windows()).isEmpty();
+    }
+}